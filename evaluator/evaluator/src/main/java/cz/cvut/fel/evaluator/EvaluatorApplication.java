@@ -1,12 +1,19 @@
 package cz.cvut.fel.evaluator;
 
 import cz.cvut.fel.evaluator.utils.CLIUtils;
+import cz.cvut.fel.evaluator.evaluation.BatchEvaluation;
 import cz.cvut.fel.evaluator.evaluation.Evaluation;
+import cz.cvut.fel.evaluator.evaluation.shard.ShardedEvaluation;
+import cz.cvut.fel.evaluator.evaluation.stream.StreamEvaluation;
+import cz.cvut.fel.evaluator.evaluation.watch.WatchEvaluation;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerServer;
 import org.apache.commons.cli.*;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 import java.io.IOException;
+import java.io.PrintStream;
+import java.sql.SQLException;
 
 /**
  * Launches the evaluator application.
@@ -16,14 +23,47 @@ public class EvaluatorApplication {
 
     private static Evaluation evaluation;
 
-    public EvaluatorApplication(Evaluation evaluation) {
+    private static BatchEvaluation batchEvaluation;
+
+    private static ShardedEvaluation shardedEvaluation;
+
+    private static WatchEvaluation watchEvaluation;
+
+    private static StreamEvaluation streamEvaluation;
+
+    private static WorkerServer workerServer;
+
+    public EvaluatorApplication(Evaluation evaluation, BatchEvaluation batchEvaluation, ShardedEvaluation shardedEvaluation,
+                                WatchEvaluation watchEvaluation, StreamEvaluation streamEvaluation, WorkerServer workerServer) {
         EvaluatorApplication.evaluation = evaluation;
+        EvaluatorApplication.batchEvaluation = batchEvaluation;
+        EvaluatorApplication.shardedEvaluation = shardedEvaluation;
+        EvaluatorApplication.watchEvaluation = watchEvaluation;
+        EvaluatorApplication.streamEvaluation = streamEvaluation;
+        EvaluatorApplication.workerServer = workerServer;
     }
 
-    public static void main(String[] args) throws ParseException, IOException {
+    public static void main(String[] args) throws ParseException, IOException, SQLException {
         SpringApplication.run(EvaluatorApplication.class, args);
 
         CommandLine cmd = CLIUtils.readOptions(args);
-        evaluation.run(cmd.getOptionValue("c"), cmd.getOptionValue("sql"), cmd.getOptionValue("rm"), cmd.getOptionValue("o"));
+        if (cmd.hasOption("history")) {
+            evaluation.printHistory(cmd.getOptionValue("history"));
+            return;
+        }
+        if (cmd.hasOption("ref")) evaluation.loadReferenceSolution(cmd.getOptionValue("ref"));
+        if (cmd.hasOption("worker")) {
+            workerServer.serve(System.in, System.out);
+            return;
+        }
+        if (cmd.hasOption("batch") && cmd.hasOption("shard"))
+            shardedEvaluation.run(cmd.getOptionValue("c"), cmd.getOptionValue("batch"), cmd.getOptionValue("o"));
+        else if (cmd.hasOption("stream")) {
+            PrintStream results = System.out;
+            System.setOut(System.err);
+            streamEvaluation.run(cmd.getOptionValue("c"), System.in, results);
+        } else if (cmd.hasOption("watch")) watchEvaluation.run(cmd.getOptionValue("c"), cmd.getOptionValue("watch"), cmd.getOptionValue("o"));
+        else if (cmd.hasOption("batch")) batchEvaluation.run(cmd.getOptionValue("c"), cmd.getOptionValue("batch"), cmd.getOptionValue("o"));
+        else evaluation.run(cmd.getOptionValue("c"), cmd.getOptionValue("sql"), cmd.getOptionValue("rm"), cmd.getOptionValue("o"));
     }
 }
@@ -0,0 +1,155 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import cz.cvut.fel.evaluator.evaluation.pipeline.BatchJob;
+import cz.cvut.fel.evaluator.evaluation.pipeline.Pipeline;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarPair;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates all the solutions of a batch.
+ */
+@Slf4j
+@NoArgsConstructor
+@Component
+public class BatchEvaluation {
+
+    /**
+     * Passes the solutions through the stages of the pipeline and writes the reports.
+     */
+    private BatchProcessor batchProcessor;
+
+    /**
+     * Keeps the inputs and intermediate results of the solutions of a batch between runs.
+     */
+    private BatchManifest batchManifest;
+
+    /**
+     * Records the completed solutions of a batch, so an interrupted batch can be resumed.
+     */
+    private BatchJournal batchJournal;
+
+    @Autowired
+    public BatchEvaluation(BatchProcessor batchProcessor, BatchManifest batchManifest, BatchJournal batchJournal) {
+        this.batchProcessor = batchProcessor;
+        this.batchManifest = batchManifest;
+        this.batchJournal = batchJournal;
+    }
+
+    /**
+     * Evaluates all the solutions in the directory one after another in the same database.
+     * The database is cleared after each solution and the outcomes of SELECT queries
+     * are shared by the solutions, so the same queries on the same data are executed once.
+     * A solution with exactly the same statements as an earlier one is not evaluated again,
+     * the earlier output is reused with a note about it.
+     * The manifest in the output directory keeps the queries and the results of every solution,
+     * so when the batch is run again, unchanged files are not read again and solutions
+     * whose queries, criteria and settings did not change are only scored again.
+     * The solutions pass through a pipeline of stages connected by bounded queues:
+     * the files are read and parsed while other solutions are executed and written.
+     * The order of the solutions is given by the scheduling policy.
+     * The number of the workers reading the files may be adjusted by the measured throughput,
+     * GC pauses and heap occupancy.
+     * Every completed solution is appended to the journal in the output directory,
+     * so when an interrupted batch is run again with the same criteria and settings,
+     * the solutions completed before are skipped. The cohort summary is computed at the end
+     * from the scores of all the solutions in the order of their names, the skipped ones
+     * taken from the journal, so a resumed batch writes the same summary as a whole one,
+     * whatever the order the solutions were completed in.
+     * With worker processes the files are read and the queries executed in child JVMs,
+     * so a solution which crashes its worker fails alone and the batch continues.
+     * Finally the pairs of solutions with near-duplicate statements are written
+     * to the similarity report and the statistics of the scores of the whole cohort
+     * to the cohort summary in the output directory.
+     * Besides PDF files, SQL scripts and text files with the queries are evaluated,
+     * they are read without PDFBox. The batch may be a ZIP archive, e.g. exported by the LMS,
+     * instead of a directory. Its entries in all its folders are streamed from the archive
+     * without extracting them to the disk and the outputs are named after the entries,
+     * the folders joined by underscores.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param batchDirectory Path to the directory or the ZIP archive with files containing students' solutions.
+     * @param outputDirectory Directory for the output HTML files, one for each solution,
+     *                        relative to the directory where the program is running.
+     *
+     * @throws IOException When reading the directory.
+     */
+    public void run(String criteriaJSON, String batchDirectory, String outputDirectory) throws IOException {
+        log.info("Batch evaluation of " + batchDirectory + " has been started");
+        try (FileSystem archive = batchProcessor.openArchive(Paths.get(batchDirectory))) {
+            run(criteriaJSON, batchProcessor.getJobs(archive == null ? Paths.get(batchDirectory) : archive.getPath("/"), outputDirectory),
+                    outputDirectory);
+        }
+    }
+
+    /**
+     * Evaluates the solutions of a batch, see {@link #run(String, String, String)}.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param jobs Solutions of the batch.
+     * @param outputDirectory Directory for the output HTML files.
+     * @throws IOException When writing the outputs.
+     */
+    private void run(String criteriaJSON, List<BatchJob> jobs, String outputDirectory) throws IOException {
+        BatchRun run = batchProcessor.start(criteriaJSON, batchProcessor.getOutputPath(outputDirectory));
+
+        String batchHash = batchJournal.isEnabled() ? batchManifest.getBatchHash(criteriaJSON) : null;
+        Map<String, ManifestEntry> completed = batchJournal.open(run.getOutputPath(), batchHash);
+        int skippedSolutions = skipCompleted(jobs, completed, run);
+
+        Pipeline pipeline = batchProcessor.createPipeline(run, job -> batchJournal.append(job.getName(), batchHash, job.getResult()));
+        try {
+            pipeline.run(jobs);
+        } catch (InterruptedException e) {
+            batchJournal.close();
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch evaluation was interrupted", e);
+        }
+        run.getFailed().addAll(pipeline.getFailedJobs());
+        batchProcessor.finish(run);
+
+        List<SimilarPair> similarPairs = batchProcessor.publishReports(run, "batch");
+        batchJournal.finish(run.getOutputPath());
+
+        System.out.println(pipeline.getMakespanReport());
+        pipeline.getUtilizationReport().forEach(System.out::println);
+        System.out.println(skippedSolutions + " solutions were completed before the batch was interrupted and were skipped");
+        batchProcessor.printReport(run, similarPairs);
+    }
+
+    /**
+     * Leaves out the solutions completed before the batch was interrupted, whose files did not change.
+     * Their queries and their scores are taken from the journal.
+     *
+     * @param jobs Solutions of the batch, the completed ones are removed.
+     * @param completed Entries of the completed solutions by the names of the solutions.
+     * @param run State of the batch the queries and the scores are added to.
+     * @return The number of the skipped solutions.
+     * @throws IOException When reading a file.
+     */
+    private int skipCompleted(List<BatchJob> jobs, Map<String, ManifestEntry> completed, BatchRun run) throws IOException {
+        int skipped = 0;
+        for (Iterator<BatchJob> iterator = jobs.iterator(); iterator.hasNext(); ) {
+            BatchJob job = iterator.next();
+            ManifestEntry entry = completed.get(job.getName());
+            if (entry == null || !entry.getFileHash().equals(batchManifest.getFileHash(job.getSolution()))) continue;
+
+            run.getStatements().put(job.getName(), entry.getStatements());
+            run.getResults().put(job.getName(), entry.getCriteria());
+            batchManifest.putEntry(job.getName(), entry);
+            iterator.remove();
+            skipped++;
+        }
+        return skipped;
+    }
+}
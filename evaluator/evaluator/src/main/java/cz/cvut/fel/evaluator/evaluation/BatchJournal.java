@@ -0,0 +1,191 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Records every completed solution of a batch in a journal, one JSON object per line,
+ * so a batch which was interrupted skips the completed solutions when it is run again.
+ * Every line is forced to the disk before the next solution is completed, so at most
+ * the last line is lost when the program dies and such an incomplete line is ignored.
+ * Only the lines written for the same inputs of the batch (the criteria, the reference
+ * solution and the settings) are used. The journal is deleted when the batch is finished.
+ * The results of a batch shared by several processes are kept as journal entries too,
+ * one file for every solution, so the processes do not write to the same file.
+ */
+@Slf4j
+@Component
+public class BatchJournal {
+
+    /**
+     * Name of the journal file in the output directory, empty if no journal is kept.
+     */
+    @Value("${evaluator.journal.file:batch-journal.jsonl}")
+    private String file = "batch-journal.jsonl";
+
+    /**
+     * Writes and reads the journal entries and the result files.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Channel the completed solutions are appended to, null if the journal is not open.
+     */
+    private FileChannel channel;
+
+    /**
+     * Checks whether the journal is kept.
+     *
+     * @return true, if the journal file is set.
+     */
+    public boolean isEnabled() {
+        return file != null && !file.isBlank();
+    }
+
+    /**
+     * Opens the journal in the directory for appending.
+     * An incomplete last line is ended, so the next line is not appended to it.
+     *
+     * @param directory Output directory of the batch.
+     * @param batchHash Hash of the inputs of the batch except the solutions.
+     * @return Entries of the solutions completed before with the same inputs by the names of the solutions.
+     * @throws IOException When opening the file.
+     */
+    public synchronized Map<String, ManifestEntry> open(Path directory, String batchHash) throws IOException {
+        close();
+        if (!isEnabled()) return new LinkedHashMap<>();
+
+        Map<String, ManifestEntry> completed = read(directory, batchHash);
+        if (!completed.isEmpty()) log.info(completed.size() + " completed solutions have been found in " + directory.resolve(file));
+
+        channel = FileChannel.open(directory.resolve(file), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        if (channel.size() > 0) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            if (last.get(0) != '\n') channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+        return completed;
+    }
+
+    /**
+     * Appends the completed solution to the journal and forces it to the disk.
+     *
+     * @param name Name of the solution.
+     * @param batchHash Hash of the inputs of the batch except the solutions.
+     * @param entry Inputs and results of the solution.
+     * @throws IOException When writing the file.
+     */
+    public synchronized void append(String name, String batchHash, ManifestEntry entry) throws IOException {
+        if (channel == null) return;
+
+        ByteBuffer line = ByteBuffer.wrap((mapper.writeValueAsString(new JournalEntry(name, batchHash, entry)) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) channel.write(line);
+        channel.force(true);
+    }
+
+    /**
+     * Reads the completed solutions from the journal in the directory line by line.
+     * A line which cannot be read, e.g. the last line written when the program died, is left out.
+     *
+     * @param directory Output directory of the batch.
+     * @param batchHash Hash of the inputs of the batch except the solutions.
+     * @return Entries of the solutions with the same inputs by the names of the solutions, sorted by the names.
+     * @throws IOException When reading the file.
+     */
+    public synchronized Map<String, ManifestEntry> read(Path directory, String batchHash) throws IOException {
+        Map<String, ManifestEntry> completed = new TreeMap<>();
+        if (!isEnabled() || !Files.exists(directory.resolve(file))) return completed;
+
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(file), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    JournalEntry journalEntry = mapper.readValue(line, JournalEntry.class);
+                    if (batchHash.equals(journalEntry.getBatchHash())) completed.put(journalEntry.getName(), journalEntry.getEntry());
+                } catch (IOException e) {
+                    log.warn("Incomplete line of the journal " + directory.resolve(file) + " has been ignored");
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Writes the result of a solution to its own file, replacing the file at once,
+     * so other processes never read a partly written result.
+     *
+     * @param file Path to the result file.
+     * @param name Name of the solution.
+     * @param batchHash Hash of the inputs of the batch except the solutions.
+     * @param entry Inputs and results of the solution.
+     * @throws IOException When writing the file.
+     */
+    public void writeResult(Path file, String name, String batchHash, ManifestEntry entry) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try (FileChannel resultChannel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            resultChannel.write(ByteBuffer.wrap(mapper.writeValueAsBytes(new JournalEntry(name, batchHash, entry))));
+            resultChannel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the result of a solution from its own file.
+     *
+     * @param file Path to the result file.
+     * @param batchHash Hash of the inputs of the batch except the solutions.
+     * @return Inputs and results of the solution, empty if there is no result for the same inputs.
+     */
+    public Optional<ManifestEntry> readResult(Path file, String batchHash) {
+        if (!Files.exists(file)) return Optional.empty();
+
+        try {
+            JournalEntry journalEntry = mapper.readValue(file.toFile(), JournalEntry.class);
+            return batchHash.equals(journalEntry.getBatchHash()) ? Optional.of(journalEntry.getEntry()) : Optional.empty();
+        } catch (IOException e) {
+            log.warn("Result " + file + " could not be read: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Closes the journal and deletes it, because the batch is finished.
+     *
+     * @param directory Output directory of the batch.
+     * @throws IOException When deleting the file.
+     */
+    public synchronized void finish(Path directory) throws IOException {
+        close();
+        if (isEnabled()) Files.deleteIfExists(directory.resolve(file));
+    }
+
+    /**
+     * Closes the journal, if it is open.
+     */
+    public synchronized void close() {
+        if (channel == null) return;
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Journal could not be closed: " + e.getMessage());
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,256 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.sql.ReferenceSolution;
+import cz.cvut.fel.evaluator.evaluation.sql.ResultFingerprint;
+import cz.cvut.fel.evaluator.output.Output;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Records the inputs and intermediate results of every solution of a batch,
+ * so a repeated batch recomputes only the stages whose inputs changed.
+ * The queries of a solution whose file did not change are taken from the manifest
+ * instead of reading the PDF file again, and a solution whose queries, criteria
+ * and settings did not change is only scored again from the stored features,
+ * e.g. after the maximum scores of the criteria were changed.
+ */
+@Slf4j
+@Component
+public class BatchManifest {
+
+    /**
+     * Settings which do not change the result of the evaluation: the caches and the files kept
+     * besides the results, and the settings which only schedule the work, e.g. the numbers of the threads
+     * or the owner of the leases, so a batch can be resumed after the pipeline was tuned
+     * and shared by processes with different settings.
+     */
+    private static final List<String> ignoredSettings = List.of("evaluator.statement-cache.", "evaluator.similarity.", "evaluator.manifest.",
+            "evaluator.history.", "evaluator.journal.", "evaluator.sharding.", "evaluator.pipeline.", "evaluator.workers.", "evaluator.watch.",
+            "evaluator.stream.", "evaluator.select-threads");
+
+    /**
+     * Reference queries the results of SELECT queries are compared with.
+     */
+    private final ReferenceSolution referenceSolution;
+
+    /**
+     * Settings of the evaluation.
+     */
+    private final Environment environment;
+
+    /**
+     * Name of the manifest file in the output directory, empty if no manifest is kept.
+     */
+    @Value("${evaluator.manifest.file:manifest.json}")
+    private String file = "manifest.json";
+
+    /**
+     * Entries of the solutions by the names of the solutions.
+     */
+    private Map<String, ManifestEntry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    public BatchManifest(ReferenceSolution referenceSolution, Environment environment) {
+        this.referenceSolution = referenceSolution;
+        this.environment = environment;
+    }
+
+    /**
+     * Checks whether the manifest is kept.
+     *
+     * @return true, if the manifest file is set.
+     */
+    public boolean isEnabled() {
+        return file != null && !file.isBlank();
+    }
+
+    /**
+     * Reads the manifest of the previous batch from the directory, if it exists.
+     *
+     * @param directory Output directory of the batch.
+     */
+    public synchronized void load(Path directory) {
+        entries = new LinkedHashMap<>();
+        if (!isEnabled() || !Files.exists(directory.resolve(file))) return;
+
+        try {
+            entries = new ObjectMapper().readValue(directory.resolve(file).toFile(), new TypeReference<LinkedHashMap<String, ManifestEntry>>() {});
+            log.info(entries.size() + " manifest entries have been loaded from " + directory.resolve(file));
+        } catch (IOException e) {
+            log.warn("Manifest could not be loaded from " + directory.resolve(file) + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the manifest to the directory. The file is replaced at once,
+     * so a process interrupted while writing never leaves a partly written manifest.
+     *
+     * @param directory Output directory of the batch.
+     */
+    public synchronized void save(Path directory) {
+        if (!isEnabled()) return;
+
+        try {
+            Path temporary = directory.resolve(file + "." + ProcessHandle.current().pid() + ".tmp");
+            new ObjectMapper().writeValue(temporary.toFile(), entries);
+            Files.move(temporary, directory.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info(entries.size() + " manifest entries have been saved to " + directory.resolve(file));
+        } catch (IOException e) {
+            log.warn("Manifest could not be saved to " + directory.resolve(file) + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the entry of the solution from the previous batch.
+     *
+     * @param name Name of the solution.
+     * @return Entry of the solution, empty if the solution was not evaluated before.
+     */
+    public synchronized Optional<ManifestEntry> getEntry(String name) {
+        return Optional.ofNullable(entries.get(name));
+    }
+
+    /**
+     * Records the evaluated solution.
+     *
+     * @param name Name of the solution.
+     * @param fileHash Hash of the content of the solution's file.
+     * @param evaluationHash Hash of everything the evaluation depends on except the scores.
+     * @param statements SQL queries retrieved from the solution.
+     * @param output Output of the evaluation.
+     * @return The recorded entry.
+     */
+    public synchronized ManifestEntry putEntry(String name, String fileHash, String evaluationHash, List<String> statements, Output output) {
+        ManifestEntry entry = new ManifestEntry(fileHash, evaluationHash, statements, output.getCriteria(),
+                output.getLogs(), output.getWarnings(), output.getStatistics(), output.getQueryPlans());
+        putEntry(name, entry);
+        return entry;
+    }
+
+    /**
+     * Records the entry of a solution evaluated before, e.g. in an interrupted batch.
+     *
+     * @param name Name of the solution.
+     * @param entry Entry of the solution.
+     */
+    public synchronized void putEntry(String name, ManifestEntry entry) {
+        entries.put(name, entry);
+    }
+
+    /**
+     * Computes the hash of the content of a file.
+     *
+     * @param path Path to the file.
+     * @return SHA-256 of the file as a hexadecimal string.
+     * @throws IOException When reading the file.
+     */
+    public String getFileHash(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest(Files.readAllBytes(path))) hash.append(String.format("%02x", b));
+        return hash.toString();
+    }
+
+    /**
+     * Computes the hash of everything the evaluation of the queries depends on
+     * except the maximum scores of the criteria: the queries, the names and types
+     * of the criteria, the reference solution and the settings of the evaluation.
+     *
+     * @param statements SQL queries of the solution.
+     * @param criteria The evaluation criteria.
+     * @return 64-bit hash as a hexadecimal string.
+     */
+    public String getEvaluationHash(List<String> statements, Map<String, Criterion> criteria) {
+        long hash = statements.size();
+        for (String statement : statements) hash = mix(hash, statement);
+
+        for (Map.Entry<String, Criterion> criterion : new TreeMap<>(criteria).entrySet())
+            hash = mix(hash, criterion.getKey() + ":" + criterion.getValue().getQueryType() + ":" + criterion.getValue().isResultNeeded());
+
+        for (String query : referenceSolution.getQueries()) hash = mix(hash, query);
+        for (Map.Entry<String, String> setting : getSettings().entrySet()) hash = mix(hash, setting.getKey() + "=" + setting.getValue());
+
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * Computes the hash of all the inputs of a batch except the solutions:
+     * the content of the criteria file including the maximum scores,
+     * the reference solution and the settings of the evaluation.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @return 64-bit hash as a hexadecimal string.
+     * @throws IOException When reading the criteria.
+     */
+    public String getBatchHash(String criteriaJSON) throws IOException {
+        long hash = mix(0, Files.readString(Path.of(criteriaJSON)));
+
+        for (String query : referenceSolution.getQueries()) hash = mix(hash, query);
+        for (Map.Entry<String, String> setting : getSettings().entrySet()) hash = mix(hash, setting.getKey() + "=" + setting.getValue());
+
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * Scores the stored criteria again with the maximum scores of the current criteria.
+     *
+     * @param entry Entry of the solution.
+     * @param criteria The current evaluation criteria.
+     * @return Output of the evaluation with the new scores.
+     */
+    public Output rescore(ManifestEntry entry, Map<String, Criterion> criteria) {
+        entry.getCriteria().forEach((key, criterion) -> criterion.rescore(criteria.get(key).getMaxScore()));
+        return new Output(entry.getCriteria(), entry.getLogs(), entry.getWarnings(), entry.getStatistics(), entry.getQueryPlans());
+    }
+
+    /**
+     * Gets the settings of the evaluator which can change the result of the evaluation.
+     *
+     * @return Values of the settings by their names.
+     */
+    private Map<String, String> getSettings() {
+        Map<String, String> settings = new TreeMap<>();
+        if (!(environment instanceof ConfigurableEnvironment)) return settings;
+
+        ((ConfigurableEnvironment) environment).getPropertySources().forEach(source -> {
+            if (!(source instanceof EnumerablePropertySource)) return;
+
+            for (String name : ((EnumerablePropertySource<?>) source).getPropertyNames())
+                if (name.startsWith("evaluator.") && ignoredSettings.stream().noneMatch(name::startsWith))
+                    settings.putIfAbsent(name, environment.getProperty(name));
+        });
+        return settings;
+    }
+
+    /**
+     * Adds the string to the hash.
+     *
+     * @param hash Current hash.
+     * @param text String to add.
+     * @return Updated hash.
+     */
+    private long mix(long hash, String text) {
+        return ResultFingerprint.mix(hash * 31 + ResultFingerprint.hashString(text));
+    }
+}
@@ -0,0 +1,535 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.evaluation.pipeline.BatchJob;
+import cz.cvut.fel.evaluator.evaluation.pipeline.Pipeline;
+import cz.cvut.fel.evaluator.evaluation.pipeline.SchedulingPolicy;
+import cz.cvut.fel.evaluator.evaluation.pipeline.StageTask;
+import cz.cvut.fel.evaluator.evaluation.pipeline.WorkerController;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarPair;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarityDetector;
+import cz.cvut.fel.evaluator.evaluation.sql.ResultFingerprint;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLParser;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.evaluation.sql.StatementCache;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerPool;
+import cz.cvut.fel.evaluator.output.CohortStatistics;
+import cz.cvut.fel.evaluator.output.HTMLOutput;
+import cz.cvut.fel.evaluator.output.Output;
+import cz.cvut.fel.evaluator.output.TerminalOutput;
+import cz.cvut.fel.evaluator.utils.FileUtils;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates the solutions of the batch modes: lists the solutions, passes them through
+ * the stages of the pipeline and writes the outputs and the reports of the whole cohort.
+ */
+@Slf4j
+@NoArgsConstructor
+@Component
+public class BatchProcessor {
+
+    /**
+     * Manages the processing of SQL queries.
+     */
+    private SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    /**
+     * Outcomes of SELECT queries shared by the evaluated solutions.
+     */
+    private StatementCache statementCache;
+
+    /**
+     * Finds submissions with near-duplicate statements in a batch.
+     */
+    private SimilarityDetector similarityDetector;
+
+    /**
+     * Keeps the inputs and intermediate results of the solutions of a batch between runs.
+     */
+    private BatchManifest batchManifest;
+
+    /**
+     * Keeps the results of all the evaluations for the statistics over years.
+     */
+    private EvaluationHistory evaluationHistory;
+
+    /**
+     * Reads the text of the solutions.
+     */
+    private SolutionReader solutionReader;
+
+    /**
+     * Child JVMs reading the files and executing the queries of a batch, if they are enabled.
+     */
+    private WorkerPool workerPool;
+
+    /**
+     * Retrieves SQL queries from the text of a solution.
+     */
+    private SQLParser sqlParser = new SQLParser();
+
+    /**
+     * Generates evaluation output as HTML file.
+     */
+    private HTMLOutput htmlOutput = new HTMLOutput();
+
+    /**
+     * Aggregates the scores of the solutions of a batch.
+     */
+    private CohortStatistics cohortStatistics = new CohortStatistics();
+
+    /**
+     * The number of workers extracting the text of the solutions in a batch.
+     */
+    @Getter
+    @Value("${evaluator.pipeline.extract-threads:2}")
+    private int extractThreads = 2;
+
+    /**
+     * The number of workers parsing the queries of the solutions in a batch.
+     */
+    @Value("${evaluator.pipeline.parse-threads:1}")
+    private int parseThreads = 1;
+
+    /**
+     * The number of workers writing the outputs of the solutions in a batch.
+     */
+    @Value("${evaluator.pipeline.render-threads:2}")
+    private int renderThreads = 2;
+
+    /**
+     * The maximum number of solutions waiting between two stages of the batch pipeline.
+     */
+    @Value("${evaluator.pipeline.queue-size:4}")
+    private int queueSize = 4;
+
+    /**
+     * Order in which the solutions of a batch are processed.
+     */
+    @Value("${evaluator.pipeline.scheduling:FIFO}")
+    private SchedulingPolicy scheduling = SchedulingPolicy.FIFO;
+
+    /**
+     * Whether the number of the workers reading the PDF files is adjusted during the batch.
+     */
+    @Value("${evaluator.pipeline.adaptive.enabled:false}")
+    private boolean adaptive = false;
+
+    /**
+     * The least adjusted number of the workers reading the PDF files.
+     */
+    @Value("${evaluator.pipeline.adaptive.min-threads:1}")
+    private int minExtractThreads = 1;
+
+    /**
+     * The greatest adjusted number of the workers reading the PDF files.
+     */
+    @Value("${evaluator.pipeline.adaptive.max-threads:8}")
+    private int maxExtractThreads = 8;
+
+    /**
+     * The number of solutions between two adjustments of the number of the workers.
+     */
+    @Value("${evaluator.pipeline.adaptive.window:4}")
+    private int adaptiveWindow = 4;
+
+    /**
+     * Occupancy of the old generation after a collection above which a worker reading the PDF files is removed.
+     */
+    @Value("${evaluator.pipeline.adaptive.heap-limit:0.85}")
+    private double heapLimit = 0.85;
+
+    /**
+     * Fraction of time in GC pauses above which a worker reading the PDF files is removed.
+     */
+    @Value("${evaluator.pipeline.adaptive.gc-limit:0.1}")
+    private double gcLimit = 0.1;
+
+    @Autowired
+    public BatchProcessor(SQLSolutionEvaluator sqlSolutionEvaluator, StatementCache statementCache,
+                          SimilarityDetector similarityDetector, BatchManifest batchManifest,
+                          EvaluationHistory evaluationHistory, SolutionReader solutionReader, WorkerPool workerPool) {
+        this.sqlSolutionEvaluator = sqlSolutionEvaluator;
+        this.statementCache = statementCache;
+        this.similarityDetector = similarityDetector;
+        this.batchManifest = batchManifest;
+        this.evaluationHistory = evaluationHistory;
+        this.solutionReader = solutionReader;
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Gets the output directory and creates it, if it does not exist.
+     *
+     * @param outputDirectory Directory for the output HTML files,
+     *                        relative to the directory where the program is running.
+     * @return Path to the output directory.
+     * @throws IOException When creating the directory.
+     */
+    public Path getOutputPath(String outputDirectory) throws IOException {
+        Path outputPath = outputDirectory == null ? Paths.get(FileUtils.getProgramPath())
+                : Paths.get(FileUtils.getProgramPath(), outputDirectory);
+        Files.createDirectories(outputPath);
+        return outputPath;
+    }
+
+    /**
+     * Starts an evaluation of several solutions: loads the statement cache
+     * and the manifest of the previous batch in the output directory.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param outputPath Output directory of the solutions, null if no files are written.
+     * @return State of the evaluation.
+     */
+    public BatchRun start(String criteriaJSON, Path outputPath) {
+        statementCache.load();
+        if (outputPath != null) batchManifest.load(outputPath);
+        return new BatchRun(criteriaJSON, outputPath);
+    }
+
+    /**
+     * Saves the statement cache and the manifest for the next evaluation.
+     *
+     * @param run State of the evaluation.
+     */
+    public void finish(BatchRun run) {
+        statementCache.save();
+        if (run.getOutputPath() != null) batchManifest.save(run.getOutputPath());
+    }
+
+    /**
+     * Opens the ZIP archive with the solutions of a batch.
+     *
+     * @param batch Path to the directory or the archive.
+     * @return File system of the archive, null if the batch is a directory.
+     * @throws IOException When opening the archive.
+     */
+    public FileSystem openArchive(Path batch) throws IOException {
+        if (Files.isDirectory(batch) || !batch.getFileName().toString().toLowerCase().endsWith(".zip")) return null;
+
+        log.info("Solutions are read from the archive " + batch);
+        return FileSystems.newFileSystem(batch, (ClassLoader) null);
+    }
+
+    /**
+     * Lists the files with the solutions in the directory, or in all the folders of an archive.
+     *
+     * @param batch Path to the directory, or the root of the archive.
+     * @param outputDirectory Directory for the output HTML files.
+     * @return Solutions of the batch sorted by the names of the files.
+     * @throws IOException When reading the directory.
+     */
+    public List<BatchJob> getJobs(Path batch, String outputDirectory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = batch.getFileSystem() == FileSystems.getDefault() ? Files.list(batch) : Files.walk(batch)) {
+            files = list
+                    .filter(SolutionReader::isSolution)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        List<BatchJob> jobs = new ArrayList<>();
+        for (Path file : files) jobs.add(getJob(file, outputDirectory));
+        return jobs;
+    }
+
+    /**
+     * Creates the job of a solution of a batch.
+     * A solution in an archive is named after its entry, the folders joined by underscores.
+     *
+     * @param file Path to the file with the solution.
+     * @param outputDirectory Directory for the output HTML files.
+     * @return The job with the size of the file as its estimated cost.
+     * @throws IOException When reading the size of the file.
+     */
+    public BatchJob getJob(Path file, String outputDirectory) throws IOException {
+        String entry = file.getFileSystem() == FileSystems.getDefault() ? file.getFileName().toString()
+                : file.getRoot().relativize(file).toString().replace('/', '_');
+        String name = SolutionReader.getName(entry);
+        BatchJob job = new BatchJob(file, name, outputDirectory == null ? name + ".html" : outputDirectory + "/" + name + ".html");
+        job.setEstimatedCost(Files.size(file));
+        return job;
+    }
+
+    /**
+     * Creates the pipeline evaluating the solutions of a batch. The scores of every scored solution
+     * are kept in the state of the evaluation for the cohort summary.
+     *
+     * @param run State of the evaluation.
+     * @param completed Work done with a solution after its output was written.
+     * @return The pipeline with all the stages.
+     */
+    public Pipeline createPipeline(BatchRun run, StageTask completed) {
+        Pipeline pipeline = new Pipeline(queueSize, scheduling);
+        if (adaptive) pipeline.addStage("extract", new WorkerController(minExtractThreads, maxExtractThreads,
+                extractThreads, adaptiveWindow, heapLimit, gcLimit), this::extract);
+        else pipeline.addStage("extract", extractThreads, this::extract);
+        return pipeline
+                .addStage("parse", parseThreads, job -> parse(job, run.getCriteriaJSON()))
+                .addStage("execute", 1, job -> execute(job, run))
+                .addStage("score", 1, job -> {
+                    score(job, run.getCriteriaJSON());
+                    run.getResults().put(job.getName(), job.getCriteria());
+                    if (job.isRescored()) run.getRescoredOutputs().incrementAndGet();
+                    if (job.getIdenticalSolution() != null) run.getReusedOutputs().incrementAndGet();
+                })
+                .addStage("render", renderThreads, job -> {
+                    printResult(job.getCriteria(), job.getOutput(), job.getOutputHTML());
+                    completed.process(job);
+                });
+    }
+
+    /**
+     * Writes the similarity report and the cohort summary of all the solutions of the evaluation
+     * to temporary files and replaces the reports in the output directory with them at once,
+     * so a reader of the output directory never sees a half-written report.
+     *
+     * @param run State of the evaluation.
+     * @param writer Name of the writer in the temporary files, so several processes do not share them.
+     * @return The similar pairs in the report.
+     * @throws IOException When writing the files.
+     */
+    public List<SimilarPair> publishReports(BatchRun run, String writer) throws IOException {
+        Path outputPath = run.getOutputPath();
+        List<SimilarPair> similarPairs = similarityDetector.findSimilar(run.getStatements());
+        Path reportPart = outputPath.resolve("similarity-report." + writer + ".tmp");
+        similarityDetector.writeReport(similarPairs, reportPart);
+        Files.move(reportPart, outputPath.resolve("similarity-report.csv"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // the quantiles depend on the order of the scores, so they are added in the order of the names
+        cohortStatistics.reset();
+        run.getResults().values().forEach(cohortStatistics::add);
+        Path summaryHTML = outputPath.resolve("cohort-summary." + writer + ".html.tmp");
+        Path summaryJSON = outputPath.resolve("cohort-summary." + writer + ".json.tmp");
+        cohortStatistics.writeSummary(summaryHTML, summaryJSON);
+        Files.move(summaryHTML, outputPath.resolve("cohort-summary.html"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(summaryJSON, outputPath.resolve("cohort-summary.json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return similarPairs;
+    }
+
+    /**
+     * Prints the report of the evaluation shared by the batch modes.
+     *
+     * @param run State of the evaluation.
+     * @param similarPairs The similar pairs in the similarity report.
+     */
+    public void printReport(BatchRun run, List<SimilarPair> similarPairs) {
+        System.out.println(statementCache.getReport());
+        System.out.println(run.getRescoredOutputs() + " solutions did not change and were only scored again from the manifest");
+        System.out.println(run.getReusedOutputs() + " solutions were identical to an earlier solution and their evaluation was reused");
+        if (workerPool.isEnabled()) System.out.println(workerPool.getReport());
+        if (!run.getFailed().isEmpty()) System.out.println("Solutions which could not be evaluated: " + String.join(", ", run.getFailed()));
+        System.out.println(similarPairs.size() + " pairs of similar solutions were written to " + run.getOutputPath().resolve("similarity-report.csv"));
+        System.out.println("Statistics of the cohort were written to " + run.getOutputPath().resolve("cohort-summary.html"));
+    }
+
+    /**
+     * Reads the text of a solution. Only PDF files are read by the worker processes,
+     * text files are read here directly.
+     *
+     * @param file Path to the file with the solution.
+     * @return Text of the solution.
+     * @throws IOException When reading the file.
+     */
+    public String read(Path file) throws IOException {
+        if (workerPool.isEnabled() && !SolutionReader.isText(file)) return workerPool.extract(file);
+        return solutionReader.read(file);
+    }
+
+    /**
+     * Retrieves SQL queries from the text of a solution.
+     *
+     * @param text Text of the solution.
+     * @return SQL queries of the solution.
+     */
+    public List<String> parse(String text) {
+        return sqlParser.parse(text);
+    }
+
+    /**
+     * Evaluates one solution by a worker process, or here in the shared database.
+     *
+     * @param queries SQL queries of the solution.
+     * @param criteria The evaluation criteria of the solution.
+     * @return Output of the evaluation.
+     * @throws IOException When the worker process evaluating the solution failed.
+     */
+    public Output evaluate(List<String> queries, Map<String, Criterion> criteria) throws IOException {
+        return workerPool.isEnabled() ? workerPool.evaluate(queries, criteria) : evaluateInBatch(queries, criteria);
+    }
+
+    /**
+     * Computes the hash of the statements in their order.
+     *
+     * @param queries SQL queries of the solution.
+     * @return 64-bit hash of the statements.
+     */
+    public long getStatementsHash(List<String> queries) {
+        long hash = queries.size();
+        for (String query : queries)
+            hash = ResultFingerprint.mix(hash * 31 + ResultFingerprint.hashString(query));
+        return hash;
+    }
+
+    /**
+     * Copies the output of an identical solution with a note about the reuse.
+     *
+     * @param output Output of the identical solution.
+     * @param solution Name of the identical solution.
+     * @return Output with the note among the warnings.
+     */
+    public Output getReusedOutput(Output output, String solution) {
+        log.info("Output of the identical solution " + solution + " is reused");
+
+        List<String> warnings = new ArrayList<>(output.getWarnings());
+        warnings.add("The solution is identical to the solution " + solution + ", its evaluation was reused");
+        return new Output(output.getCriteria(), output.getLogs(), warnings, output.getStatistics(), output.getQueryPlans());
+    }
+
+    /**
+     * Reads the evaluation criteria from a file.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @return The evaluation criteria by their names.
+     * @throws IOException When reading a JSON file.
+     */
+    public Map<String, Criterion> readCriteria(String criteriaJSON) throws IOException {
+        String json = Files.readString(Paths.get(criteriaJSON));
+        ObjectMapper mapper = new ObjectMapper();
+        return mapper.readValue(json, new TypeReference<>() {});
+    }
+
+    /**
+     * Extracts the text of the solution, unless the file did not change since the previous batch,
+     * then the queries are taken from the manifest.
+     *
+     * @param job Solution of the batch.
+     * @throws IOException When reading the file.
+     */
+    private void extract(BatchJob job) throws IOException {
+        job.setFileHash(batchManifest.getFileHash(job.getSolution()));
+        job.setEntry(batchManifest.getEntry(job.getName()));
+
+        if (job.getEntry().isPresent() && job.getEntry().get().getFileHash().equals(job.getFileHash()))
+            job.setQueries(job.getEntry().get().getStatements());
+        else job.setText(read(job.getSolution()));
+    }
+
+    /**
+     * Retrieves the queries of the solution and computes the hashes the evaluation depends on.
+     *
+     * @param job Solution of the batch.
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @throws IOException When reading the criteria.
+     */
+    private void parse(BatchJob job, String criteriaJSON) throws IOException {
+        if (job.getQueries() == null) job.setQueries(parse(job.getText()));
+        job.setText(null);
+        job.setEstimatedCost(job.getQueries().size());
+
+        job.setCriteria(readCriteria(criteriaJSON));
+        job.setEvaluationHash(batchManifest.getEvaluationHash(job.getQueries(), job.getCriteria()));
+        job.setStatementsHash(getStatementsHash(job.getQueries()));
+    }
+
+    /**
+     * Executes the queries of the solution in the database, unless the solution did not change
+     * since the previous batch or is identical to an earlier solution. The database is shared,
+     * so the solutions are executed one after another.
+     *
+     * @param job Solution of the batch.
+     * @param run State of the evaluation.
+     * @throws IOException When the worker process evaluating the solution failed.
+     */
+    private void execute(BatchJob job, BatchRun run) throws IOException {
+        run.getStatements().put(job.getName(), job.getQueries());
+
+        long hash = job.getStatementsHash();
+        if (job.getEntry().isPresent() && job.getEntry().get().getEvaluationHash().equals(job.getEvaluationHash())) {
+            job.setRescored(true);
+        } else if (run.getOutputsByHash().containsKey(hash)) {
+            job.setIdenticalSolution(run.getSolutionsByHash().get(hash));
+            job.setOutput(getReusedOutput(run.getOutputsByHash().get(hash), job.getIdenticalSolution()));
+        } else {
+            job.setOutput(evaluate(job.getQueries(), job.getCriteria()));
+            // a worker process scores its own copy of the criteria
+            if (workerPool.isEnabled()) job.setCriteria(job.getOutput().getCriteria());
+            run.getSolutionsByHash().put(hash, job.getName());
+            run.getOutputsByHash().put(hash, job.getOutput());
+        }
+    }
+
+    /**
+     * Scores an unchanged solution again from the manifest and records the result
+     * in the manifest and the history.
+     *
+     * @param job Solution of the batch.
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     */
+    private void score(BatchJob job, String criteriaJSON) {
+        if (job.isRescored()) job.setOutput(batchManifest.rescore(job.getEntry().get(), job.getCriteria()));
+        if (job.isRescored() || job.getIdenticalSolution() != null) job.setCriteria(job.getOutput().getCriteria());
+
+        job.setResult(batchManifest.putEntry(job.getName(), job.getFileHash(), job.getEvaluationHash(), job.getQueries(), job.getOutput()));
+        evaluationHistory.record(criteriaJSON, job.getName(), job.getCriteria(), job.getProcessingTime());
+    }
+
+    /**
+     * Evaluates one solution of a batch and clears the database afterwards.
+     *
+     * @param queries SQL queries of the solution.
+     * @param criteria The evaluation criteria of the solution.
+     * @return Output of the evaluation.
+     */
+    private Output evaluateInBatch(List<String> queries, Map<String, Criterion> criteria) {
+        try {
+            return sqlSolutionEvaluator.evaluate(criteria, queries);
+        } finally {
+            sqlSolutionEvaluator.clearDatabase();
+        }
+    }
+
+    /**
+     * Prints the result of the evaluation of a solution.
+     * The score table is printed at once, so the tables of the solutions
+     * rendered at the same time are not mixed.
+     *
+     * @param criteria The evaluated criteria.
+     * @param output Object containing information about
+     *               how the evaluation process ended
+     * @param outputHTML Output HTML file name.
+     */
+    private void printResult(Map<String, Criterion> criteria, Output output, String outputHTML) throws IOException {
+        log.info("Method printResult was called");
+
+        TerminalOutput terminalOutput = new TerminalOutput(criteria);
+        synchronized (System.out) {
+            terminalOutput.printScoreTable();
+        }
+
+        htmlOutput.generateEvaluationResult(output, outputHTML);
+    }
+}
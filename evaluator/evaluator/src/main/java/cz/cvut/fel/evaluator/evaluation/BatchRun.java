@@ -0,0 +1,70 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import cz.cvut.fel.evaluator.output.Output;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of one evaluation of several solutions shared by the stages of the batch processor,
+ * e.g. a batch, a round of the watched inbox or a stream.
+ */
+@Getter
+public class BatchRun {
+
+    /**
+     * Path to JSON file containing evaluation criteria.
+     */
+    private final String criteriaJSON;
+
+    /**
+     * Output directory of the solutions, null if no files are written.
+     */
+    private final Path outputPath;
+
+    /**
+     * Queries of the solutions for the similarity report by the names of the solutions.
+     */
+    private final Map<String, List<String>> statements = new TreeMap<>();
+
+    /**
+     * Scored criteria of the solutions for the cohort summary by the names of the solutions.
+     */
+    private final Map<String, Map<String, Criterion>> results = new TreeMap<>();
+
+    /**
+     * Names of the evaluated solutions by the hashes of their queries.
+     */
+    private final Map<Long, String> solutionsByHash = new HashMap<>();
+
+    /**
+     * Outputs of the evaluated solutions by the hashes of their queries.
+     */
+    private final Map<Long, Output> outputsByHash = new HashMap<>();
+
+    /**
+     * Counter of the solutions only scored again from the manifest.
+     */
+    private final AtomicInteger rescoredOutputs = new AtomicInteger();
+
+    /**
+     * Counter of the solutions identical to an earlier solution.
+     */
+    private final AtomicInteger reusedOutputs = new AtomicInteger();
+
+    /**
+     * Names of the solutions which could not be evaluated.
+     */
+    private final List<String> failed = new ArrayList<>();
+
+    public BatchRun(String criteriaJSON, Path outputPath) {
+        this.criteriaJSON = criteriaJSON;
+        this.outputPath = outputPath;
+    }
+}
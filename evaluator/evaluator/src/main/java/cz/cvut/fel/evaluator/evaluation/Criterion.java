@@ -1,11 +1,15 @@
 package cz.cvut.fel.evaluator.evaluation;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents one evaluation criterion.
  */
@@ -53,6 +57,43 @@ public class Criterion {
     @Setter
     private int occurrences = 0;
 
+    /**
+     * Whether the SELECT queries fulfilling the criterion
+     * must be executed with the whole result computed,
+     * not only validated.
+     */
+    private boolean resultNeeded = false;
+
+    /**
+     * Points obtained for the criterion regardless of maxScore,
+     * summed without the limit of maxScore.
+     */
+    private double points = 0;
+
+    /**
+     * Part of maxScore obtained for the criterion,
+     * summed without the limit of maxScore.
+     */
+    private double fraction = 0;
+
+    /**
+     * Points the student will theoretically receive
+     * if the suspicious queries turn out to be correct.
+     */
+    private double possiblePoints = 0;
+
+    /**
+     * Part of maxScore the student will theoretically receive
+     * if the suspicious queries turn out to be correct.
+     */
+    private double possibleFraction = 0;
+
+    /**
+     * Features the score was obtained for in the order they were found,
+     * so the score can be computed again in the same way.
+     */
+    private List<Feature> features = new ArrayList<>();
+
     /**
      * Adds formatted text to the description.
      *
@@ -77,4 +118,80 @@ public class Criterion {
     public void incrementOccurrences() {
         occurrences++;
     }
+
+    /**
+     * Records what the score was obtained for, so the criterion can be scored
+     * again with another maxScore without evaluating the solution again.
+     *
+     * @param points Points obtained regardless of maxScore.
+     * @param fraction Part of maxScore obtained, 1 for the whole maxScore.
+     * @param isCertain True, if the score is obtained,
+     *                  false, if it is only possible after checking manually.
+     */
+    public void addFeature(double points, double fraction, boolean isCertain) {
+        if (isCertain) {
+            this.points += points;
+            this.fraction += fraction;
+        }
+        possiblePoints += points;
+        possibleFraction += fraction;
+        features.add(new Feature(points, fraction, isCertain));
+    }
+
+    /**
+     * Computes the score after a feature is found. The same rule is used
+     * when the solution is evaluated and when the criterion is scored again.
+     *
+     * @param score Score before the feature was found.
+     * @param maxScore The maximum score of the criterion.
+     * @param points Points obtained regardless of maxScore.
+     * @param fraction Part of maxScore obtained, 1 for the whole maxScore.
+     * @return Score with the feature, limited by maxScore.
+     */
+    public static double getScoreWithFeature(double score, int maxScore, double points, double fraction) {
+        return Math.min(score + points + fraction * maxScore, maxScore);
+    }
+
+    /**
+     * Scores the criterion again from the recorded features with another maxScore.
+     * The features are applied in the order they were found, so the scores
+     * are the same as the scores of a new evaluation with the maxScore.
+     *
+     * @param maxScore The new maximum score of the criterion.
+     */
+    public void rescore(int maxScore) {
+        this.maxScore = maxScore;
+        score = 0;
+        possibleScore = 0;
+        for (Feature feature : features) {
+            double scoreWithFeature = getScoreWithFeature(score, maxScore, feature.getPoints(), feature.getFraction());
+            if (feature.isCertain()) score = scoreWithFeature;
+            possibleScore = scoreWithFeature;
+        }
+    }
+
+    /**
+     * What a part of the score was obtained for.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Feature {
+
+        /**
+         * Points obtained regardless of maxScore.
+         */
+        private double points;
+
+        /**
+         * Part of maxScore obtained, 1 for the whole maxScore.
+         */
+        private double fraction;
+
+        /**
+         * true, if the score is obtained,
+         * false, if it is only possible after checking manually.
+         */
+        private boolean certain;
+    }
 }
@@ -3,7 +3,11 @@ package cz.cvut.fel.evaluator.evaluation;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.cvut.fel.evaluator.utils.FileUtils;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
 import cz.cvut.fel.evaluator.output.TerminalOutput;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerPool;
+import cz.cvut.fel.evaluator.evaluation.sql.ReferenceSolution;
 import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
 import cz.cvut.fel.evaluator.output.HTMLOutput;
 import cz.cvut.fel.evaluator.output.Output;
@@ -16,6 +20,7 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.Map;
 
 /**
@@ -31,6 +36,26 @@ public class Evaluation {
      */
     private SQLSolutionEvaluator sqlSolutionEvaluator;
 
+    /**
+     * Reference queries to compare the results of SELECT queries with.
+     */
+    private ReferenceSolution referenceSolution;
+
+    /**
+     * Keeps the results of all the evaluations for the statistics over years.
+     */
+    private EvaluationHistory evaluationHistory;
+
+    /**
+     * Reads the text of the solutions.
+     */
+    private SolutionReader solutionReader;
+
+    /**
+     * Child JVMs of a batch, which load the same reference solution.
+     */
+    private WorkerPool workerPool;
+
     /**
      * The evaluation criteria.
      */
@@ -42,15 +67,32 @@ public class Evaluation {
     private HTMLOutput htmlOutput = new HTMLOutput();
 
     @Autowired
-    public Evaluation(SQLSolutionEvaluator sqlSolutionEvaluator) {
+    public Evaluation(SQLSolutionEvaluator sqlSolutionEvaluator, ReferenceSolution referenceSolution,
+                      EvaluationHistory evaluationHistory, SolutionReader solutionReader, WorkerPool workerPool) {
         this.sqlSolutionEvaluator = sqlSolutionEvaluator;
+        this.referenceSolution = referenceSolution;
+        this.evaluationHistory = evaluationHistory;
+        this.solutionReader = solutionReader;
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Loads the reference solution whose results are compared
+     * with the results of the student's SELECT queries.
+     *
+     * @param referencePDF Path to PDF file containing reference SELECT queries, one for each task.
+     * @throws IOException When reading a file.
+     */
+    public void loadReferenceSolution(String referencePDF) throws IOException {
+        referenceSolution.load(FileUtils.readPDF(referencePDF));
+        workerPool.setReferenceSolution(referencePDF);
     }
 
     /**
      * Manages the processing of the student's solution and evaluation.
      *
      * @param criteriaJSON Path to JSON file containing evaluation criteria.
-     * @param sqlPDF Path to PDF file containing student's solution with SQL queries.
+     * @param sqlPDF Path to PDF file, SQL script or text file containing student's solution with SQL queries.
      * @param rmPDF Path to PDF file containing relational model.
      * @param outputHTML Output HTML file name.
      *
@@ -60,12 +102,26 @@ public class Evaluation {
         log.info("Evaluation process has been started");
         initCriteria(criteriaJSON);
 
-        String sqlSolution = FileUtils.readPDF(sqlPDF);
+        long start = System.nanoTime();
+        String sqlSolution = solutionReader.read(Paths.get(sqlPDF));
         Output output = sqlSolutionEvaluator.evaluate(criteria, sqlSolution);
+        evaluationHistory.record(criteriaJSON, SolutionReader.getName(Paths.get(sqlPDF).getFileName().toString()),
+                criteria, System.nanoTime() - start);
 
         printResult(output, outputHTML);
     }
 
+    /**
+     * Prints the statistics of the evaluations kept in the history.
+     *
+     * @param grouping Names of the columns to group the evaluations by, separated by commas:
+     *                 year, task, criterion or student.
+     * @throws SQLException When querying the history database.
+     */
+    public void printHistory(String grouping) throws SQLException {
+        evaluationHistory.printAggregates(grouping == null ? "year,task" : grouping);
+    }
+
     /**
      * Initializes the evaluation criteria from a file.
      * Each criterion is assigned a name and the maximum score for its fulfillment.
@@ -0,0 +1,29 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One completed solution recorded in the journal of a batch.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntry {
+
+    /**
+     * Name of the solution.
+     */
+    private String name;
+
+    /**
+     * Hash of the inputs of the batch except the solutions.
+     */
+    private String batchHash;
+
+    /**
+     * Inputs and results of the solution.
+     */
+    private ManifestEntry entry;
+}
@@ -0,0 +1,57 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inputs and intermediate results of one evaluated solution kept in the manifest of a batch.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestEntry {
+
+    /**
+     * Hash of the content of the solution's file.
+     */
+    private String fileHash;
+
+    /**
+     * Hash of everything the evaluation depends on except the scores of the criteria.
+     */
+    private String evaluationHash;
+
+    /**
+     * SQL queries retrieved from the solution.
+     */
+    private List<String> statements;
+
+    /**
+     * Evaluated criteria with the features their score was obtained for.
+     */
+    private Map<String, Criterion> criteria;
+
+    /**
+     * Exceptions that occurred during the execution of queries.
+     */
+    private List<String> logs;
+
+    /**
+     * Warnings about the skipped queries.
+     */
+    private List<String> warnings;
+
+    /**
+     * Statistics on read and executed SQL queries.
+     */
+    private List<String> statistics;
+
+    /**
+     * Executed SELECT queries with the summaries of their execution plans.
+     */
+    private List<String> queryPlans;
+}
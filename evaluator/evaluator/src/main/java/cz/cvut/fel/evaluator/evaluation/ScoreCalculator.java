@@ -50,9 +50,7 @@ public class ScoreCalculator {
         String key = "defining primary keys of tables";
         Criterion criterion = criteria.get(key);
 
-        double score = criterion.getScore() + 1 / (double) createQueriesCount;
-        criterion.setScore(score < 0 ? 0 : score);
-        criterion.setPossibleScore(score < 0 ? 0 : score);
+        addFeature(criterion, 1 / (double) createQueriesCount, 0, true);
         criterion.incrementOccurrences();
         criteria.put(key, criterion);
     }
@@ -81,10 +79,7 @@ public class ScoreCalculator {
         String key = "using integrity constraints";
         Criterion criterion = criteria.get(key);
 
-        double score = criterion.getScore() + 0.5;
-        double maxScore = criterion.getMaxScore();
-        criterion.setScore(Math.min(score, maxScore));
-        criterion.setPossibleScore(Math.min(score, maxScore));
+        addFeature(criterion, 0.5, 0, true);
 
         String query = statement.replaceAll("REFERENCES", "<span>REFERENCES</span>")
                 .replaceAll("CHECK", "<span>CHECK</span>")
@@ -105,10 +100,7 @@ public class ScoreCalculator {
         String key = "using ON UPDATE/DELETE for foreign key";
         Criterion criterion = criteria.get(key);
 
-        double score = criterion.getScore() + 1;
-        double maxScore = criterion.getMaxScore();
-        criterion.setScore(Math.min(score, maxScore));
-        criterion.setPossibleScore(Math.min(score, maxScore));
+        addFeature(criterion, 1, 0, true);
 
         String description = getTableNameFromStatement(statement);
         criterion.addTableName(description);
@@ -145,8 +137,7 @@ public class ScoreCalculator {
     public void calculateInsertInto() {
         String key = "statements to fill tables by data";
         Criterion criterion = criteria.get(key);
-        criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, true);
         criterion.incrementOccurrences();
         criteria.put(key, criterion);
     }
@@ -183,8 +174,7 @@ public class ScoreCalculator {
         String key = "outer join of tables";
         Criterion criterion = criteria.get(key);
 
-        if (isCertain) criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, isCertain);
 
         String query = statement
                 .replaceAll("((LEFT|RIGHT|FULL)\\s+(OUTER\\s+)?JOIN)", "<span>$1</span>")
@@ -207,8 +197,7 @@ public class ScoreCalculator {
         String key = "inner join of tables";
         Criterion criterion = criteria.get(key);
 
-        if (isCertain) criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, isCertain);
 
         String query = statement
                 .replaceAll("INNER\\s+JOIN", "<span>INNER JOIN</span>")
@@ -233,8 +222,7 @@ public class ScoreCalculator {
         String key = "condition on the data";
         Criterion criterion = criteria.get(key);
 
-        if (isCertain) criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, isCertain);
 
         String query = statement.replaceAll("WHERE", "<span>WHERE</span>")
                 .replaceAll("\n", "<br>");
@@ -287,28 +275,21 @@ public class ScoreCalculator {
 
             if (statement.contains("GROUP BY") && statement.contains("HAVING")) {
 
-                if (isCertain) criterion.setScore(criterion.getMaxScore());
-                criterion.setPossibleScore(criterion.getMaxScore());
+                addFeature(criterion, 0, 1, isCertain);
             }
 
             else if (!(criterion.getDescription().contains("COUNT") || criterion.getDescription().contains("AVG") ||
                     criterion.getDescription().contains("SUM") || criterion.getDescription().contains("MIN")
                     || criterion.getDescription().contains("MAX"))) {
 
-                double score = criterion.getScore() + 1;
-                double maxScore = criterion.getMaxScore();
-                if (isCertain) criterion.setScore(Math.min(score, maxScore));
-                criterion.setPossibleScore(Math.min(score, maxScore));
+                addFeature(criterion, 1, 0, isCertain);
             }
         }
 
         else if (statement.contains("GROUP BY") && statement.contains("HAVING") &&
                 !(criterion.getDescription().contains("GROUP BY") && criterion.getDescription().contains("HAVING"))) {
 
-            double score = criterion.getScore() + 1;
-            double maxScore = criterion.getMaxScore();
-            if (isCertain) criterion.setScore(Math.min(score, maxScore));
-            criterion.setPossibleScore(Math.min(score, maxScore));
+            addFeature(criterion, 1, 0, isCertain);
         }
 
         return criterion;
@@ -325,8 +306,7 @@ public class ScoreCalculator {
         String key = "sorting and pagination";
         Criterion criterion = criteria.get(key);
 
-        if (isCertain) criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, isCertain);
 
         String query = statement.replaceAll("ORDER BY", "<span>ORDER BY</span>")
                 .replaceAll("LIMIT", "<span>LIMIT</span>")
@@ -350,8 +330,7 @@ public class ScoreCalculator {
         String key = "set operations";
         Criterion criterion = criteria.get(key);
 
-        if (isCertain) criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, isCertain);
 
         String query = statement
                 .replaceAll("UNION", "<span>UNION</span>")
@@ -379,8 +358,7 @@ public class ScoreCalculator {
         String key = "inner SELECT";
         Criterion criterion = criteria.get(key);
 
-        if (isCertain) criterion.setScore(criterion.getMaxScore());
-        criterion.setPossibleScore(criterion.getMaxScore());
+        addFeature(criterion, 0, 1, isCertain);
 
         String query = statement.replaceAll("SELECT", "<span>SELECT</span>")
                 .replaceAll("\n", "<br>");
@@ -391,6 +369,70 @@ public class ScoreCalculator {
         criteria.put(key, criterion);
     }
 
+    /**
+     * Calculates score for a SELECT statement whose result
+     * matches the result of a query from the reference solution.
+     * Each task of the reference solution is scored only once.
+     *
+     * @param statement SELECT statement with the matching result.
+     * @param task Number of the task whose reference result was matched.
+     * @param taskCount The number of the tasks in the reference solution.
+     */
+    public void calculateReferenceResult(String statement, int task, int taskCount) {
+        String key = "results matching the reference solution";
+        Criterion criterion = criteria.get(key);
+        if (criterion == null || taskCount <= 0) return;
+
+        String taskLabel = "TASK " + task + ": ";
+        if (!criterion.getDescription().contains(taskLabel)) {
+            addFeature(criterion, 0, 1 / (double) taskCount, true);
+
+            criterion.addDescription("<span>" + taskLabel + "</span>" + statement.replaceAll("\n", "<br>") + "<br><br>");
+        }
+
+        criterion.incrementOccurrences();
+
+        criteria.put(key, criterion);
+    }
+
+    /**
+     * Calculates score for an index which speeds up a SELECT statement.
+     *
+     * @param statement CREATE INDEX statement.
+     * @param benefit Description of the SELECT statement and its execution times.
+     */
+    public void calculateIndexUsage(String statement, String benefit) {
+        String key = "using indexes which speed up queries";
+        Criterion criterion = criteria.get(key);
+        if (criterion == null) return;
+
+        addFeature(criterion, 0, 1, true);
+
+        criterion.addDescription(statement.replaceAll("\n", "<br>") + "<br>" + benefit.replaceAll("\n", "<br>") + "<br><br>");
+        criterion.incrementOccurrences();
+
+        criteria.put(key, criterion);
+    }
+
+    /**
+     * Records the feature in the criterion and updates its scores by the same rule
+     * the criterion is scored again with, so a changed maxScore gives the same scores
+     * as a new evaluation. The score is updated only by a certain feature,
+     * the possible score by every feature.
+     *
+     * @param criterion Fulfilled criterion.
+     * @param points Points obtained regardless of maxScore.
+     * @param fraction Part of maxScore obtained, 1 for the whole maxScore.
+     * @param isCertain true, if the query does not have to be checked manually,
+     *                  false, if the query should be checked manually.
+     */
+    private void addFeature(Criterion criterion, double points, double fraction, boolean isCertain) {
+        double score = Criterion.getScoreWithFeature(criterion.getScore(), criterion.getMaxScore(), points, fraction);
+        criterion.addFeature(points, fraction, isCertain);
+        if (isCertain) criterion.setScore(score);
+        criterion.setPossibleScore(score);
+    }
+
     /**
      * Checks whether there is inner SELECT usage in the statement.
      *
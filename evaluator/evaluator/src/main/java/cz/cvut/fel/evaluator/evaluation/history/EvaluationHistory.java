@@ -0,0 +1,272 @@
+package cz.cvut.fel.evaluator.evaluation.history;
+
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.output.CohortStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the scores, the features and the durations of all the evaluations
+ * in an embedded H2 file database, so the results of several years can be compared.
+ * The database is separate from the in-memory database the solutions are executed in.
+ */
+@Slf4j
+@Component
+public class EvaluationHistory {
+
+    /**
+     * Columns the stored evaluations can be grouped by, by the names used on the command line.
+     * YEAR is a keyword of H2, so the column is named EVALUATION_YEAR.
+     */
+    private static final Map<String, String> groupingColumns = Map.of("YEAR", "EVALUATION_YEAR", "TASK", "TASK",
+            "CRITERION", "CRITERION", "STUDENT", "STUDENT");
+
+    /**
+     * Path to the database file without the extension, empty if the history is not kept.
+     */
+    @Value("${evaluator.history.file:}")
+    private String file = "";
+
+    /**
+     * Year the evaluations are stored under, 0 for the current year.
+     */
+    @Value("${evaluator.history.year:0}")
+    private int year = 0;
+
+    /**
+     * Task the evaluations are stored under, empty for the name of the criteria file.
+     */
+    @Value("${evaluator.history.task:}")
+    private String task = "";
+
+    /**
+     * true, if the database is opened in the automatic mixed mode, so several processes can use it.
+     */
+    @Value("${evaluator.history.shared:false}")
+    private boolean shared = false;
+
+    /**
+     * Connection to the history database, opened on the first use.
+     */
+    private Connection connection;
+
+    /**
+     * Checks whether the evaluations are stored.
+     *
+     * @return true, if the database file is set.
+     */
+    public boolean isEnabled() {
+        return file != null && !file.isBlank();
+    }
+
+    /**
+     * Stores the result of one evaluation, replacing the earlier result of the same student
+     * for the same year and task, so a batch run again is not counted twice.
+     * A failure is only logged, so the evaluation itself is never affected by the history.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param student Name of the evaluated solution.
+     * @param criteria Evaluated criteria.
+     * @param duration Duration of the evaluation in nanoseconds.
+     */
+    public synchronized void record(String criteriaJSON, String student, Map<String, Criterion> criteria, long duration) {
+        if (!isEnabled()) return;
+
+        int evaluationYear = year == 0 ? LocalDate.now().getYear() : year;
+        String evaluationTask = task.isBlank() ? getTaskName(criteriaJSON) : task;
+        double totalScore = criteria.entrySet().stream()
+                .filter(criterion -> !criterion.getKey().equals(CohortStatistics.MANUAL_CRITERION))
+                .mapToDouble(criterion -> criterion.getValue().getScore())
+                .sum();
+
+        try {
+            Connection connection = getConnection();
+            try (PreparedStatement earlierEvaluation = connection.prepareStatement(
+                    "DELETE FROM EVALUATION WHERE EVALUATION_YEAR = ? AND TASK = ? AND STUDENT = ?");
+                 PreparedStatement evaluation = connection.prepareStatement(
+                    "INSERT INTO EVALUATION (EVALUATION_YEAR, TASK, STUDENT, EVALUATED_AT, DURATION, TOTAL_SCORE) VALUES (?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement criterionScore = connection.prepareStatement(
+                    "INSERT INTO CRITERION_SCORE (EVALUATION_ID, EVALUATION_YEAR, TASK, STUDENT, CRITERION, MAX_SCORE, SCORE, POSSIBLE_SCORE, "
+                            + "OCCURRENCES, POINTS, FRACTION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+
+                earlierEvaluation.setInt(1, evaluationYear);
+                earlierEvaluation.setString(2, evaluationTask);
+                earlierEvaluation.setString(3, student);
+                earlierEvaluation.executeUpdate();
+
+                evaluation.setInt(1, evaluationYear);
+                evaluation.setString(2, evaluationTask);
+                evaluation.setString(3, student);
+                evaluation.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                evaluation.setDouble(5, duration / 1e6);
+                evaluation.setDouble(6, totalScore);
+                evaluation.executeUpdate();
+
+                long id;
+                try (ResultSet keys = evaluation.getGeneratedKeys()) {
+                    keys.next();
+                    id = keys.getLong(1);
+                }
+
+                for (Map.Entry<String, Criterion> criterion : criteria.entrySet()) {
+                    criterionScore.setLong(1, id);
+                    criterionScore.setInt(2, evaluationYear);
+                    criterionScore.setString(3, evaluationTask);
+                    criterionScore.setString(4, student);
+                    criterionScore.setString(5, criterion.getKey());
+                    criterionScore.setInt(6, criterion.getValue().getMaxScore());
+                    criterionScore.setDouble(7, criterion.getValue().getScore());
+                    criterionScore.setDouble(8, criterion.getValue().getPossibleScore());
+                    criterionScore.setInt(9, criterion.getValue().getOccurrences());
+                    criterionScore.setDouble(10, criterion.getValue().getPoints());
+                    criterionScore.setDouble(11, criterion.getValue().getFraction());
+                    criterionScore.addBatch();
+                }
+                criterionScore.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            log.warn("Evaluation of " + student + " could not be stored in the history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes the statistics of the stored evaluations grouped by the columns.
+     * The total scores of the evaluations are aggregated, unless the evaluations
+     * are grouped by the criterion, then the scores of the criteria are aggregated.
+     *
+     * @param grouping Names of the columns separated by commas: year, task, criterion or student.
+     * @return Statistics of every group in the order of the groups.
+     * @throws SQLException When querying the database.
+     * @throws IllegalArgumentException When a column is unknown.
+     */
+    public synchronized List<HistoryAggregate> getAggregates(String grouping) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        for (String column : grouping.toUpperCase(Locale.ROOT).split("\\s*,\\s*")) {
+            if (column.isBlank()) continue;
+            if (!groupingColumns.containsKey(column))
+                throw new IllegalArgumentException("Unknown column " + column + ", the history can be grouped by "
+                        + "year, task, criterion or student");
+            columns.add(groupingColumns.get(column));
+        }
+        if (columns.isEmpty()) columns.add("EVALUATION_YEAR");
+
+        boolean byCriterion = columns.contains("CRITERION");
+        String score = byCriterion ? "S.SCORE" : "E.TOTAL_SCORE";
+        String groupBy = columns.stream().map(column -> (byCriterion ? "S." : "E.") + column).collect(Collectors.joining(", "));
+        String query = "SELECT " + groupBy + ", COUNT(*), AVG(" + score + "), MIN(" + score + "), MAX(" + score + "), AVG(E.DURATION)"
+                + " FROM EVALUATION E" + (byCriterion ? " JOIN CRITERION_SCORE S ON S.EVALUATION_ID = E.ID" : "")
+                + " GROUP BY " + groupBy + " ORDER BY " + groupBy;
+
+        List<HistoryAggregate> aggregates = new ArrayList<>();
+        try (Statement statement = getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                List<String> group = new ArrayList<>();
+                for (int i = 1; i <= columns.size(); i++) group.add(resultSet.getString(i));
+
+                int column = columns.size();
+                aggregates.add(new HistoryAggregate(group, resultSet.getLong(column + 1), resultSet.getDouble(column + 2),
+                        resultSet.getDouble(column + 3), resultSet.getDouble(column + 4), resultSet.getDouble(column + 5)));
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * Prints the statistics of the stored evaluations as a table.
+     *
+     * @param grouping Names of the columns separated by commas: year, task, criterion or student.
+     * @throws SQLException When querying the database.
+     */
+    public void printAggregates(String grouping) throws SQLException {
+        long start = System.nanoTime();
+        List<HistoryAggregate> aggregates = getAggregates(grouping);
+
+        for (HistoryAggregate aggregate : aggregates) {
+            System.out.format(Locale.ROOT, "%-60s %6d %8.2f %8.2f %8.2f %10.1f ms%n",
+                    String.join(" | ", aggregate.getGroup()), aggregate.getCount(), aggregate.getAverageScore(),
+                    aggregate.getMinScore(), aggregate.getMaxScore(), aggregate.getAverageDuration());
+        }
+        System.out.format(Locale.ROOT, "%d groups were aggregated in %.1f ms%n", aggregates.size(), (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Closes the connection to the history database.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (connection == null) return;
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("History database could not be closed: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    /**
+     * Opens the history database and creates its tables, if they do not exist.
+     * If the database is shared, it is opened in the automatic mixed mode, so several processes,
+     * e.g. of a sharded batch, can store their evaluations at the same time.
+     *
+     * @return Connection to the history database.
+     * @throws SQLException When the database cannot be opened.
+     */
+    private Connection getConnection() throws SQLException {
+        if (connection != null) return connection;
+        if (!isEnabled()) throw new SQLException("The history database file is not set");
+
+        connection = DriverManager.getConnection("jdbc:h2:file:" + Path.of(file).toAbsolutePath() + (shared ? ";AUTO_SERVER=TRUE" : ""),
+                "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS EVALUATION (ID BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "EVALUATION_YEAR INT NOT NULL, TASK VARCHAR(255) NOT NULL, STUDENT VARCHAR(255) NOT NULL, "
+                    + "EVALUATED_AT TIMESTAMP NOT NULL, DURATION DOUBLE NOT NULL, TOTAL_SCORE DOUBLE NOT NULL)");
+            statement.execute("CREATE TABLE IF NOT EXISTS CRITERION_SCORE ("
+                    + "EVALUATION_ID BIGINT NOT NULL REFERENCES EVALUATION (ID) ON DELETE CASCADE, "
+                    + "EVALUATION_YEAR INT NOT NULL, TASK VARCHAR(255) NOT NULL, STUDENT VARCHAR(255) NOT NULL, "
+                    + "CRITERION VARCHAR(255) NOT NULL, MAX_SCORE INT NOT NULL, SCORE DOUBLE NOT NULL, "
+                    + "POSSIBLE_SCORE DOUBLE NOT NULL, OCCURRENCES INT NOT NULL, POINTS DOUBLE NOT NULL, "
+                    + "FRACTION DOUBLE NOT NULL, PRIMARY KEY (EVALUATION_ID, CRITERION))");
+
+            for (String column : List.of("EVALUATION_YEAR", "TASK", "STUDENT"))
+                statement.execute("CREATE INDEX IF NOT EXISTS EVALUATION_" + column + " ON EVALUATION (" + column + ")");
+            for (String column : groupingColumns.values())
+                statement.execute("CREATE INDEX IF NOT EXISTS CRITERION_SCORE_" + column + " ON CRITERION_SCORE (" + column + ")");
+        }
+        connection.setAutoCommit(false);
+        connection.commit();
+
+        log.info("History database " + file + " has been opened");
+        return connection;
+    }
+
+    /**
+     * Gets the name of the task from the name of the criteria file.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @return File name without the extension.
+     */
+    private String getTaskName(String criteriaJSON) {
+        if (criteriaJSON == null) return "";
+        return Path.of(criteriaJSON).getFileName().toString().replaceFirst("\\.[^.]*$", "");
+    }
+}
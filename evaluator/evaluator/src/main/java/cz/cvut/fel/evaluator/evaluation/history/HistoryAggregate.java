@@ -0,0 +1,44 @@
+package cz.cvut.fel.evaluator.evaluation.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Statistics of the stored evaluations of one group, e.g. of one year and task.
+ */
+@Getter
+@AllArgsConstructor
+public class HistoryAggregate {
+
+    /**
+     * Values of the grouping columns in their order.
+     */
+    private final List<String> group;
+
+    /**
+     * The number of the evaluations in the group.
+     */
+    private final long count;
+
+    /**
+     * Average score of the evaluations.
+     */
+    private final double averageScore;
+
+    /**
+     * The least score of the evaluations.
+     */
+    private final double minScore;
+
+    /**
+     * The greatest score of the evaluations.
+     */
+    private final double maxScore;
+
+    /**
+     * Average duration of the evaluations in milliseconds.
+     */
+    private final double averageDuration;
+}
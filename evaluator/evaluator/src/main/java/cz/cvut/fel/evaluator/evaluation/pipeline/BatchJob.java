@@ -0,0 +1,122 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.evaluation.ManifestEntry;
+import cz.cvut.fel.evaluator.output.Output;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One solution of a batch passed through the stages of the pipeline.
+ * Every stage fills in the results of its work for the next stages.
+ */
+@Getter
+@Setter
+public class BatchJob {
+
+    /**
+     * Path to the file with the solution.
+     */
+    private final Path solution;
+
+    /**
+     * Name of the solution, the file name without the extension.
+     */
+    private final String name;
+
+    /**
+     * Name of the output HTML file.
+     */
+    private final String outputHTML;
+
+    /**
+     * Position of the solution in the batch.
+     */
+    private long sequence;
+
+    /**
+     * Estimated cost of processing the solution, the size of the file
+     * and after parsing the number of the queries.
+     */
+    private long estimatedCost;
+
+    /**
+     * Hash of the content of the solution's file.
+     */
+    private String fileHash;
+
+    /**
+     * Entry of the solution in the manifest of the previous batch.
+     */
+    private Optional<ManifestEntry> entry = Optional.empty();
+
+    /**
+     * Entry of the scored solution recorded in the manifest and the journal of this batch.
+     */
+    private ManifestEntry result;
+
+    /**
+     * Text extracted from the solution's file, null if the queries were taken from the manifest.
+     */
+    private String text;
+
+    /**
+     * SQL queries retrieved from the solution.
+     */
+    private List<String> queries;
+
+    /**
+     * The evaluation criteria of the solution.
+     */
+    private Map<String, Criterion> criteria;
+
+    /**
+     * Hash of everything the evaluation depends on except the scores of the criteria.
+     */
+    private String evaluationHash;
+
+    /**
+     * Hash of the queries in their order.
+     */
+    private long statementsHash;
+
+    /**
+     * Whether the solution did not change since the previous batch and is only scored again.
+     */
+    private boolean rescored = false;
+
+    /**
+     * Name of the identical solution whose output is reused, null if the solution is evaluated.
+     */
+    private String identicalSolution;
+
+    /**
+     * Output of the evaluation.
+     */
+    private Output output;
+
+    /**
+     * Time the stages spent processing the job in nanoseconds.
+     */
+    private long processingTime = 0;
+
+    public BatchJob(Path solution, String name, String outputHTML) {
+        this.solution = solution;
+        this.name = name;
+        this.outputHTML = outputHTML;
+    }
+
+    /**
+     * Adds the time a stage spent processing the job.
+     *
+     * @param time Processing time in nanoseconds.
+     */
+    public synchronized void addProcessingTime(long time) {
+        processingTime += time;
+    }
+}
@@ -0,0 +1,71 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking queue of jobs ordered by the scheduling policy.
+ * The end of the jobs is always taken after all the jobs.
+ */
+public class JobQueue {
+
+    /**
+     * The maximum number of the jobs in the queue.
+     */
+    private final int capacity;
+
+    /**
+     * Jobs in the queue, the next job to take first.
+     */
+    private final PriorityQueue<BatchJob> jobs;
+
+    /**
+     * Guards the jobs.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    public JobQueue(int capacity, Comparator<BatchJob> order) {
+        this.capacity = capacity;
+        this.jobs = new PriorityQueue<>(Comparator.comparing((BatchJob job) -> job == Pipeline.END).thenComparing(order));
+    }
+
+    /**
+     * Adds the job, waiting while the queue is full.
+     * The end of the jobs is added even to a full queue, as no job follows it.
+     *
+     * @param job Job to add.
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public void put(BatchJob job) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (job != Pipeline.END && jobs.size() >= capacity) notFull.await();
+            jobs.add(job);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next job, waiting while the queue is empty.
+     *
+     * @return The next job by the scheduling policy.
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public BatchJob take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (jobs.isEmpty()) notEmpty.await();
+            BatchJob job = jobs.poll();
+            notFull.signal();
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
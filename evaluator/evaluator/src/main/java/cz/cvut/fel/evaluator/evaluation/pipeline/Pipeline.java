@@ -0,0 +1,145 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Passes the jobs of a batch through stages connected by bounded queues.
+ * Every stage has its own pool of workers, so the stages with different bottlenecks
+ * (reading PDF files, executing queries, writing HTML files) work at the same time.
+ * When a queue is full, the stage before it waits, so the memory held by the jobs
+ * waiting in the queues is bounded.
+ * The jobs are fed and taken from the queues in the order of the scheduling policy.
+ * The workers of a stage share one queue, so a worker which is done takes the next job
+ * and no worker is idle while another one has jobs waiting.
+ */
+@Slf4j
+public class Pipeline {
+
+    /**
+     * Marks the end of the jobs in a queue.
+     */
+    static final BatchJob END = new BatchJob(null, null, null);
+
+    /**
+     * The maximum number of the jobs waiting in a queue between two stages.
+     */
+    private final int queueSize;
+
+    /**
+     * Order in which the jobs are processed.
+     */
+    private final SchedulingPolicy policy;
+
+    /**
+     * Stages in the order the jobs pass through them.
+     */
+    private final List<PipelineStage> stages = new ArrayList<>();
+
+    /**
+     * Duration of the last run in nanoseconds.
+     */
+    private long wallTime = 0;
+
+    public Pipeline(int queueSize) {
+        this(queueSize, SchedulingPolicy.FIFO);
+    }
+
+    public Pipeline(int queueSize, SchedulingPolicy policy) {
+        this.queueSize = Math.max(1, queueSize);
+        this.policy = policy;
+    }
+
+    /**
+     * Adds a stage at the end of the pipeline.
+     *
+     * @param name Name of the stage.
+     * @param threads The number of the workers of the stage.
+     * @param task Work done with every job.
+     * @return This pipeline.
+     */
+    public Pipeline addStage(String name, int threads, StageTask task) {
+        stages.add(new PipelineStage(name, threads, task));
+        return this;
+    }
+
+    /**
+     * Adds a stage at the end of the pipeline whose number of working workers is adjusted by the controller.
+     *
+     * @param name Name of the stage.
+     * @param controller Controller of the number of the workers, a worker is started for its maximum.
+     * @param task Work done with every job.
+     * @return This pipeline.
+     */
+    public Pipeline addStage(String name, WorkerController controller, StageTask task) {
+        stages.add(new PipelineStage(name, controller, task));
+        return this;
+    }
+
+    /**
+     * Passes the jobs through all the stages and waits until the last stage is finished.
+     * The jobs are put into the first queue in the order of the scheduling policy, waiting while it is full.
+     *
+     * @param jobs Jobs to process.
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public void run(List<BatchJob> jobs) throws InterruptedException {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < jobs.size(); i++) jobs.get(i).setSequence(i);
+        List<BatchJob> orderedJobs = jobs.stream().sorted(policy.getComparator()).collect(Collectors.toList());
+
+        List<JobQueue> queues = new ArrayList<>();
+        for (int i = 0; i < stages.size(); i++) queues.add(new JobQueue(queueSize, policy.getComparator()));
+        for (int i = 0; i < stages.size(); i++)
+            stages.get(i).start(queues.get(i), i + 1 < stages.size() ? queues.get(i + 1) : null);
+
+        for (BatchJob job : orderedJobs) queues.get(0).put(job);
+        queues.get(0).put(END);
+
+        for (PipelineStage stage : stages) stage.join();
+        wallTime = System.nanoTime() - start;
+
+        log.info(getMakespanReport());
+    }
+
+    /**
+     * Describes the scheduling of the last run.
+     *
+     * @return The scheduling policy and the makespan, the time from the first job to the end of the last one.
+     */
+    public String getMakespanReport() {
+        return String.format(Locale.ROOT, "Scheduling policy %s, makespan %.1f ms", policy, wallTime / 1e6);
+    }
+
+    /**
+     * Gets the jobs which failed in the last run.
+     *
+     * @return Names of the failed jobs sorted by the names.
+     */
+    public List<String> getFailedJobs() {
+        List<String> failedJobs = new ArrayList<>();
+        for (PipelineStage stage : stages) failedJobs.addAll(stage.getFailedJobs());
+        Collections.sort(failedJobs);
+        return failedJobs;
+    }
+
+    /**
+     * Describes the utilization of the stages in the last run, so the sizes of the pools can be tuned.
+     *
+     * @return One line for every stage and one for every adjusted number of the workers.
+     */
+    public List<String> getUtilizationReport() {
+        List<String> report = new ArrayList<>();
+        for (PipelineStage stage : stages) {
+            report.add(stage.getReport(wallTime));
+            if (stage.getController() != null) report.add(stage.getController().getReport(stage.getName()));
+        }
+        return report;
+    }
+}
@@ -0,0 +1,193 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One stage of the pipeline, a pool of workers taking the jobs from the input queue
+ * and passing them to the output queue. A worker waits when the output queue is full,
+ * so a fast stage cannot run ahead of a slow one.
+ * With a worker controller only the allowed number of the workers process a job at the same time.
+ */
+@Slf4j
+@Getter
+public class PipelineStage {
+
+    /**
+     * Name of the stage.
+     */
+    private final String name;
+
+    /**
+     * The number of the workers.
+     */
+    private final int threads;
+
+    /**
+     * Work done with every job.
+     */
+    private final StageTask task;
+
+    /**
+     * Adjusts the number of the workers processing a job at the same time, null for a fixed number.
+     */
+    private final WorkerController controller;
+
+    /**
+     * Time the workers spent processing the jobs in nanoseconds.
+     */
+    private final AtomicLong busyTime = new AtomicLong();
+
+    /**
+     * Time the workers waited for a free place in the output queue in nanoseconds.
+     */
+    private final AtomicLong blockedTime = new AtomicLong();
+
+    /**
+     * The number of the processed and the failed jobs.
+     */
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Names of the failed jobs.
+     */
+    private final List<String> failedJobs = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Running workers.
+     */
+    private final List<Thread> workers = new ArrayList<>();
+
+    public PipelineStage(String name, int threads, StageTask task) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.task = task;
+        this.controller = null;
+    }
+
+    public PipelineStage(String name, WorkerController controller, StageTask task) {
+        this.name = name;
+        this.threads = controller.getMaxWorkers();
+        this.task = task;
+        this.controller = controller;
+    }
+
+    /**
+     * Starts the workers of the stage.
+     * The end of the input is passed on to the output when the last worker ends.
+     *
+     * @param input Queue of the jobs to process.
+     * @param output Queue for the processed jobs, null for the last stage.
+     */
+    void start(JobQueue input, JobQueue output) {
+        AtomicInteger running = new AtomicInteger(threads);
+
+        for (int i = 1; i <= threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    work(input, output);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (running.decrementAndGet() == 0 && output != null) passEnd(output);
+                }
+            }, "pipeline-" + name + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Waits until all the workers end.
+     *
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    void join() throws InterruptedException {
+        for (Thread worker : workers) worker.join();
+    }
+
+    /**
+     * Describes how busy the workers were.
+     *
+     * @param wallTime Duration of the whole pipeline in nanoseconds.
+     * @return Processed jobs, utilization of the workers and time blocked by the next stage.
+     */
+    public String getReport(long wallTime) {
+        double utilization = wallTime <= 0 ? 0 : 100.0 * busyTime.get() / (threads * (double) wallTime);
+        return String.format(Locale.ROOT, "Stage %s: %d threads, %d jobs (%d failed), utilization %.1f %%, "
+                        + "%.1f ms busy, %.1f ms blocked by the next stage",
+                name, threads, processed.get(), failed.get(), utilization, busyTime.get() / 1e6, blockedTime.get() / 1e6);
+    }
+
+    /**
+     * Passes the end of the jobs to the next stage.
+     *
+     * @param output Queue of the next stage.
+     */
+    private void passEnd(JobQueue output) {
+        try {
+            output.put(Pipeline.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes the jobs until the end of the input. A job whose processing fails is logged and left out.
+     *
+     * @param input Queue of the jobs to process.
+     * @param output Queue for the processed jobs, null for the last stage.
+     * @throws InterruptedException When the waiting for a queue is interrupted.
+     */
+    private void work(JobQueue input, JobQueue output) throws InterruptedException {
+        while (true) {
+            if (controller != null) controller.acquire();
+            BatchJob job;
+            try {
+                job = input.take();
+            } catch (InterruptedException e) {
+                if (controller != null) controller.release();
+                throw e;
+            }
+            if (job == Pipeline.END) {
+                if (controller != null) controller.release();
+                input.put(Pipeline.END);
+                return;
+            }
+
+            long start = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                task.process(job);
+                succeeded = true;
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                failedJobs.add(job.getName());
+                log.error("Solution " + job.getSolution() + " could not be evaluated: " + e.getMessage());
+            }
+            long time = System.nanoTime() - start;
+            busyTime.addAndGet(time);
+            job.addProcessingTime(time);
+            processed.incrementAndGet();
+            if (controller != null) {
+                controller.release();
+                controller.jobDone();
+            }
+
+            if (succeeded && output != null) {
+                long blockedStart = System.nanoTime();
+                output.put(job);
+                blockedTime.addAndGet(System.nanoTime() - blockedStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import java.util.Comparator;
+
+/**
+ * Orders in which the solutions of a batch are processed by the stages of the pipeline.
+ * The cost of a solution is estimated from the size of its file and, after parsing,
+ * from the number of its queries.
+ */
+public enum SchedulingPolicy {
+
+    /**
+     * The solutions are processed in the order of their names.
+     */
+    FIFO,
+
+    /**
+     * Shortest job first, the cheapest solutions are processed first,
+     * so the small solutions are not delayed by the large ones.
+     */
+    SJF,
+
+    /**
+     * Longest processing time first, the most expensive solutions are processed first,
+     * so no large solution is left for the end of the batch when the other workers are idle.
+     */
+    LPT;
+
+    /**
+     * Gets the order of the jobs by the policy.
+     *
+     * @return Comparator of the jobs, the first job is processed first.
+     */
+    public Comparator<BatchJob> getComparator() {
+        switch (this) {
+            case SJF:
+                return Comparator.comparingLong(BatchJob::getEstimatedCost).thenComparingLong(BatchJob::getSequence);
+            case LPT:
+                return Comparator.comparingLong(BatchJob::getEstimatedCost).reversed().thenComparingLong(BatchJob::getSequence);
+            default:
+                return Comparator.comparingLong(BatchJob::getSequence);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+/**
+ * Work done by a stage of the pipeline with one job.
+ */
+@FunctionalInterface
+public interface StageTask {
+
+    /**
+     * Processes the job.
+     *
+     * @param job Job to process, updated with the results.
+     * @throws Exception When the job cannot be processed, the job is left out.
+     */
+    void process(BatchJob job) throws Exception;
+}
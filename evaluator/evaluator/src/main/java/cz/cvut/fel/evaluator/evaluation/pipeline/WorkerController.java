@@ -0,0 +1,325 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Adjusts the number of the workers of a stage which may process a job at the same time.
+ * After every window of processed jobs the throughput, the time spent in GC pauses
+ * and the occupancy of the old generation after the last collection are measured,
+ * so garbage waiting for the next collection is not counted. When the heap or the GC
+ * is over its limit, a worker is removed and the number is not raised above it,
+ * the ceiling recovers by one worker after every window without the pressure. Otherwise the number
+ * is changed by one in the current direction (hill climbing): a step which does not raise
+ * the throughput reverses the direction from the best number found so far, and after
+ * two such steps the best number is kept until the heap or the GC is over its limit again.
+ * The first window is not measured, because it includes the warm-up of the JVM.
+ */
+@Slf4j
+@Getter
+public class WorkerController {
+
+    /**
+     * The least relative increase of the throughput counted as an improvement.
+     */
+    private static final double TOLERANCE = 0.05;
+
+    /**
+     * The least number of the workers.
+     */
+    private final int minWorkers;
+
+    /**
+     * The greatest number of the workers.
+     */
+    private final int maxWorkers;
+
+    /**
+     * The number of the jobs processed between two adjustments.
+     */
+    private final int window;
+
+    /**
+     * Occupancy of the old generation after a collection above which a worker is removed.
+     */
+    private final double heapLimit;
+
+    /**
+     * Fraction of the time spent in GC pauses above which a worker is removed.
+     */
+    private final double gcLimit;
+
+    /**
+     * The number of the workers allowed to process a job now.
+     */
+    private int limit;
+
+    /**
+     * The highest number of the workers allowed, lowered when the heap or the GC was over its limit
+     * and raised again by one after every window without the pressure.
+     */
+    private int ceiling;
+
+    /**
+     * Direction of the next step, 1 or -1.
+     */
+    private int direction = 1;
+
+    /**
+     * The number of the workers with the highest throughput.
+     */
+    private int bestLimit;
+
+    /**
+     * The highest throughput measured in jobs per second.
+     */
+    private double bestThroughput = 0;
+
+    /**
+     * The number of the steps which did not raise the throughput.
+     */
+    private int failures = 0;
+
+    /**
+     * Whether the number of the workers is settled.
+     */
+    private boolean converged = false;
+
+    /**
+     * The numbers of the workers in the order they were used.
+     */
+    private final List<Integer> history = new ArrayList<>();
+
+    /**
+     * The number of the processed jobs.
+     */
+    private int processed = 0;
+
+    /**
+     * The number of the processed jobs when the number of the workers settled last.
+     */
+    private int convergedAfter = 0;
+
+    /**
+     * Start of the current window in nanoseconds.
+     */
+    private long windowStart = System.nanoTime();
+
+    /**
+     * Total GC time at the start of the current window in milliseconds.
+     */
+    private long windowGcTime = getGcTime();
+
+    /**
+     * The number of the workers processing a job now.
+     */
+    private int active = 0;
+
+    /**
+     * Guards the counts and the state of the hill climbing, shared by the workers of the stage.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when a worker ends a job or the number of the workers changes,
+     * so the workers waiting for a permit check the limit again.
+     */
+    private final Condition released = lock.newCondition();
+
+    public WorkerController(int minWorkers, int maxWorkers, int initialWorkers, int window, double heapLimit, double gcLimit) {
+        this.minWorkers = Math.max(1, minWorkers);
+        this.maxWorkers = Math.max(this.minWorkers, maxWorkers);
+        this.window = Math.max(1, window);
+        this.heapLimit = heapLimit;
+        this.gcLimit = gcLimit;
+        this.limit = Math.min(this.maxWorkers, Math.max(this.minWorkers, initialWorkers));
+        this.ceiling = this.maxWorkers;
+        this.bestLimit = limit;
+        this.converged = this.minWorkers == this.maxWorkers;
+        history.add(limit);
+    }
+
+    /**
+     * Waits until the worker may process a job.
+     *
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (active >= limit) released.await();
+            active++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends the processing of a job by a worker.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            active--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a processed job and adjusts the number of the workers at the end of a window.
+     */
+    public void jobDone() {
+        lock.lock();
+        try {
+            processed++;
+            if (processed % window != 0) return;
+
+            long now = System.nanoTime();
+            long gcTime = getGcTime();
+            double elapsed = Math.max(1, now - windowStart) / 1e9;
+            double gcFraction = (gcTime - windowGcTime) / 1e3 / elapsed;
+            windowStart = now;
+            windowGcTime = gcTime;
+
+            if (processed == window) return;
+            adjust(window / elapsed, gcFraction, getHeapOccupancy());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes one step of the hill climbing. A number of the workers settled at the ceiling
+     * is searched again upwards when the ceiling recovers.
+     *
+     * @param throughput Jobs processed per second in the last window.
+     * @param gcFraction Fraction of the last window spent in GC pauses.
+     * @param heapOccupancy Used fraction of the old generation after the last collection.
+     * @return The new number of the workers.
+     */
+    int adjust(double throughput, double gcFraction, double heapOccupancy) {
+        lock.lock();
+        try {
+            int previous = limit;
+
+            if (heapOccupancy > heapLimit || gcFraction > gcLimit) {
+                limit = Math.max(minWorkers, limit - 1);
+                ceiling = limit;
+                bestLimit = limit;
+                bestThroughput = 0;
+                direction = -1;
+                failures = 0;
+                converged = false;
+            } else {
+                if (ceiling < maxWorkers) {
+                    ceiling++;
+                    if (converged && limit == ceiling - 1) {
+                        converged = false;
+                        failures = 0;
+                        direction = 1;
+                    }
+                }
+
+                if (!converged) {
+                    if (throughput > bestThroughput * (1 + TOLERANCE)) {
+                        bestLimit = limit;
+                        bestThroughput = throughput;
+                    } else {
+                        failures++;
+                        direction = -direction;
+                    }
+
+                    int next = bestLimit + direction;
+                    if (next < minWorkers || next > ceiling) {
+                        failures++;
+                        direction = -direction;
+                        next = bestLimit + direction;
+                    }
+
+                    if (failures >= 2 || next < minWorkers || next > ceiling) {
+                        limit = bestLimit;
+                        converged = true;
+                        convergedAfter = processed;
+                    } else limit = next;
+                }
+            }
+
+            if (limit != previous) {
+                history.add(limit);
+                released.signalAll();
+            }
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Describes how the number of the workers changed.
+     *
+     * @param name Name of the stage.
+     * @return The numbers of the workers in the order they were used.
+     */
+    public String getReport(String name) {
+        String steps = history.stream().map(String::valueOf).collect(Collectors.joining(" -> "));
+        String state = converged
+                ? String.format(Locale.ROOT, "settled at %d after %d jobs", limit, convergedAfter)
+                : String.format(Locale.ROOT, "%d after %d jobs", limit, processed);
+        return "Adaptive workers of stage " + name + ": " + steps + ", " + state;
+    }
+
+    /**
+     * Sums the time of all the garbage collections so far.
+     *
+     * @return Time in milliseconds.
+     */
+    private static long getGcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            time += Math.max(0, collector.getCollectionTime());
+        return time;
+    }
+
+    /**
+     * Measures the used fraction of the old generation after the last collection, so the garbage
+     * waiting for the next collection is not counted. A collector with one heap pool, e.g. ZGC,
+     * is measured by that pool, and without any usage after a collection the whole heap is measured.
+     *
+     * @return Memory used after the last collection divided by the maximum (or committed) size.
+     */
+    private static double getHeapOccupancy() {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null)
+                .collect(Collectors.toList());
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.getName().contains("Old") || pool.getName().contains("Tenured")) return getOccupancy(pool.getCollectionUsage());
+        }
+        if (pools.size() == 1) return getOccupancy(pools.get(0).getCollectionUsage());
+        return getOccupancy(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage());
+    }
+
+    /**
+     * Computes the used fraction of a memory area.
+     *
+     * @param usage Usage of the memory area.
+     * @return Used memory divided by the maximum (or committed) size.
+     */
+    private static double getOccupancy(MemoryUsage usage) {
+        long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+        return max <= 0 ? 0 : (double) usage.getUsed() / max;
+    }
+}
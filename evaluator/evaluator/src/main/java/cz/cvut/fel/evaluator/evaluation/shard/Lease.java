@@ -0,0 +1,24 @@
+package cz.cvut.fel.evaluator.evaluation.shard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * A solution claimed by this process for the time of its evaluation.
+ */
+@Getter
+@AllArgsConstructor
+public class Lease {
+
+    /**
+     * Path to the file with the solution.
+     */
+    private final Path solution;
+
+    /**
+     * Path to the lease file next to the solution.
+     */
+    private final Path file;
+}
@@ -0,0 +1,238 @@
+package cz.cvut.fel.evaluator.evaluation.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributes the solutions of a batch among processes sharing the input directory,
+ * e.g. on several machines with a network drive, without a coordinating process.
+ * A process claims a solution by creating its lease file, which succeeds for one process only.
+ * The lease is renewed by setting the modification time of the file while the solution is evaluated,
+ * and a lease which was not renewed for the lease duration, e.g. because its process died,
+ * can be claimed by another process. The expired lease file is renamed first, which succeeds
+ * for one process only, so two processes do not take over the same lease.
+ * The machines should have synchronized clocks.
+ */
+@Slf4j
+@Component
+public class LeaseManager {
+
+    /**
+     * Extension of the lease files.
+     */
+    public static final String LEASE_EXTENSION = ".lease";
+
+    /**
+     * Time in seconds after which a lease which was not renewed can be claimed by another process.
+     */
+    @Value("${evaluator.sharding.lease-duration:60}")
+    private int leaseDuration = 60;
+
+    /**
+     * Time in seconds a process waits before it looks again for the solutions leased by other processes.
+     */
+    @Value("${evaluator.sharding.poll-interval:5}")
+    private int pollInterval = 5;
+
+    /**
+     * Name of this process written to the lease files, empty for the host name and the process id.
+     */
+    @Value("${evaluator.sharding.owner:}")
+    private String owner = "";
+
+    /**
+     * Leases held by this process, renewed regularly.
+     */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Renews the held leases, started with the first claim.
+     */
+    private ScheduledExecutorService renewal;
+
+    /**
+     * Gets the name of this process written to the lease files.
+     *
+     * @return The set owner, or the host name and the process id.
+     */
+    public synchronized String getOwner() {
+        if (owner == null || owner.isBlank()) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                host = "localhost";
+            }
+            owner = host + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+        }
+        return owner;
+    }
+
+    /**
+     * Gets the time to wait before looking again for the solutions leased by other processes.
+     *
+     * @return Time in milliseconds.
+     */
+    public long getPollInterval() {
+        return pollInterval * 1000L;
+    }
+
+    /**
+     * Claims the solution for this process.
+     *
+     * @param solution Path to the file with the solution.
+     * @return The lease, empty if the solution is leased by another process.
+     * @throws IOException When creating the lease file.
+     */
+    public Optional<Lease> claim(Path solution) throws IOException {
+        Path file = solution.resolveSibling(solution.getFileName() + LEASE_EXTENSION);
+
+        if (Files.exists(file)) {
+            if (!isExpired(file) || !takeOver(file)) return Optional.empty();
+        }
+
+        try {
+            Files.write(file, getOwner().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            return Optional.empty();
+        }
+
+        Lease lease = new Lease(solution, file);
+        leases.add(lease);
+        startRenewal();
+        return Optional.of(lease);
+    }
+
+    /**
+     * Renews the lease, if it is still held by this process.
+     *
+     * @param lease The lease.
+     * @return true, if the lease was renewed, false if it was taken over by another process.
+     */
+    public boolean renew(Lease lease) {
+        try {
+            if (!isOwned(lease)) {
+                log.warn("Lease of " + lease.getSolution() + " was taken over by another process");
+                leases.remove(lease);
+                return false;
+            }
+            Files.setLastModifiedTime(lease.getFile(), FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (IOException e) {
+            log.warn("Lease of " + lease.getSolution() + " could not be renewed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Releases the lease, the lease file is deleted if it is still held by this process.
+     *
+     * @param lease The lease.
+     */
+    public void release(Lease lease) {
+        leases.remove(lease);
+        try {
+            if (isOwned(lease)) Files.deleteIfExists(lease.getFile());
+        } catch (IOException e) {
+            log.warn("Lease of " + lease.getSolution() + " could not be released: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops renewing the leases.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (renewal != null) renewal.shutdownNow();
+        renewal = null;
+    }
+
+    /**
+     * Checks whether the lease was not renewed for the lease duration.
+     *
+     * @param file Path to the lease file.
+     * @return true, if the lease expired.
+     * @throws IOException When reading the modification time.
+     */
+    private boolean isExpired(Path file) throws IOException {
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() > leaseDuration * 1000L;
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Removes an expired lease file of another process.
+     *
+     * @param file Path to the lease file.
+     * @return true, if this process removed the lease file, false if another process was faster or the lease was renewed.
+     * @throws IOException When renaming the file.
+     */
+    private boolean takeOver(Path file) throws IOException {
+        Path expired = file.resolveSibling(file.getFileName() + "." + getOwner() + ".expired");
+        try {
+            Files.move(file, expired, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+
+        if (!isExpired(expired)) {
+            try {
+                Files.move(expired, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(expired);
+            }
+            return false;
+        }
+
+        log.info("Expired lease " + file + " of " + Files.readString(expired, StandardCharsets.UTF_8) + " has been taken over");
+        Files.deleteIfExists(expired);
+        return true;
+    }
+
+    /**
+     * Checks whether the lease file was written by this process.
+     *
+     * @param lease The lease.
+     * @return true, if the lease file exists and contains the name of this process.
+     * @throws IOException When reading the file.
+     */
+    private boolean isOwned(Lease lease) throws IOException {
+        try {
+            return Files.readString(lease.getFile(), StandardCharsets.UTF_8).equals(getOwner());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts renewing the held leases three times in the lease duration.
+     */
+    private synchronized void startRenewal() {
+        if (renewal != null) return;
+
+        renewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, leaseDuration * 1000L / 3);
+        renewal.scheduleAtFixedRate(() -> leases.forEach(this::renew), period, period, TimeUnit.MILLISECONDS);
+    }
+}
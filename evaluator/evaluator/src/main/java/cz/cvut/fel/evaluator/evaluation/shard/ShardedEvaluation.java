@@ -0,0 +1,165 @@
+package cz.cvut.fel.evaluator.evaluation.shard;
+
+import cz.cvut.fel.evaluator.evaluation.BatchJournal;
+import cz.cvut.fel.evaluator.evaluation.BatchManifest;
+import cz.cvut.fel.evaluator.evaluation.BatchProcessor;
+import cz.cvut.fel.evaluator.evaluation.BatchRun;
+import cz.cvut.fel.evaluator.evaluation.ManifestEntry;
+import cz.cvut.fel.evaluator.evaluation.pipeline.BatchJob;
+import cz.cvut.fel.evaluator.evaluation.pipeline.Pipeline;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarPair;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Evaluates the solutions of a batch together with other processes sharing the input and the output directory.
+ */
+@Slf4j
+@NoArgsConstructor
+@Component
+public class ShardedEvaluation {
+
+    /**
+     * Passes the solutions through the stages of the pipeline and writes the reports.
+     */
+    private BatchProcessor batchProcessor;
+
+    /**
+     * Keeps the inputs and intermediate results of the solutions of a batch between runs.
+     */
+    private BatchManifest batchManifest;
+
+    /**
+     * Writes and reads the results of the solutions shared by the processes.
+     */
+    private BatchJournal batchJournal;
+
+    /**
+     * Claims the solutions of a batch shared by several processes.
+     */
+    private LeaseManager leaseManager;
+
+    @Autowired
+    public ShardedEvaluation(BatchProcessor batchProcessor, BatchManifest batchManifest,
+                             BatchJournal batchJournal, LeaseManager leaseManager) {
+        this.batchProcessor = batchProcessor;
+        this.batchManifest = batchManifest;
+        this.batchJournal = batchJournal;
+        this.leaseManager = leaseManager;
+    }
+
+    /**
+     * Evaluates the solutions in the directory together with other processes sharing the input
+     * and the output directory, e.g. on several machines with a network drive.
+     * Every process claims one solution at a time by its lease file, passes it through the stages
+     * of a batch and writes its result next to the output HTML file, so an unchanged solution
+     * is only scored again from the manifest. A solution with a result for the same criteria
+     * and settings is not claimed again. When no solution is left, the process merges
+     * the results of all the processes into the manifest, the similarity report and the cohort summary,
+     * which are replaced at once, so the last process to finish writes the complete ones.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param batchDirectory Path to the directory with files containing students' solutions.
+     * @param outputDirectory Directory for the output HTML files and the results shared by the processes,
+     *                        relative to the directory where the program is running.
+     *
+     * @throws IOException When reading the directory.
+     */
+    public void run(String criteriaJSON, String batchDirectory, String outputDirectory) throws IOException {
+        log.info("Sharded batch evaluation of the directory " + batchDirectory + " has been started by " + leaseManager.getOwner());
+        if (!Files.isDirectory(Paths.get(batchDirectory)))
+            throw new IOException("Only a directory can be shared by several processes, " + batchDirectory + " is not a directory");
+        List<BatchJob> jobs = batchProcessor.getJobs(Paths.get(batchDirectory), outputDirectory);
+        BatchRun run = batchProcessor.start(criteriaJSON, batchProcessor.getOutputPath(outputDirectory));
+        Path outputPath = run.getOutputPath();
+
+        String batchHash = batchManifest.getBatchHash(criteriaJSON);
+        Set<String> finished = new HashSet<>();
+        int evaluated = 0;
+
+        while (true) {
+            List<BatchJob> pending = new ArrayList<>();
+            for (BatchJob job : jobs) {
+                if (finished.contains(job.getName())) continue;
+                if (batchJournal.readResult(getResultPath(outputPath, job), batchHash).isPresent()) finished.add(job.getName());
+                else pending.add(job);
+            }
+            if (pending.isEmpty()) break;
+
+            Optional<Lease> lease = Optional.empty();
+            BatchJob job = null;
+            for (Iterator<BatchJob> iterator = pending.iterator(); lease.isEmpty() && iterator.hasNext(); ) {
+                job = iterator.next();
+                lease = leaseManager.claim(job.getSolution());
+                if (lease.isPresent() && batchJournal.readResult(getResultPath(outputPath, job), batchHash).isPresent()) {
+                    leaseManager.release(lease.get());
+                    lease = Optional.empty();
+                }
+            }
+
+            try {
+                if (lease.isEmpty()) {
+                    Thread.sleep(leaseManager.getPollInterval());
+                    continue;
+                }
+
+                Pipeline pipeline = batchProcessor.createPipeline(run, completed -> batchJournal.writeResult(
+                        getResultPath(outputPath, completed), completed.getName(), batchHash, completed.getResult()));
+                pipeline.run(List.of(job));
+                if (pipeline.getFailedJobs().isEmpty()) evaluated++;
+                run.getFailed().addAll(pipeline.getFailedJobs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Sharded batch evaluation was interrupted", e);
+            } finally {
+                if (lease.isPresent()) {
+                    finished.add(job.getName());
+                    leaseManager.release(lease.get());
+                }
+            }
+        }
+
+        // the results of all the processes replace the results of this one, in the order of the names
+        run.getStatements().clear();
+        run.getResults().clear();
+        for (BatchJob job : jobs) {
+            Optional<ManifestEntry> entry = batchJournal.readResult(getResultPath(outputPath, job), batchHash);
+            if (entry.isEmpty()) continue;
+            run.getStatements().put(job.getName(), entry.get().getStatements());
+            run.getResults().put(job.getName(), entry.get().getCriteria());
+            batchManifest.putEntry(job.getName(), entry.get());
+        }
+        batchProcessor.finish(run);
+
+        List<SimilarPair> similarPairs = batchProcessor.publishReports(run, leaseManager.getOwner());
+
+        System.out.println(evaluated + " solutions were evaluated by " + leaseManager.getOwner() + ", "
+                + run.getStatements().size() + " of " + jobs.size() + " solutions have results");
+        batchProcessor.printReport(run, similarPairs);
+    }
+
+    /**
+     * Gets the path to the file with the result of a solution of a sharded batch.
+     *
+     * @param outputPath Output directory of the batch.
+     * @param job Solution of the batch.
+     * @return Path to the result file next to the output HTML file.
+     */
+    private Path getResultPath(Path outputPath, BatchJob job) {
+        return outputPath.resolve(job.getName() + ".result.json");
+    }
+}
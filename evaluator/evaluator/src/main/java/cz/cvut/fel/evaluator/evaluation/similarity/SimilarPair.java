@@ -0,0 +1,27 @@
+package cz.cvut.fel.evaluator.evaluation.similarity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Two submissions whose statements are suspiciously similar.
+ */
+@Getter
+@AllArgsConstructor
+public class SimilarPair {
+
+    /**
+     * Name of the first submission.
+     */
+    private final String first;
+
+    /**
+     * Name of the second submission.
+     */
+    private final String second;
+
+    /**
+     * Jaccard similarity of the shingles of the submissions.
+     */
+    private final double similarity;
+}
@@ -0,0 +1,235 @@
+package cz.cvut.fel.evaluator.evaluation.similarity;
+
+import cz.cvut.fel.evaluator.evaluation.sql.NormalizedStatement;
+import cz.cvut.fel.evaluator.evaluation.sql.ResultFingerprint;
+import cz.cvut.fel.evaluator.evaluation.sql.StatementNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Finds pairs of submissions with near-duplicate statements.
+ * Every submission is represented by the set of shingles, i.e. sequences of consecutive tokens
+ * of its normalized statements. Shingles shared by a large part of the cohort, e.g. the statements
+ * given by the assignment, are left out. MinHash signatures of the sets are split into bands
+ * and only the submissions with an equal band are compared, so not all the pairs are compared.
+ */
+@Slf4j
+@Component
+public class SimilarityDetector {
+
+    /**
+     * The number of hash functions of a MinHash signature.
+     */
+    private static final int SIGNATURE_SIZE = 128;
+
+    /**
+     * The number of rows of the signature in one band,
+     * the signature is split into SIGNATURE_SIZE / BAND_ROWS bands.
+     */
+    private static final int BAND_ROWS = 4;
+
+    /**
+     * Computes the canonical form of statements.
+     */
+    private final StatementNormalizer statementNormalizer = new StatementNormalizer();
+
+    /**
+     * The least Jaccard similarity of a reported pair.
+     */
+    @Value("${evaluator.similarity.threshold:0.8}")
+    private double threshold = 0.8;
+
+    /**
+     * The number of tokens in a shingle.
+     */
+    @Value("${evaluator.similarity.shingle-size:5}")
+    private int shingleSize = 5;
+
+    /**
+     * The fraction of the submissions containing a shingle above which the shingle is left out.
+     */
+    @Value("${evaluator.similarity.common-fraction:0.5}")
+    private double commonFraction = 0.5;
+
+    /**
+     * Finds the pairs of the submissions whose statements are similar.
+     *
+     * @param statements Statements of every submission by the name of the submission.
+     * @return Pairs with the similarity at least the threshold, the most similar first.
+     */
+    public List<SimilarPair> findSimilar(Map<String, List<String>> statements) {
+        log.info("Method findSimilar was called for " + statements.size() + " submissions");
+
+        List<String> names = new ArrayList<>(statements.keySet());
+        List<long[]> shingles = names.stream()
+                .map(name -> getShingles(statements.get(name)))
+                .collect(Collectors.toList());
+        removeCommonShingles(shingles);
+
+        List<long[]> signatures = shingles.stream().map(this::getSignature).collect(Collectors.toList());
+
+        List<SimilarPair> similarPairs = new ArrayList<>();
+        for (long candidate : findCandidates(signatures)) {
+            int first = (int) (candidate >>> 32);
+            int second = (int) candidate;
+
+            double similarity = getJaccardSimilarity(shingles.get(first), shingles.get(second));
+            if (similarity >= threshold)
+                similarPairs.add(new SimilarPair(names.get(first), names.get(second), similarity));
+        }
+
+        similarPairs.sort(Comparator.comparingDouble(SimilarPair::getSimilarity).reversed()
+                .thenComparing(SimilarPair::getFirst).thenComparing(SimilarPair::getSecond));
+        return similarPairs;
+    }
+
+    /**
+     * Writes the similar pairs as a CSV file.
+     *
+     * @param similarPairs Pairs of similar submissions.
+     * @param report Path to the report.
+     * @throws IOException When writing the file.
+     */
+    public void writeReport(List<SimilarPair> similarPairs, Path report) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("first,second,similarity");
+        similarPairs.forEach(pair -> lines.add(String.format(Locale.ROOT, "\"%s\",\"%s\",%.3f",
+                pair.getFirst().replace("\"", "\"\""), pair.getSecond().replace("\"", "\"\""), pair.getSimilarity())));
+
+        Files.write(report, lines);
+    }
+
+    /**
+     * Splits the normalized statements into shingles.
+     * The literals are kept, because copied data is a sign of copying too.
+     *
+     * @param statements Statements of the submission.
+     * @return Sorted distinct hashes of the shingles.
+     */
+    private long[] getShingles(List<String> statements) {
+        Set<Long> shingles = new HashSet<>();
+
+        for (String statement : statements) {
+            List<Long> tokenHashes = getTokenHashes(statementNormalizer.normalize(statement));
+            int count = Math.max(1, tokenHashes.size() - shingleSize + 1);
+
+            for (int start = 0; start < count; start++) {
+                long shingle = 0;
+                for (int i = start; i < Math.min(tokenHashes.size(), start + shingleSize); i++)
+                    shingle = ResultFingerprint.mix(shingle * 31 + tokenHashes.get(i));
+                shingles.add(shingle);
+            }
+        }
+        return shingles.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /**
+     * Hashes the tokens of the statement with the literals in place of the parameters.
+     *
+     * @param statement Normalized statement.
+     * @return Hashes of the tokens.
+     */
+    private List<Long> getTokenHashes(NormalizedStatement statement) {
+        List<Long> tokenHashes = new ArrayList<>();
+        Iterator<String> literals = statement.getLiterals().iterator();
+
+        for (String token : statement.getTokens()) {
+            String value = token.equals("?") && literals.hasNext() ? literals.next() : token;
+            tokenHashes.add(ResultFingerprint.hashString(value));
+        }
+        return tokenHashes;
+    }
+
+    /**
+     * Leaves out the shingles contained in more than the common fraction of the submissions.
+     * A shingle shared by at most three submissions is never common,
+     * so a small group of copied submissions is found even in a small cohort.
+     *
+     * @param shingles Shingles of every submission, changed in place.
+     */
+    private void removeCommonShingles(List<long[]> shingles) {
+        Map<Long, Integer> frequencies = new HashMap<>();
+        for (long[] submissionShingles : shingles)
+            for (long shingle : submissionShingles) frequencies.merge(shingle, 1, Integer::sum);
+
+        double limit = Math.max(3, commonFraction * shingles.size());
+        for (int i = 0; i < shingles.size(); i++)
+            shingles.set(i, Arrays.stream(shingles.get(i)).filter(shingle -> frequencies.get(shingle) <= limit).toArray());
+    }
+
+    /**
+     * Computes the MinHash signature of the shingles.
+     *
+     * @param shingles Hashes of the shingles.
+     * @return Minimum of every hash function over the shingles.
+     */
+    private long[] getSignature(long[] shingles) {
+        long[] signature = new long[SIGNATURE_SIZE];
+        Arrays.fill(signature, Long.MAX_VALUE);
+
+        for (long shingle : shingles)
+            for (int i = 0; i < SIGNATURE_SIZE; i++)
+                signature[i] = Math.min(signature[i], ResultFingerprint.mix(shingle + i * 0x9E3779B97F4A7C15L));
+        return signature;
+    }
+
+    /**
+     * Finds the pairs of the submissions whose signatures are equal in at least one band.
+     *
+     * @param signatures MinHash signatures of the submissions.
+     * @return Pairs of the submissions' indexes, the first in the upper half of the number.
+     */
+    private Set<Long> findCandidates(List<long[]> signatures) {
+        Set<Long> candidates = new LinkedHashSet<>();
+
+        for (int band = 0; band < SIGNATURE_SIZE / BAND_ROWS; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+
+            for (int i = 0; i < signatures.size(); i++) {
+                if (signatures.get(i)[0] == Long.MAX_VALUE) continue;
+
+                long bucket = band;
+                for (int row = band * BAND_ROWS; row < (band + 1) * BAND_ROWS; row++)
+                    bucket = ResultFingerprint.mix(bucket * 31 + signatures.get(i)[row]);
+                buckets.computeIfAbsent(bucket, key -> new ArrayList<>()).add(i);
+            }
+
+            for (List<Integer> bucket : buckets.values())
+                for (int i = 0; i < bucket.size(); i++)
+                    for (int j = i + 1; j < bucket.size(); j++)
+                        candidates.add(((long) bucket.get(i) << 32) | bucket.get(j));
+        }
+        return candidates;
+    }
+
+    /**
+     * Computes the Jaccard similarity of two sorted sets.
+     *
+     * @param first Sorted distinct hashes.
+     * @param second Sorted distinct hashes.
+     * @return Size of the intersection divided by the size of the union.
+     */
+    private double getJaccardSimilarity(long[] first, long[] second) {
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] == second[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (first[i] < second[j]) i++;
+            else j++;
+        }
+
+        int union = first.length + second.length - intersection;
+        return union == 0 ? 0 : (double) intersection / union;
+    }
+}
@@ -0,0 +1,489 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import cz.cvut.fel.evaluator.evaluation.model.PrimaryKey;
+import cz.cvut.fel.evaluator.evaluation.model.ReferentialConstraint;
+import cz.cvut.fel.evaluator.evaluation.model.RelationalModel;
+import cz.cvut.fel.evaluator.evaluation.model.Table;
+import cz.cvut.fel.evaluator.evaluation.sql.query.TableQueryHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the tables of the relational model with synthetic rows,
+ * so SELECT queries are executed on more than the few rows inserted by the student.
+ * Values of foreign keys are taken from the rows of the referenced tables,
+ * values of keys are generated unique and values of the other columns
+ * are taken from the existing rows where possible, so they fulfill CHECK constraints.
+ * Generated texts are derived from the existing values as well.
+ */
+@Slf4j
+@Component
+public class DataGenerator {
+
+    /**
+     * The maximum number of distinct values read from a column or a referenced key.
+     */
+    private static final int SAMPLE_LIMIT = 10000;
+
+    /**
+     * Executes core JDBC workflow, leaving application code
+     * to provide SQL and extract results.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Processes queries to get table parameters from the database.
+     */
+    private final TableQueryHandler tableQueryHandler;
+
+    /**
+     * The number of rows generated into every table, 0 disables the generation.
+     */
+    @Value("${evaluator.generated-rows:0}")
+    private int generatedRows;
+
+    /**
+     * The number of rows inserted by one JDBC batch.
+     */
+    @Value("${evaluator.generation-batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Autowired
+    public DataGenerator(JdbcTemplate jdbcTemplate, TableQueryHandler tableQueryHandler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableQueryHandler = tableQueryHandler;
+    }
+
+    /**
+     * Checks whether the data should be generated.
+     *
+     * @return true, if a positive number of rows is configured.
+     */
+    public boolean isEnabled() {
+        return generatedRows > 0;
+    }
+
+    /**
+     * Generates the configured number of rows into every table of the relational model.
+     *
+     * @param relationalModel Relational model of the database.
+     * @return The number of inserted rows.
+     */
+    public long generate(RelationalModel relationalModel) {
+        return generate(relationalModel, generatedRows);
+    }
+
+    /**
+     * Generates rows into every table of the relational model.
+     * Referenced tables are filled before the tables referencing them.
+     *
+     * @param relationalModel Relational model of the database.
+     * @param rows The number of rows to generate into every table.
+     * @return The number of inserted rows.
+     */
+    public long generate(RelationalModel relationalModel, int rows) {
+        log.info("Method generate was called for " + rows + " rows per table");
+        long start = System.nanoTime();
+
+        long insertedRows = 0;
+        for (Table table : sortByReferences(relationalModel.getTables()))
+            insertedRows += generateTable(table, rows);
+
+        long milliseconds = (System.nanoTime() - start) / 1_000_000;
+        log.info(insertedRows + " rows were generated in " + milliseconds + " ms");
+        return insertedRows;
+    }
+
+    /**
+     * Orders the tables so that every table follows the tables it references.
+     * References in a cycle are ignored.
+     *
+     * @param tables Tables of the relational model.
+     * @return Ordered list of the tables.
+     */
+    private List<Table> sortByReferences(List<Table> tables) {
+        Map<String, Table> tablesByName = new LinkedHashMap<>();
+        tables.forEach(table -> tablesByName.put(table.getName(), table));
+
+        List<Table> sortedTables = new ArrayList<>();
+        Set<String> visitedTables = new HashSet<>();
+        tables.forEach(table -> visit(table, tablesByName, visitedTables, sortedTables));
+        return sortedTables;
+    }
+
+    /**
+     * Adds the referenced tables and then the table to the ordered list.
+     *
+     * @param table Table to add.
+     * @param tablesByName Tables of the relational model by their names.
+     * @param visitedTables Names of the already visited tables.
+     * @param sortedTables Ordered list of the tables.
+     */
+    private void visit(Table table, Map<String, Table> tablesByName, Set<String> visitedTables, List<Table> sortedTables) {
+        if (!visitedTables.add(table.getName())) return;
+
+        for (ReferentialConstraint referentialConstraint : table.getReferentialConstraints()) {
+            Table refTable = tablesByName.get(referentialConstraint.getRefTable());
+            if (refTable != null) visit(refTable, tablesByName, visitedTables, sortedTables);
+        }
+        sortedTables.add(table);
+    }
+
+    /**
+     * Generates rows into the table.
+     *
+     * @param table Table to fill.
+     * @param rows The number of rows to generate.
+     * @return The number of inserted rows.
+     */
+    private long generateTable(Table table, int rows) {
+        String name = table.getName();
+        Set<String> keyColumns = table.getPrimaryKeys().stream()
+                .map(PrimaryKey::getAttributes)
+                .flatMap(List::stream)
+                .collect(Collectors.toSet());
+
+        Map<String, ColumnGenerator> columns = new LinkedHashMap<>();
+        for (Map<String, Object> columnType : tableQueryHandler.getColumnTypes(name))
+            columns.put((String) columnType.get("COLUMN_NAME"), new ColumnGenerator(columnType, columns.size()));
+
+        long existingRows = countRows(name);
+        for (ColumnGenerator column : columns.values()) {
+            column.setSamples(getDistinctValues(name, List.of(column.name)));
+            if (keyColumns.contains(column.name)) column.setKeyOffset(getKeyOffset(name, column, existingRows));
+        }
+
+        List<ReferenceGenerator> references = new ArrayList<>();
+        for (ReferentialConstraint referentialConstraint : table.getReferentialConstraints()) {
+            List<String> attributes = new ArrayList<>(referentialConstraint.getAttributes());
+            if (!columns.keySet().containsAll(attributes)) continue;
+
+            List<Object[]> refKeys = getDistinctValues(referentialConstraint.getRefTable(),
+                    new ArrayList<>(referentialConstraint.getRefAttributes()));
+
+            boolean isNullable = attributes.stream().allMatch(attribute -> columns.get(attribute).isNullable);
+            if (refKeys.isEmpty() && !isNullable) {
+                log.info("Table " + name + " was not generated, because " + referentialConstraint.getRefTable() + " is empty");
+                return 0;
+            }
+            references.add(new ReferenceGenerator(attributes, refKeys));
+        }
+
+        return insertRows(name, columns, references, rows);
+    }
+
+    /**
+     * Counts rows of the table.
+     *
+     * @param name Name of the table.
+     * @return The number of rows.
+     */
+    private long countRows(String name) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"" + name + "\"", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Finds the first generated value of the key column,
+     * so the generated values do not collide with the existing ones.
+     *
+     * @param name Name of the table.
+     * @param column Key column.
+     * @param existingRows The number of rows in the table.
+     * @return Offset added to the row number.
+     */
+    private long getKeyOffset(String name, ColumnGenerator column, long existingRows) {
+        if (!column.isNumeric()) return existingRows;
+
+        BigDecimal max = jdbcTemplate.queryForObject("SELECT MAX(\"" + column.name + "\") FROM \"" + name + "\"", BigDecimal.class);
+        return max == null ? 1 : max.longValue() + 1;
+    }
+
+    /**
+     * Reads distinct combinations of values of the columns.
+     *
+     * @param name Name of the table.
+     * @param columns Names of the columns.
+     * @return List of the combinations of values without nulls.
+     */
+    private List<Object[]> getDistinctValues(String name, List<String> columns) {
+        String columnList = columns.stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", "));
+        String condition = columns.stream().map(column -> "\"" + column + "\" IS NOT NULL").collect(Collectors.joining(" AND "));
+        String query = "SELECT DISTINCT " + columnList + " FROM \"" + name + "\" WHERE " + condition + " LIMIT " + SAMPLE_LIMIT;
+
+        return jdbcTemplate.query(query, (resultSet, rowNumber) -> {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) values[i] = resultSet.getObject(i + 1);
+            return values;
+        });
+    }
+
+    /**
+     * Inserts the generated rows in JDBC batches. Rows violating a constraint
+     * are left out. If no row of the first batch can be inserted,
+     * the generation of the table is stopped.
+     *
+     * @param name Name of the table.
+     * @param columns Generators of the values of the columns.
+     * @param references Generators of the values of the foreign keys.
+     * @param rows The number of rows to generate.
+     * @return The number of inserted rows.
+     */
+    private long insertRows(String name, Map<String, ColumnGenerator> columns, List<ReferenceGenerator> references, int rows) {
+        List<String> columnNames = new ArrayList<>(columns.keySet());
+        String insertQuery = "INSERT INTO \"" + name + "\" (" +
+                columnNames.stream().map(column -> "\"" + column + "\"").collect(Collectors.joining(", ")) +
+                ") VALUES (" + columnNames.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+
+        Long insertedRows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+                long inserted = 0;
+                Map<String, Object> row = new HashMap<>();
+
+                for (int i = 0; i < rows; i++) {
+                    row.clear();
+                    for (ColumnGenerator column : columns.values()) row.put(column.name, column.getValue(i));
+
+                    long combination = i;
+                    for (ReferenceGenerator reference : references) combination = reference.fill(row, combination);
+
+                    for (int j = 0; j < columnNames.size(); j++) statement.setObject(j + 1, row.get(columnNames.get(j)));
+                    statement.addBatch();
+
+                    if ((i + 1) % batchSize == 0 || i + 1 == rows) {
+                        long batchInserted = executeBatch(statement);
+                        inserted += batchInserted;
+                        if (inserted == 0) break;
+                    }
+                }
+
+                if (autoCommit) connection.commit();
+                return inserted;
+            } finally {
+                if (autoCommit) connection.setAutoCommit(true);
+            }
+        });
+
+        log.info(insertedRows + " rows were generated into the table " + name);
+        return insertedRows == null ? 0 : insertedRows;
+    }
+
+    /**
+     * Executes the batch of the statement.
+     *
+     * @param statement Statement with added rows.
+     * @return The number of rows which did not violate any constraint.
+     * @throws SQLException If the batch could not be executed at all.
+     */
+    private long executeBatch(PreparedStatement statement) throws SQLException {
+        int[] updateCounts;
+        try {
+            updateCounts = statement.executeBatch();
+        } catch (BatchUpdateException e) {
+            updateCounts = e.getUpdateCounts();
+        }
+        return Arrays.stream(updateCounts).filter(count -> count != Statement.EXECUTE_FAILED).count();
+    }
+
+    /**
+     * Generates values of a column based on its type.
+     */
+    private static class ColumnGenerator {
+
+        /**
+         * The earliest generated date, the generated dates and timestamps follow it.
+         */
+        private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+
+        /**
+         * Name of the column.
+         */
+        private final String name;
+
+        /**
+         * Position of the column in the table, starting from 0.
+         */
+        private final int position;
+
+        /**
+         * Data type of the column as reported by the information schema.
+         */
+        private final String dataType;
+
+        /**
+         * Maximum length of the text values, null, if the column is not a text column.
+         */
+        private final Long maxLength;
+
+        /**
+         * true, if the column can contain null values.
+         */
+        private final boolean isNullable;
+
+        /**
+         * Offset of the generated key values,
+         * null, if the column is not a part of a key.
+         */
+        private Long keyOffset;
+
+        /**
+         * Existing values of the column which are repeated in the generated rows
+         * or which the generated texts are derived from.
+         */
+        private List<Object> samples = List.of();
+
+        /**
+         * Creates the generator of the column.
+         *
+         * @param columnType Row of the information schema describing the column.
+         * @param position Position of the column in the table.
+         */
+        ColumnGenerator(Map<String, Object> columnType, int position) {
+            this.name = (String) columnType.get("COLUMN_NAME");
+            this.position = position;
+            this.dataType = String.valueOf(columnType.get("DATA_TYPE"));
+            this.maxLength = columnType.get("CHARACTER_MAXIMUM_LENGTH") == null ? null :
+                    ((Number) columnType.get("CHARACTER_MAXIMUM_LENGTH")).longValue();
+            this.isNullable = "YES".equals(columnType.get("IS_NULLABLE"));
+        }
+
+        /**
+         * Marks the column as a part of a key.
+         *
+         * @param keyOffset Offset added to the number of the generated row.
+         */
+        void setKeyOffset(long keyOffset) {
+            this.keyOffset = keyOffset;
+        }
+
+        /**
+         * Sets the existing values of the column.
+         *
+         * @param values Rows containing the existing values in their first column.
+         */
+        void setSamples(List<Object[]> values) {
+            this.samples = values.stream().map(value -> value[0]).collect(Collectors.toList());
+        }
+
+        /**
+         * Checks whether the column contains numbers.
+         *
+         * @return true, if the data type of the column is numeric.
+         */
+        boolean isNumeric() {
+            return dataType.matches("TINYINT|SMALLINT|INTEGER|BIGINT|NUMERIC|DECIMAL|DECFLOAT|REAL|DOUBLE PRECISION");
+        }
+
+        /**
+         * Gets the value of the column in the generated row.
+         * Key values are unique for every row, other values are repeated from the samples.
+         * Nullable columns without any existing value are left empty.
+         * Dates and times grow with the position of the column, so a later column
+         * is usually greater, like the departure after the arrival, and times are
+         * spread over the whole day.
+         *
+         * @param row Number of the generated row.
+         * @return Value of the column.
+         */
+        Object getValue(long row) {
+            if (keyOffset == null) {
+                if (!samples.isEmpty()) return samples.get((int) (row % samples.size()));
+                if (isNullable) return null;
+            }
+
+            long number = (keyOffset == null ? 1 : keyOffset) + row;
+            if (isNumeric()) return dataType.matches("NUMERIC|DECIMAL|DECFLOAT") ? BigDecimal.valueOf(number) : number;
+            if (dataType.startsWith("CHARACTER") || dataType.startsWith("VARCHAR")) return getText(number, row);
+            if (dataType.equals("DATE")) return FIRST_DATE.plusDays(number + position);
+            if (dataType.startsWith("TIMESTAMP")) return FIRST_DATE.atStartOfDay().plusMinutes(number).plusHours(position);
+            if (dataType.startsWith("TIME")) return LocalTime.ofSecondOfDay((row * 7919 + position * 3600L) % 86400);
+            if (dataType.equals("BOOLEAN")) return number % 2 == 0;
+            return isNullable ? null : String.valueOf(number);
+        }
+
+        /**
+         * Generates a text value which fits into the maximum length of the column.
+         * The number of the value is prepended to an existing value, so the text
+         * keeps its format. E-mail columns without existing values get an e-mail address.
+         *
+         * @param number Number of the value.
+         * @param row Number of the generated row.
+         * @return Text value.
+         */
+        private String getText(long number, long row) {
+            String prefix = Long.toString(number, Character.MAX_RADIX).toUpperCase();
+            String text = prefix;
+
+            if (!samples.isEmpty()) text += samples.get((int) (row % samples.size()));
+            else if (name.contains("MAIL")) text += "@example.com";
+
+            if (maxLength == null || text.length() <= maxLength) return text;
+            if (prefix.length() >= maxLength) return prefix.substring(prefix.length() - maxLength.intValue());
+            return text.substring(0, maxLength.intValue());
+        }
+    }
+
+    /**
+     * Generates values of a foreign key from the keys of the referenced table.
+     */
+    private static class ReferenceGenerator {
+
+        /**
+         * Attributes of the foreign key in the order of the referenced key.
+         */
+        private final List<String> attributes;
+
+        /**
+         * Existing values of the referenced key, empty, if the referenced table has no rows.
+         */
+        private final List<Object[]> refKeys;
+
+        /**
+         * Creates the generator of the foreign key.
+         *
+         * @param attributes Attributes of the foreign key.
+         * @param refKeys Existing values of the referenced key.
+         */
+        ReferenceGenerator(List<String> attributes, List<Object[]> refKeys) {
+            this.attributes = attributes;
+            this.refKeys = refKeys;
+        }
+
+        /**
+         * Sets the values of the foreign key in the row. The referenced keys are chosen
+         * as digits of the combination number, so rows referencing several tables
+         * get distinct combinations of the referenced keys.
+         *
+         * @param row Generated row.
+         * @param combination Remaining part of the combination number.
+         * @return Combination number for the next foreign key.
+         */
+        long fill(Map<String, Object> row, long combination) {
+            if (refKeys.isEmpty()) {
+                attributes.forEach(attribute -> row.put(attribute, null));
+                return combination;
+            }
+
+            Object[] refKey = refKeys.get((int) (combination % refKeys.size()));
+            for (int i = 0; i < attributes.size(); i++) row.put(attributes.get(i), refKey[i]);
+            return combination / refKeys.size();
+        }
+    }
+}
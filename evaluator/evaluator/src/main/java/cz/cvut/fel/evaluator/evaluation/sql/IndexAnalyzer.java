@@ -0,0 +1,166 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryDependencyGraph;
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryRegexLibrary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds indexes created by the student which speed up some of the student's SELECT queries.
+ * A query benefits from an index if its plan uses the index and its median execution time
+ * is sufficiently shorter with the index than after the index is dropped.
+ */
+@Slf4j
+@Component
+public class IndexAnalyzer {
+
+    /**
+     * Pattern to extract the names of the index and the indexed table.
+     */
+    private static final Pattern createdIndexPattern = QueryRegexLibrary.getCreatedIndexPattern();
+
+    /**
+     * Executes core JDBC workflow, leaving application code
+     * to provide SQL and extract results.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Executes SQL queries in the database.
+     */
+    private final SQLExecutor sqlExecutor;
+
+    /**
+     * The number of runs of a query before its time is measured.
+     */
+    @Value("${evaluator.index-analysis.warm-up-runs:3}")
+    private int warmUpRuns = 3;
+
+    /**
+     * The number of measured runs of a query.
+     */
+    @Value("${evaluator.index-analysis.runs:5}")
+    private int runs = 5;
+
+    /**
+     * How many times faster the query has to be with the index.
+     */
+    @Value("${evaluator.index-analysis.min-speedup:1.5}")
+    private double minSpeedup = 1.5;
+
+    @Autowired
+    public IndexAnalyzer(JdbcTemplate jdbcTemplate, SQLExecutor sqlExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlExecutor = sqlExecutor;
+    }
+
+    /**
+     * Measures the SELECT queries on the indexed tables with and without each index.
+     * Every index is dropped only for its measurement and created again afterwards.
+     *
+     * @param createIndexQueries Successfully executed CREATE INDEX queries.
+     * @param selectQueries Successfully executed SELECT queries.
+     * @return Descriptions of the largest speedup by the CREATE INDEX queries
+     *         which speed up at least one of the SELECT queries.
+     */
+    public Map<String, String> findBeneficialIndexes(List<String> createIndexQueries, List<String> selectQueries) {
+        log.info("Method findBeneficialIndexes was called for " + createIndexQueries.size() + " indexes");
+        Map<String, String> beneficialIndexes = new LinkedHashMap<>();
+
+        for (String createIndexQuery : createIndexQueries) {
+            Matcher matcher = createdIndexPattern.matcher(createIndexQuery);
+            if (!matcher.lookingAt()) continue;
+
+            String index = matcher.group(1);
+            String table = matcher.group(2);
+            findBenefit(createIndexQuery, index, table, selectQueries)
+                    .ifPresent(benefit -> beneficialIndexes.put(createIndexQuery, benefit));
+        }
+        return beneficialIndexes;
+    }
+
+    /**
+     * Measures the SELECT queries whose plan uses the index
+     * and finds the one with the largest speedup.
+     *
+     * @param createIndexQuery Query creating the index.
+     * @param index Name of the index.
+     * @param table Name of the indexed table.
+     * @param selectQueries Successfully executed SELECT queries.
+     * @return Description of the largest speedup,
+     *         empty, if no query is sufficiently faster with the index.
+     */
+    private Optional<String> findBenefit(String createIndexQuery, String index, String table, List<String> selectQueries) {
+        Map<String, Long> timesWithIndex = new LinkedHashMap<>();
+        for (String selectQuery : selectQueries) {
+            if (!QueryDependencyGraph.getReferencedObjects(selectQuery).contains(table)) continue;
+            if (!usesIndex(selectQuery, index)) continue;
+
+            sqlExecutor.measure(selectQuery, warmUpRuns, runs).ifPresent(time -> timesWithIndex.put(selectQuery, time));
+        }
+        if (timesWithIndex.isEmpty()) return Optional.empty();
+
+        Map<String, Long> timesWithoutIndex = new HashMap<>();
+        if (!execute("DROP INDEX " + index)) return Optional.empty();
+        try {
+            for (String selectQuery : timesWithIndex.keySet())
+                sqlExecutor.measure(selectQuery, warmUpRuns, runs).ifPresent(time -> timesWithoutIndex.put(selectQuery, time));
+        } finally {
+            if (!execute(createIndexQuery)) log.warn("Index " + index + " could not be created again");
+        }
+
+        String bestQuery = null;
+        double bestSpeedup = 0;
+        for (String selectQuery : timesWithoutIndex.keySet()) {
+            double speedup = timesWithoutIndex.get(selectQuery) / (double) Math.max(1, timesWithIndex.get(selectQuery));
+            if (speedup > bestSpeedup) {
+                bestSpeedup = speedup;
+                bestQuery = selectQuery;
+            }
+        }
+
+        log.info("The largest speedup by the index " + index + " is " + bestSpeedup);
+        if (bestQuery == null || bestSpeedup < minSpeedup) return Optional.empty();
+
+        return Optional.of(String.format(Locale.ROOT, "%s<br><span>%.2f ms without the index, %.2f ms with the index</span>",
+                bestQuery, timesWithoutIndex.get(bestQuery) / 1e6, timesWithIndex.get(bestQuery) / 1e6));
+    }
+
+    /**
+     * Checks whether the plan of the SELECT query reads the table through the index.
+     *
+     * @param selectQuery SELECT query as a string.
+     * @param index Name of the index.
+     * @return true, if the plan mentions the index.
+     */
+    private boolean usesIndex(String selectQuery, String index) {
+        Pattern indexPattern = Pattern.compile("\\." + Pattern.quote(index) + "\\b", Pattern.CASE_INSENSITIVE);
+        return sqlExecutor.explain(selectQuery)
+                .map(plan -> indexPattern.matcher(plan).find())
+                .orElse(false);
+    }
+
+    /**
+     * Executes the query changing the indexes.
+     *
+     * @param query Query as a string.
+     * @return true, if the query was executed.
+     */
+    private boolean execute(String query) {
+        try {
+            jdbcTemplate.execute(query);
+            return true;
+        } catch (DataAccessException e) {
+            log.info("Query could not be executed: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Canonical form of an SQL statement with the literals replaced by parameters.
+ */
+@Getter
+@AllArgsConstructor
+public class NormalizedStatement {
+
+    /**
+     * Tokens of the statement with keywords and identifiers in upper case
+     * and every literal replaced by "?".
+     */
+    private final List<String> tokens;
+
+    /**
+     * Values of the literals in the order of the statement.
+     */
+    private final List<String> literals;
+
+    /**
+     * Fingerprint of the tokens, equal for statements differing only in the literals.
+     */
+    private final long fingerprint;
+
+    /**
+     * Fingerprint of the values of the literals.
+     */
+    private final long literalFingerprint;
+
+    /**
+     * Gets the fingerprint of the statement including the literals,
+     * equal only for statements differing in the formatting.
+     *
+     * @return 64-bit fingerprint of the tokens and the literals.
+     */
+    public long getExactFingerprint() {
+        return ResultFingerprint.mix(fingerprint * 31 + literalFingerprint);
+    }
+
+    /**
+     * Joins the tokens into the canonical text of the statement.
+     *
+     * @return Tokens separated by spaces.
+     */
+    public String getCanonicalText() {
+        return String.join(" ", tokens);
+    }
+}
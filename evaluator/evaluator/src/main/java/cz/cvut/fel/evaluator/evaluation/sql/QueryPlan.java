@@ -0,0 +1,299 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import lombok.Getter;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Execution plan of a SELECT query returned by the H2 EXPLAIN command.
+ * Finds the tables which are scanned fully and the tables which are joined
+ * without any join predicate, and estimates the cost of the query
+ * as the number of visited rows, because H2 does not print its own cost estimate.
+ */
+public class QueryPlan {
+
+    /**
+     * Pattern to find tables in the plan with their aliases and the first line of their access method.
+     * Plans of derived tables are printed in comments without quotes.
+     */
+    private static final Pattern tablePattern = Pattern.compile(
+            "\\b(FROM|JOIN)\\s+\"?\\w+\"?\\.\"?(\\w+)\"?(?:[ \\t]+\"?(\\w+)\"?)?[ \\t]*\\n\\s*/\\* ([^\\n]*)");
+
+    /**
+     * Patterns to find column references by a table alias in the conditions of the plan.
+     */
+    private static final Pattern quotedColumnPattern = Pattern.compile("(?:\"\\w+\"\\.)?\"(\\w+)\"\\.\"\\w+\"");
+    private static final Pattern columnPattern = Pattern.compile("\\b(\\w+)\\.\\w+\\b");
+
+    /**
+     * Pattern to recognize a line with a condition.
+     */
+    private static final Pattern conditionPattern = Pattern.compile("=|<|>|\\bLIKE\\b|\\bIN\\b|\\bBETWEEN\\b");
+
+    /**
+     * The whole plan as returned by EXPLAIN.
+     */
+    @Getter
+    private final String plan;
+
+    /**
+     * Names of the tables which are read without an index.
+     */
+    @Getter
+    private final Set<String> fullScans = new LinkedHashSet<>();
+
+    /**
+     * Groups of the joined tables which are not connected by any join predicate.
+     */
+    @Getter
+    private final List<List<String>> cartesianJoins = new ArrayList<>();
+
+    /**
+     * The least number of rows produced by the largest cartesian join.
+     */
+    @Getter
+    private double cartesianRows = 0;
+
+    /**
+     * Estimated number of rows visited while executing the query.
+     */
+    @Getter
+    private double estimatedCost = 0;
+
+    /**
+     * The number of rows in each table.
+     */
+    private final Map<String, Long> rowCounts;
+
+    /**
+     * Parses the plan returned by EXPLAIN.
+     *
+     * @param plan Plan of the query.
+     * @param rowCounts The number of rows in each table.
+     */
+    public QueryPlan(String plan, Map<String, Long> rowCounts) {
+        this.plan = plan;
+        this.rowCounts = rowCounts;
+
+        for (List<PlanTable> joinedTables : getJoinedTables()) {
+            joinedTables.stream().filter(table -> table.isFullScan).forEach(table -> fullScans.add(table.name));
+            estimatedCost += estimateCost(joinedTables);
+            findCartesianJoin(joinedTables);
+        }
+    }
+
+    /**
+     * Checks whether some tables are joined without a join predicate.
+     *
+     * @return true, if the plan contains a cartesian join.
+     */
+    public boolean hasCartesianJoin() {
+        return !cartesianJoins.isEmpty();
+    }
+
+    /**
+     * Describes the plan in one line for the evaluation output.
+     *
+     * @return Summary of the full scans, the cartesian joins and the estimated cost.
+     */
+    public String getSummary() {
+        List<String> summary = new ArrayList<>();
+
+        if (!fullScans.isEmpty())
+            summary.add("full scan of " + fullScans.stream()
+                    .map(name -> name + " (" + getRowCount(name) + " rows)")
+                    .collect(Collectors.joining(", ")));
+
+        for (List<String> cartesianJoin : cartesianJoins)
+            summary.add("cartesian join of " + String.join(" and ", cartesianJoin));
+
+        if (summary.isEmpty()) summary.add("index access only");
+        summary.add("estimated cost " + Math.round(estimatedCost) + " rows");
+        return String.join("; ", summary);
+    }
+
+    /**
+     * Splits the tables of the plan into groups joined in one FROM clause.
+     * Tables of a subquery form their own group. H2 prints the plan of a subquery
+     * used by an index condition twice, so repeated groups are left out.
+     *
+     * @return Groups of the joined tables in the order of the plan.
+     */
+    private List<List<PlanTable>> getJoinedTables() {
+        List<List<PlanTable>> joinedTables = new ArrayList<>();
+        Map<Integer, List<PlanTable>> lastGroupByDepth = new HashMap<>();
+
+        Matcher matcher = tablePattern.matcher(plan);
+        while (matcher.find()) {
+            String name = matcher.group(2);
+            String alias = matcher.group(3) == null ? name : matcher.group(3);
+            PlanTable table = new PlanTable(name, alias, matcher.group(4));
+
+            int depth = getDepth(matcher.start());
+            List<PlanTable> group = lastGroupByDepth.get(depth);
+            if (matcher.group(1).equals("FROM") || group == null) {
+                group = new ArrayList<>();
+                joinedTables.add(group);
+                lastGroupByDepth.put(depth, group);
+            }
+            group.add(table);
+        }
+
+        Set<List<String>> signatures = new HashSet<>();
+        joinedTables.removeIf(group -> !signatures.add(group.stream()
+                .map(table -> table.name + " " + table.alias + " " + table.access + " " + table.isFullScan)
+                .collect(Collectors.toList())));
+        return joinedTables;
+    }
+
+    /**
+     * Computes the depth of parentheses at the position in the plan.
+     *
+     * @param position Position in the plan.
+     * @return The number of unclosed parentheses before the position.
+     */
+    private int getDepth(int position) {
+        int depth = 0;
+        for (int i = 0; i < position; i++) {
+            if (plan.charAt(i) == '(') depth++;
+            else if (plan.charAt(i) == ')') depth--;
+        }
+        return depth;
+    }
+
+    /**
+     * Estimates the number of rows visited by the nested loops joining the tables.
+     * A full scan visits all the rows of the table, an index lookup
+     * with an equality condition one row and another index lookup half of the rows.
+     *
+     * @param joinedTables Tables in the order of the joins.
+     * @return Estimated number of the visited rows.
+     */
+    private double estimateCost(List<PlanTable> joinedTables) {
+        double cost = 0;
+        double loops = 1;
+
+        for (PlanTable table : joinedTables) {
+            long rows = getRowCount(table.name);
+            double visitedRows = table.isFullScan ? rows : table.isEqualityLookup() ? 1 : Math.ceil(rows / 2.0);
+
+            cost += loops * Math.max(1, visitedRows);
+            loops *= Math.max(1, visitedRows);
+        }
+        return cost;
+    }
+
+    /**
+     * Finds the groups of the joined tables which are not connected by any condition.
+     * The size of the cartesian join is at least the product of the largest tables of the groups.
+     *
+     * @param joinedTables Tables joined in one FROM clause.
+     */
+    private void findCartesianJoin(List<PlanTable> joinedTables) {
+        if (joinedTables.size() < 2) return;
+
+        Map<String, String> components = new LinkedHashMap<>();
+        joinedTables.forEach(table -> components.put(table.alias, table.alias));
+
+        for (PlanTable table : joinedTables) {
+            Set<String> aliases = getAliases(table.access, columnPattern);
+            aliases.add(table.alias);
+            connect(aliases, components);
+        }
+
+        for (String line : plan.split("\n")) {
+            if (!conditionPattern.matcher(line).find()) continue;
+
+            Set<String> aliases = getAliases(line, quotedColumnPattern);
+            aliases.addAll(getAliases(line, columnPattern));
+            connect(aliases, components);
+        }
+
+        Map<String, List<PlanTable>> groups = new LinkedHashMap<>();
+        joinedTables.forEach(table -> groups.computeIfAbsent(find(table.alias, components), key -> new ArrayList<>()).add(table));
+        if (groups.size() < 2) return;
+
+        cartesianJoins.add(groups.values().stream().map(group -> group.get(0).name).collect(Collectors.toList()));
+
+        double rows = 1;
+        for (List<PlanTable> group : groups.values())
+            rows *= group.stream().mapToLong(table -> getRowCount(table.name)).max().orElse(1);
+        cartesianRows = Math.max(cartesianRows, rows);
+    }
+
+    /**
+     * Finds table aliases referenced in the text.
+     *
+     * @param text Part of the plan.
+     * @param pattern Pattern of a column reference.
+     * @return Set of the aliases.
+     */
+    private Set<String> getAliases(String text, Pattern pattern) {
+        Set<String> aliases = new HashSet<>();
+        pattern.matcher(text).results().forEach(result -> aliases.add(result.group(1)));
+        return aliases;
+    }
+
+    /**
+     * Merges the groups of the aliases which are referenced together.
+     *
+     * @param aliases Aliases referenced in one condition.
+     * @param components Representative alias of each alias' group.
+     */
+    private void connect(Set<String> aliases, Map<String, String> components) {
+        List<String> joinedAliases = aliases.stream().filter(components::containsKey).collect(Collectors.toList());
+        for (int i = 1; i < joinedAliases.size(); i++)
+            components.put(find(joinedAliases.get(i), components), find(joinedAliases.get(0), components));
+    }
+
+    /**
+     * Finds the representative alias of the alias' group.
+     *
+     * @param alias Table alias.
+     * @param components Representative alias of each alias' group.
+     * @return Representative alias.
+     */
+    private String find(String alias, Map<String, String> components) {
+        String parent = components.get(alias);
+        if (parent.equals(alias)) return alias;
+
+        String root = find(parent, components);
+        components.put(alias, root);
+        return root;
+    }
+
+    /**
+     * Gets the number of rows in the table.
+     *
+     * @param name Name of the table.
+     * @return The number of rows, 0 if the table is not known.
+     */
+    private long getRowCount(String name) {
+        return rowCounts.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Table read in the plan with the method of reading it.
+     */
+    private static class PlanTable {
+
+        private final String name;
+        private final String alias;
+        private final String access;
+        private final boolean isFullScan;
+
+        PlanTable(String name, String alias, String access) {
+            this.name = name;
+            this.alias = alias;
+            this.isFullScan = access.contains(".tableScan");
+            this.access = access.contains(":") ? access.substring(access.indexOf(':') + 1) : "";
+        }
+
+        boolean isEqualityLookup() {
+            return access.contains("=") && !access.matches(".*(<|>|\\bIN\\b).*");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Contains SELECT queries of the reference solution, one for each task,
+ * and caches fingerprints of their results for every database they were executed on,
+ * so the results are computed only once for all the evaluated solutions.
+ */
+@Slf4j
+@Component
+public class ReferenceSolution {
+
+    /**
+     * Retrieves SQL queries from the text of the reference solution.
+     */
+    private final SQLParser sqlParser = new SQLParser();
+
+    /**
+     * SELECT queries of the reference solution in the order of the tasks.
+     */
+    private List<String> queries = new ArrayList<>();
+
+    /**
+     * Task numbers by the fingerprints of the reference results,
+     * cached by the fingerprint of the database.
+     */
+    private final Map<String, Map<Long, Integer>> fingerprintsByDatabase = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the reference queries from the text of the reference solution.
+     *
+     * @param referenceSolution Text containing the reference SELECT queries.
+     */
+    public void load(String referenceSolution) {
+        queries = sqlParser.parse(referenceSolution).stream()
+                .filter(query -> query.startsWith("SELECT"))
+                .collect(Collectors.toList());
+        fingerprintsByDatabase.clear();
+
+        log.info("Reference solution with " + queries.size() + " tasks has been loaded");
+    }
+
+    /**
+     * Checks whether the reference solution contains any task.
+     *
+     * @return true, if the results should be compared to the reference solution.
+     */
+    public boolean isLoaded() {
+        return !queries.isEmpty();
+    }
+
+    /**
+     * Gets the reference queries.
+     *
+     * @return SELECT queries of the reference solution in the order of the tasks.
+     */
+    public List<String> getQueries() {
+        return queries;
+    }
+
+    /**
+     * Gets the number of the tasks in the reference solution.
+     *
+     * @return The number of the reference queries.
+     */
+    public int getTaskCount() {
+        return queries.size();
+    }
+
+    /**
+     * Gets the fingerprints of the reference results for the database.
+     * The reference queries are executed only the first time the database is seen.
+     * Queries that fail or return no rows are left out, so an empty result never matches.
+     *
+     * @param databaseFingerprint Fingerprint of the database schema and data.
+     * @param executor Function executing a query and computing the fingerprint of its result.
+     * @return Task numbers by the fingerprints of their reference results.
+     */
+    public Map<Long, Integer> getFingerprints(String databaseFingerprint,
+                                              Function<String, Optional<ResultFingerprint>> executor) {
+        return fingerprintsByDatabase.computeIfAbsent(databaseFingerprint, key -> {
+            log.info("Reference results are computed for the database " + key);
+            Map<Long, Integer> fingerprints = new HashMap<>();
+
+            for (int i = 0; i < queries.size(); i++) {
+                int task = i + 1;
+                executor.apply(queries.get(i))
+                        .filter(fingerprint -> fingerprint.getRowCount() > 0)
+                        .ifPresent(fingerprint -> fingerprints.putIfAbsent(fingerprint.getValue(), task));
+            }
+
+            return fingerprints;
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Computes a hash of a query result which does not depend on the order of the rows.
+ * The rows are hashed one by one while they are read, so the result is never held in memory.
+ */
+public class ResultFingerprint implements RowCallbackHandler {
+
+    /**
+     * Sum of the hashes of the read rows.
+     */
+    private long rowsHash = 0;
+
+    /**
+     * The number of the read rows.
+     */
+    @Getter
+    private long rowCount = 0;
+
+    /**
+     * The number of the columns in the result.
+     */
+    private int columnCount = -1;
+
+    /**
+     * Adds the current row of the result to the fingerprint.
+     *
+     * @param resultSet Result positioned at the row to add.
+     * @throws SQLException When reading the row.
+     */
+    @Override
+    public void processRow(ResultSet resultSet) throws SQLException {
+        if (columnCount < 0) columnCount = resultSet.getMetaData().getColumnCount();
+
+        long rowHash = columnCount;
+        for (int i = 1; i <= columnCount; i++)
+            rowHash = mix(rowHash * 31 + hashValue(resultSet.getObject(i)));
+
+        rowsHash += mix(rowHash);
+        rowCount++;
+    }
+
+    /**
+     * Gets the fingerprint of the rows read so far.
+     * Results with the same rows in a different order have the same fingerprint.
+     *
+     * @return 64-bit fingerprint of the result.
+     */
+    public long getValue() {
+        return mix(rowsHash ^ mix(rowCount * 31 + columnCount));
+    }
+
+    /**
+     * Hashes a value from the result. Numbers are compared by their value,
+     * so e.g. 1 and 1.00 have the same hash.
+     *
+     * @param value Value to hash.
+     * @return 64-bit hash of the value.
+     */
+    private static long hashValue(Object value) {
+        if (value == null) return 0x9E3779B97F4A7C15L;
+
+        String text = value.toString();
+        if (value instanceof Number) {
+            try {
+                text = new BigDecimal(text).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                // NaN and infinite values are hashed as they are printed
+            }
+        }
+        return hashString(text);
+    }
+
+    /**
+     * Hashes a string using 64-bit FNV-1a.
+     *
+     * @param text String to hash.
+     * @return 64-bit hash of the string.
+     */
+    public static long hashString(String text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Spreads the bits of the value, so that the sum of the hashes
+     * does not collide for similar rows (SplitMix64 finalizer).
+     *
+     * @param value Value to mix.
+     * @return Mixed value.
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
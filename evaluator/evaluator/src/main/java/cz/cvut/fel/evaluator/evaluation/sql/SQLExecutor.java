@@ -3,12 +3,24 @@ package cz.cvut.fel.evaluator.evaluation.sql;
 import cz.cvut.fel.evaluator.output.LogHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Component;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * Executes SQL queries in the database.
  */
@@ -48,19 +60,239 @@ public class SQLExecutor {
      *         false, if the attempt was not successful.
      */
     public boolean tryExecute(String query, String lastQuery) {
+        Optional<String> error = tryExecuteQuietly(query, lastQuery);
+        error.ifPresent(this::logError);
+        return error.isEmpty();
+    }
+
+    /**
+     * Executes the received query in the H2 database.
+     * In case of an error tries to fix it, but does not log
+     * the final error, so the method can be called concurrently.
+     *
+     * @param query Query as a string.
+     * @param lastQuery Query from the last query execution attempt.
+     * @return Message of the error of the last attempt,
+     *         empty, if the attempt was successful.
+     */
+    public Optional<String> tryExecuteQuietly(String query, String lastQuery) {
+        return tryExecuteQuietly(query, lastQuery, SelectValidation.FULL);
+    }
+
+    /**
+     * Executes the received query in the H2 database.
+     * SELECT queries are only validated in the received way.
+     * In case of an error tries to fix it, but does not log
+     * the final error, so the method can be called concurrently.
+     *
+     * @param query Query as a string.
+     * @param lastQuery Query from the last query execution attempt.
+     * @param selectValidation The way of validating SELECT queries.
+     * @return Message of the error of the last attempt,
+     *         empty, if the attempt was successful.
+     */
+    public Optional<String> tryExecuteQuietly(String query, String lastQuery, SelectValidation selectValidation) {
         try {
-            jdbcTemplate.execute(query);
+            jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    selectValidation == SelectValidation.FULL || !query.startsWith("SELECT") ?
+                            executeInSavepoint(connection, query) : validateSelect(connection, query, selectValidation));
         } catch (BadSqlGrammarException | DataIntegrityViolationException | UncategorizedSQLException e) {
             String message = e.getCause().getMessage();
 
-            if (!query.equals(lastQuery)) return tryExecute(sqlFixer.fix(query, message), query);
+            if (!query.equals(lastQuery)) return tryExecuteQuietly(sqlFixer.fix(query, message), query, selectValidation);
+
+            return Optional.of(message);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Executes the SELECT query and computes the fingerprint of its result.
+     * The rows are streamed into the fingerprint without being stored.
+     *
+     * @param query SELECT query as a string.
+     * @return Fingerprint of the result,
+     *         empty, if the query could not be executed.
+     */
+    public Optional<ResultFingerprint> getResultFingerprint(String query) {
+        ResultFingerprint fingerprint = new ResultFingerprint();
+        try {
+            jdbcTemplate.query(query, fingerprint);
+        } catch (DataAccessException e) {
+            log.info("Result fingerprint could not be computed: " + e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(fingerprint);
+    }
+
+    /**
+     * Executes the SELECT query and computes the fingerprint of its result,
+     * so the query is executed only once when its result is compared to the reference solution.
+     * Errors which occur only while the rows are read, e.g. a failed conversion of a value,
+     * are returned as the errors of the query. In case of an error tries to fix it,
+     * but does not log the final error, so the method can be called concurrently.
+     *
+     * @param query SELECT query as a string.
+     * @param lastQuery Query from the last query execution attempt.
+     * @return Outcome with the fingerprint of the result,
+     *         or with the message of the error of the last attempt.
+     */
+    public StatementOutcome tryFingerprintQuietly(String query, String lastQuery) {
+        ResultFingerprint fingerprint = new ResultFingerprint();
+        try {
+            jdbcTemplate.query(query, fingerprint);
+        } catch (DataAccessException e) {
+            String message = e.getMostSpecificCause().getMessage();
+
+            if (!query.equals(lastQuery)) return tryFingerprintQuietly(sqlFixer.fix(query, message), query);
+
+            return new StatementOutcome(message, null, null, 0);
+        }
+        return new StatementOutcome(null, null, fingerprint.getValue(), 0);
+    }
 
-            log.error(message + "\n");
-            logHandler.addErrorLog(message);
+    /**
+     * Gets the execution plan of the SELECT query without executing it.
+     *
+     * @param query SELECT query as a string.
+     * @return Plan returned by the EXPLAIN command,
+     *         empty, if the query is not valid.
+     */
+    public Optional<String> explain(String query) {
+        try {
+            return Optional.ofNullable(jdbcTemplate.queryForObject("EXPLAIN " + query, String.class));
+        } catch (DataAccessException e) {
+            log.info("Query plan could not be got: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
 
+    /**
+     * Measures the time of the SELECT query execution including reading the whole result.
+     * The query is first executed several times without measuring, so the caches are warm,
+     * and the median of the measured runs is taken, so one slow run does not matter.
+     * Every run gets a different comment, because H2 reuses the result
+     * of a repeated statement if the tables have not changed.
+     *
+     * @param query SELECT query as a string.
+     * @param warmUpRuns The number of runs before the measurement.
+     * @param runs The number of measured runs.
+     * @return Median execution time in nanoseconds,
+     *         empty, if the query could not be executed.
+     */
+    public Optional<Long> measure(String query, int warmUpRuns, int runs) {
+        RowCallbackHandler ignoreRow = resultSet -> { };
+        long[] times = new long[Math.max(1, runs)];
+
+        try {
+            for (int i = 0; i < warmUpRuns; i++) jdbcTemplate.query("/* warm-up " + i + " */ " + query, ignoreRow);
+
+            for (int i = 0; i < times.length; i++) {
+                String measuredQuery = "/* run " + i + " */ " + query;
+                long start = System.nanoTime();
+                jdbcTemplate.query(measuredQuery, ignoreRow);
+                times[i] = System.nanoTime() - start;
+            }
+        } catch (DataAccessException e) {
+            log.info("Query execution could not be measured: " + e.getMessage());
+            return Optional.empty();
+        }
+
+        Arrays.sort(times);
+        return Optional.of(times[times.length / 2]);
+    }
+
+    /**
+     * Drops the database object together with the objects depending on it.
+     *
+     * @param type Type of the object, e.g. TABLE, VIEW or SEQUENCE.
+     * @param name Name of the object.
+     * @return true, if the object does not exist anymore.
+     */
+    public boolean drop(String type, String name) {
+        try {
+            jdbcTemplate.execute("DROP " + type + " IF EXISTS \"" + name + "\" CASCADE");
+            return true;
+        } catch (DataAccessException e) {
+            log.warn(type + " " + name + " could not be dropped: " + e.getMessage());
             return false;
         }
+    }
 
+    /**
+     * Stores the error which occurred while executing a query.
+     *
+     * @param message Error message.
+     */
+    public void logError(String message) {
+        log.error(message + "\n");
+        logHandler.addErrorLog(message);
+    }
+
+    /**
+     * Executes the query inside a savepoint if the connection
+     * takes part in a transaction, so a failed query
+     * is rolled back without affecting the previous ones.
+     *
+     * @param connection Connection to the database.
+     * @param query Query as a string.
+     * @return true, if the query was executed.
+     * @throws SQLException When executing the query.
+     */
+    private boolean executeInSavepoint(Connection connection, String query) throws SQLException {
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(query);
+        } catch (SQLException e) {
+            rollbackToSavepoint(connection, savepoint);
+            throw e;
+        }
+
+        if (savepoint != null) connection.releaseSavepoint(savepoint);
         return true;
     }
+
+    /**
+     * Checks that the SELECT query can be executed without computing its whole result.
+     * The query is prepared and, in the LIMITED mode, executed with the result
+     * limited to one row, which is fetched before the result is closed.
+     *
+     * @param connection Connection to the database.
+     * @param query SELECT query as a string.
+     * @param selectValidation The way of validating the query.
+     * @return true, if the query is valid.
+     * @throws SQLException When preparing or executing the query.
+     */
+    private boolean validateSelect(Connection connection, String query, SelectValidation selectValidation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            if (selectValidation == SelectValidation.PREPARE) return true;
+
+            statement.setMaxRows(1);
+            statement.setFetchSize(1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rolls back the changes made after the savepoint was set.
+     * DDL queries commit the transaction in H2, so the savepoint
+     * may not exist anymore, in which case there is nothing to roll back.
+     *
+     * @param connection Connection to the database.
+     * @param savepoint Savepoint set before the query execution.
+     */
+    private void rollbackToSavepoint(Connection connection, Savepoint savepoint) {
+        if (savepoint == null) return;
+
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            log.info("Savepoint could not be rolled back: " + e.getMessage());
+        }
+    }
 }
@@ -6,16 +6,28 @@ import cz.cvut.fel.evaluator.evaluation.model.RelationalModel;
 
 import cz.cvut.fel.evaluator.evaluation.model.ReferentialConstraint;
 import cz.cvut.fel.evaluator.evaluation.model.Table;
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryDependencyGraph;
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryScheduler;
 import cz.cvut.fel.evaluator.evaluation.sql.query.TableQueryHandler;
 import cz.cvut.fel.evaluator.output.LogHandler;
 import cz.cvut.fel.evaluator.output.Output;
 import cz.cvut.fel.evaluator.output.StatisticsOutput;
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * Manages the processing of SQL queries.
@@ -42,7 +54,7 @@ public class SQLSolutionEvaluator {
     /**
      * Relational model created on the basis of CREATE TABLE queries.
      */
-    private final RelationalModel relationalModel = new RelationalModel();
+    private RelationalModel relationalModel = new RelationalModel();
 
     /**
      * Processes queries to get table parameters from the database.
@@ -55,16 +67,138 @@ public class SQLSolutionEvaluator {
      */
     private SQLParser sqlParser = new SQLParser();
 
+    /**
+     * Orders SQL queries so that every query is executed
+     * after the queries creating the objects it depends on.
+     */
+    private QueryScheduler queryScheduler = new QueryScheduler();
+
     /**
      * Generates statistics on read and executed SQL queries.
      */
     private StatisticsOutput statisticsOutput = new StatisticsOutput();
 
+    /**
+     * Tracks tables and sequences the queries depend on.
+     */
+    private QueryDependencyGraph dependencyGraph = new QueryDependencyGraph();
+
+    /**
+     * Runs the execution of the queries in one transaction,
+     * so every query can be executed inside its own savepoint.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The number of connections used to execute SELECT queries concurrently.
+     */
+    @Value("${evaluator.select-threads:4}")
+    private int selectThreads;
+
+    /**
+     * The way of validating SELECT queries
+     * whose result is not needed by any criterion.
+     */
+    @Value("${evaluator.select-validation:FULL}")
+    private SelectValidation selectValidation = SelectValidation.FULL;
+
+    /**
+     * The evaluation criteria.
+     */
+    private Map<String, Criterion> criteria = new HashMap<>();
+
+    /**
+     * Reference queries for the tasks and the cache of their results.
+     */
+    private final ReferenceSolution referenceSolution;
+
+    /**
+     * Task numbers by the fingerprints of the reference results
+     * computed on the current database.
+     */
+    private Map<Long, Integer> referenceFingerprints = new HashMap<>();
+
+    /**
+     * Fingerprints of the results of the executed SELECT queries.
+     */
+    private final Map<String, Long> resultFingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Fills the tables with synthetic rows before SELECT queries are executed.
+     */
+    private final DataGenerator dataGenerator;
+
+    /**
+     * The least number of rows produced by joining tables without a join predicate
+     * at which the SELECT query is not executed.
+     */
+    @Value("${evaluator.cartesian-join-limit:1000000}")
+    private double cartesianJoinLimit = 1000000;
+
+    /**
+     * The number of rows generated into every table before the indexes are measured,
+     * if no rows are generated before SELECT queries are executed, 0 skips the index analysis then.
+     */
+    @Value("${evaluator.index-analysis.generated-rows:1000}")
+    private int indexAnalysisRows = 1000;
+
+    /**
+     * The number of rows in each table when SELECT queries are executed.
+     */
+    private Map<String, Long> tableRowCounts = new HashMap<>();
+
+    /**
+     * Execution plans of the SELECT queries.
+     */
+    private final Map<String, QueryPlan> queryPlans = new ConcurrentHashMap<>();
+
+    /**
+     * The executed SELECT queries with the summaries of their plans.
+     */
+    private final List<String> queryPlanDescriptions = new ArrayList<>();
+
+    /**
+     * Measures whether the created indexes speed up the SELECT queries.
+     */
+    private final IndexAnalyzer indexAnalyzer;
+
+    /**
+     * Successfully executed CREATE INDEX queries.
+     */
+    private final List<String> createdIndexes = new ArrayList<>();
+
+    /**
+     * Successfully executed queries changing the database in the order of their execution.
+     */
+    private final List<String> executedChanges = new ArrayList<>();
+
+    /**
+     * Successfully executed SELECT queries.
+     */
+    private final List<String> executedSelects = new ArrayList<>();
+
+    /**
+     * Outcomes of SELECT queries shared by the evaluated solutions.
+     */
+    private final StatementCache statementCache;
+
+    /**
+     * Fingerprint of the database schema and data when SELECT queries are executed.
+     */
+    private long databaseFingerprint = 0;
+
     @Autowired
-    public SQLSolutionEvaluator(SQLExecutor sqlExecutor, TableQueryHandler tableQueryHandler, LogHandler logHandler) {
+    public SQLSolutionEvaluator(SQLExecutor sqlExecutor, TableQueryHandler tableQueryHandler, LogHandler logHandler,
+                                PlatformTransactionManager transactionManager, ReferenceSolution referenceSolution,
+                                DataGenerator dataGenerator, IndexAnalyzer indexAnalyzer, StatementCache statementCache) {
         this.sqlExecutor = sqlExecutor;
         this.tableQueryHandler = tableQueryHandler;
         this.logHandler = logHandler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.referenceSolution = referenceSolution;
+        this.dataGenerator = dataGenerator;
+        this.indexAnalyzer = indexAnalyzer;
+        this.statementCache = statementCache;
     }
 
     /**
@@ -76,33 +210,92 @@ public class SQLSolutionEvaluator {
      * @return Output containing SQL queries evaluation result.
      */
     public Output evaluate(Map<String, Criterion> setCriteria, String sqlSolution) {
+        return evaluate(setCriteria, sqlParser.parse(sqlSolution));
+    }
+
+    /**
+     * Manages the evaluation process of SQL queries
+     * already retrieved from the text of the solution.
+     *
+     * @param setCriteria The evaluation criteria.
+     * @param queries SQL queries of the solution.
+     * @return Output containing SQL queries evaluation result.
+     */
+    public Output evaluate(Map<String, Criterion> setCriteria, List<String> queries) {
         log.info("Method evaluate was called");
 
+        criteria = setCriteria;
         scoreCalculator = new ScoreCalculator(setCriteria);
+        relationalModel = new RelationalModel();
+        statisticsOutput.reset();
+        logHandler.clear();
 
-        List<String> queries = sqlParser.parse(sqlSolution);
         executeAll(queries);
 
         statisticsOutput.printAll();
-        return new Output(setCriteria, logHandler.getErrorLogs(), statisticsOutput.generateList());
+        return new Output(setCriteria, new ArrayList<>(logHandler.getErrorLogs()), new ArrayList<>(logHandler.getWarningLogs()),
+                statisticsOutput.generateList(), new ArrayList<>(queryPlanDescriptions));
     }
 
     /**
-     * Executes SQL queries in the defined order:
-     * 1. DROP TABLE, CREATE SEQUENCE and CREATE TABLE queries to create database,
-     * 2. Other queries that need the existence of tables in the database.
-     * Then processes parameters of the tables in the database.
+     * Drops the tables, the views and the sequences created by the evaluated solution,
+     * so another solution can be evaluated in the same database.
+     */
+    public void clearDatabase() {
+        log.info("Method clearDatabase was called");
+
+        tableQueryHandler.getViewNames().forEach(name -> sqlExecutor.drop("VIEW", name));
+        tableQueryHandler.getTableNames().forEach(name -> sqlExecutor.drop("TABLE", name));
+        tableQueryHandler.getSequenceNames().forEach(name -> sqlExecutor.drop("SEQUENCE", name));
+    }
+
+    /**
+     * Executes SQL queries in the order given by the dependencies between them:
+     * the database objects are created first, CREATE TABLE queries after the tables
+     * they reference, then the data is inserted and finally the data is queried.
+     * The queries changing the database are executed in one transaction, each of them
+     * inside a savepoint. After the transaction is committed parameters of the tables
+     * are processed and, if it is enabled, the tables are filled with generated rows.
+     * Then the data does not change anymore, so the reference results can be computed
+     * for the database and SELECT queries are executed concurrently on several connections.
+     * Outcomes of SELECT queries already executed on the same schema and data are reused,
+     * the schema and data are identified by the executed queries, so the tables are not read.
+     * Plans of SELECT queries are got before their execution, so a query joining large tables
+     * without a join predicate is not executed at all. Finally the created indexes
+     * are measured, if the index usage is evaluated.
      *
      * @param queries List of queries to execute.
      */
     private void executeAll(List<String> queries) {
-        queries.stream()
-                .filter(query -> query.startsWith("CREATE TABLE") || query.startsWith("DROP TABLE") || query.startsWith("CREATE SEQUENCE"))
-                .forEach(this::execute);
-        queries.stream()
-                .filter(query -> !query.startsWith("CREATE TABLE") && !query.startsWith("DROP TABLE") && !query.startsWith("CREATE SEQUENCE"))
-                .forEach(this::execute);
+        dependencyGraph = new QueryDependencyGraph();
+
+        List<String> scheduledQueries = queryScheduler.schedule(queries);
+        List<String> selectQueries = scheduledQueries.stream()
+                .filter(query -> query.startsWith("SELECT"))
+                .collect(Collectors.toList());
+
+        createdIndexes.clear();
+        executedChanges.clear();
+        transactionTemplate.executeWithoutResult(status -> scheduledQueries.stream()
+                .filter(query -> !query.startsWith("SELECT"))
+                .forEach(this::execute));
         processTables();
+        long generatedRows = dataGenerator.isEnabled() ? dataGenerator.generate(relationalModel) : 0;
+        databaseFingerprint = referenceSolution.isLoaded() || statementCache.isEnabled() ?
+                StatementCache.getDatabaseFingerprint(executedChanges, generatedRows)
+                        .orElseGet(tableQueryHandler::getDatabaseFingerprint) : 0;
+        loadReferenceFingerprints();
+
+        tableRowCounts = tableQueryHandler.getRowCounts();
+        queryPlans.clear();
+        queryPlanDescriptions.clear();
+        executedSelects.clear();
+
+        if (selectThreads > 1 && selectQueries.size() > 1) executeConcurrently(selectQueries);
+        else selectQueries.forEach(this::execute);
+
+        reportSkippedQueries();
+        processIndexes();
         if (queries.stream().anyMatch(query -> query.startsWith("CREATE TABLE")))
             scoreCalculator.calculateRelationalModel(relationalModel);
     }
@@ -113,11 +306,227 @@ public class SQLSolutionEvaluator {
      * @param query Query as a string.
      */
     private void execute(String query) {
+        query = prepareQuery(query);
+        if (skipIfPrerequisitesFailed(query)) return;
+
+        Optional<String> error = tryExecute(query, getSelectValidation(query));
+        error.ifPresent(sqlExecutor::logError);
+        processResult(query, error.isEmpty());
+    }
+
+    /**
+     * Executes the query. The outcome of a SELECT query is taken from the cache,
+     * if the query was already executed on the same schema and data in the same way.
+     * The method does not change the state of the evaluation, so it can be called concurrently.
+     *
+     * @param query Query as a string.
+     * @param validation The way of validating the SELECT query.
+     * @return Message of the error which occurred during the execution, empty if there was no error.
+     */
+    private Optional<String> tryExecute(String query, SelectValidation validation) {
+        if (!query.startsWith("SELECT")) return sqlExecutor.tryExecuteQuietly(query, "", validation);
+
+        String variant = validation + (referenceSolution.isLoaded() ? " REFERENCE" : "");
+        Optional<String> key = StatementCache.getKey(databaseFingerprint, variant, query);
+        StatementOutcome outcome = key.flatMap(statementCache::get).orElse(null);
+
+        if (outcome == null) {
+            long start = System.nanoTime();
+            outcome = executeSelect(query, validation);
+            outcome.setExecutionTime(System.nanoTime() - start);
+            if (key.isPresent()) statementCache.put(key.get(), outcome);
+        }
+
+        if (outcome.getPlan() != null) queryPlans.put(query, new QueryPlan(outcome.getPlan(), tableRowCounts));
+        if (outcome.getResultFingerprint() != null) resultFingerprints.put(query, outcome.getResultFingerprint());
+        return Optional.ofNullable(outcome.getError());
+    }
+
+    /**
+     * Executes the SELECT query and, if the results are compared to the reference solution,
+     * computes the fingerprint of its result in the same execution, so an error which occurs
+     * only while the rows are read fails the query. The plan of the query is got first
+     * and the query is refused if it contains a too large cartesian join.
+     *
+     * @param query SELECT query as a string.
+     * @param validation The way of validating the SELECT query.
+     * @return Outcome of the query.
+     */
+    private StatementOutcome executeSelect(String query, SelectValidation validation) {
+        String planText = sqlExecutor.explain(query).orElse(null);
+        if (planText != null) {
+            QueryPlan plan = new QueryPlan(planText, tableRowCounts);
+            if (plan.getCartesianRows() > cartesianJoinLimit)
+                return new StatementOutcome(getCartesianJoinError(query, plan), planText, null, 0);
+        }
+
+        if (referenceSolution.isLoaded()) {
+            StatementOutcome outcome = sqlExecutor.tryFingerprintQuietly(query, "");
+            outcome.setPlan(planText);
+            return outcome;
+        }
+
+        Optional<String> error = sqlExecutor.tryExecuteQuietly(query, "", validation);
+        return new StatementOutcome(error.orElse(null), planText, null, 0);
+    }
+
+    /**
+     * Creates the message about the query which was not executed because of a cartesian join.
+     *
+     * @param query SELECT query as a string.
+     * @param plan Plan of the query.
+     * @return Error message.
+     */
+    private String getCartesianJoinError(String query, QueryPlan plan) {
+        String tables = plan.getCartesianJoins().stream()
+                .map(cartesianJoin -> String.join(" and ", cartesianJoin))
+                .collect(Collectors.joining(", "));
+
+        return "Query was not executed, because it joins " + tables + " without a join predicate " +
+                "and would produce at least " + Math.round(plan.getCartesianRows()) + " rows:\n" + query;
+    }
+
+    /**
+     * Gets the fingerprints of the reference results for the database.
+     * The reference results are shared by all the solutions evaluated
+     * on the same schema and data.
+     */
+    private void loadReferenceFingerprints() {
+        resultFingerprints.clear();
+        referenceFingerprints = new HashMap<>();
+        if (!referenceSolution.isLoaded()) return;
+
+        referenceFingerprints = referenceSolution.getFingerprints(Long.toHexString(databaseFingerprint), sqlExecutor::getResultFingerprint);
+    }
+
+    /**
+     * Chooses how the query is validated. SELECT queries are executed
+     * with the whole result only if a criterion they can fulfill needs it,
+     * or if the result is compared to the reference solution.
+     *
+     * @param query Query as a string.
+     * @return The way of validating the query.
+     */
+    private SelectValidation getSelectValidation(String query) {
+        if (selectValidation == null || !query.startsWith("SELECT")) return SelectValidation.FULL;
+        if (referenceSolution.isLoaded()) return SelectValidation.FULL;
+
+        boolean isResultNeeded = getSelectCriteria(query).stream()
+                .map(criteria::get)
+                .anyMatch(criterion -> criterion != null && criterion.isResultNeeded());
+
+        return isResultNeeded ? SelectValidation.FULL : selectValidation;
+    }
+
+    /**
+     * Executes SELECT queries on several connections at once.
+     * The results are processed in the order of the queries,
+     * so the criteria and the logs do not depend on the execution order.
+     *
+     * @param selectQueries SELECT queries to execute.
+     */
+    private void executeConcurrently(List<String> selectQueries) {
+        log.info("Method executeConcurrently was called for " + selectQueries.size() + " queries");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(selectThreads);
+        try {
+            List<String> preparedQueries = new ArrayList<>();
+            List<Future<Optional<String>>> errors = new ArrayList<>();
+
+            for (String query : selectQueries) {
+                String preparedQuery = prepareQuery(query);
+                SelectValidation validation = getSelectValidation(preparedQuery);
+                preparedQueries.add(preparedQuery);
+                errors.add(dependencyGraph.getFailedPrerequisites(preparedQuery).isEmpty() ?
+                        executorService.submit(() -> tryExecute(preparedQuery, validation)) : null);
+            }
+
+            for (int i = 0; i < preparedQueries.size(); i++) {
+                String query = preparedQueries.get(i);
+                if (skipIfPrerequisitesFailed(query)) continue;
+
+                Optional<String> error = getError(errors.get(i));
+                error.ifPresent(sqlExecutor::logError);
+                processResult(query, error.isEmpty());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the result of a concurrently executed query.
+     *
+     * @param error Future result of the query execution.
+     * @return Message of the error which occurred during the execution, empty if there was no error.
+     */
+    private Optional<String> getError(Future<Optional<String>> error) {
+        try {
+            return error.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.of("Query execution was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Logs the query and fixes its syntax to be compatible with the H2 database.
+     *
+     * @param query Query as a string.
+     * @return Edited query.
+     */
+    private String prepareQuery(String query) {
         log.info("Method execute was called with query:\n" + "\u001B[32m" + query + "\u001B[0m");
+        return preprocessQuery(query);
+    }
+
+    /**
+     * Skips the query if a table or a sequence it depends on could not be created.
+     * Skipped SELECT queries are processed as uncertain.
+     *
+     * @param query Query as a string.
+     * @return true, if the query was skipped,
+     *         false, if the query can be executed.
+     */
+    private boolean skipIfPrerequisitesFailed(String query) {
+        Set<String> failedPrerequisites = dependencyGraph.getFailedPrerequisites(query);
+        if (failedPrerequisites.isEmpty()) return false;
+
+        dependencyGraph.markSkipped(query, failedPrerequisites);
+        if (query.startsWith("SELECT")) processSelect("<span class=\"uncertain\">" + query + "</span>");
+        return true;
+    }
+
+    /**
+     * Processes the query based on the result of its execution.
+     *
+     * @param query Query as a string.
+     * @param isExecuted true, if the query was successfully executed,
+     *                   false, if the query could not be executed.
+     */
+    private void processResult(String query, boolean isExecuted) {
+        if (isExecuted) {
+            dependencyGraph.markExecuted(query);
+            postprocessQuery(query);
+        } else {
+            dependencyGraph.markFailed(query);
+            if (query.startsWith("SELECT")) processSelect("<span class=\"uncertain\">" + query + "</span>");
+        }
+    }
 
-        query = preprocessQuery(query);
-        if (sqlExecutor.tryExecute(query, "")) postprocessQuery(query);
-        else if (query.startsWith("SELECT")) processSelect("<span class=\"uncertain\">" + query + "</span>");
+    /**
+     * Adds one warning for every table or sequence which could not be created,
+     * containing the number of the queries skipped because of it.
+     */
+    private void reportSkippedQueries() {
+        dependencyGraph.getSkippedQueriesCounts().forEach((name, count) -> {
+            String message = count + " dependent queries were skipped because " + name + " could not be created";
+            log.warn(message);
+            logHandler.addWarningLog(message);
+        });
     }
 
     /**
@@ -146,9 +555,16 @@ public class SQLSolutionEvaluator {
      */
     private void postprocessQuery(String query) {
         log.info("Query was successfully executed");
+        if (!query.startsWith("SELECT")) executedChanges.add(query);
         if (query.startsWith("CREATE TABLE")) processCreateTable(query);
         else if (query.startsWith("INSERT")) processInsert();
-        else if (query.startsWith("SELECT")) processSelect(query);
+        else if (query.matches("(?s)CREATE (UNIQUE )?INDEX\\b.*")) createdIndexes.add(query);
+        else if (query.startsWith("SELECT")) {
+            executedSelects.add(query);
+            processSelect(query);
+            processReferenceResult(query);
+            processQueryPlan(query);
+        }
     }
 
     /**
@@ -197,20 +613,122 @@ public class SQLSolutionEvaluator {
         if (query.contains("WHERE"))
             scoreCalculator.calculateCondition(query, isCertain);
 
-        if (query.contains("COUNT(") || query.contains("AVG(") || query.contains("SUM(") ||
-                query.contains("MIN(") || query.contains("MAX(") ||
-                (query.contains("GROUP BY") && query.contains("HAVING")))
+        if (containsAggregation(query))
             scoreCalculator.calculateAggregation(query, isCertain);
 
-        if (query.contains("ORDER BY") || query.contains("LIMIT") || query.contains("OFFSET"))
+        if (containsSorting(query))
             scoreCalculator.calculateSorting(query, isCertain);
 
-        if (query.contains("UNION") || query.contains("INTERSECT") || query.contains("EXCEPT"))
+        if (containsSetOperation(query))
             scoreCalculator.calculateSetOperations(query, isCertain);
 
         scoreCalculator.calculateInnerSelect(query, isCertain);
     }
 
+    /**
+     * Compares the result of the SELECT statement to the reference results.
+     *
+     * @param query Executed SELECT statement.
+     */
+    private void processReferenceResult(String query) {
+        Long fingerprint = resultFingerprints.get(query);
+        if (fingerprint == null) return;
+
+        Integer task = referenceFingerprints.get(fingerprint);
+        if (task != null) scoreCalculator.calculateReferenceResult(query, task, referenceSolution.getTaskCount());
+    }
+
+    /**
+     * Adds the summary of the plan of the SELECT statement to the output.
+     *
+     * @param query Executed SELECT statement.
+     */
+    private void processQueryPlan(String query) {
+        QueryPlan plan = queryPlans.get(query);
+        if (plan == null) return;
+
+        log.info("Query plan: " + plan.getSummary());
+        queryPlanDescriptions.add(query + "<br><span>" + plan.getSummary() + "</span><br><br>");
+    }
+
+    /**
+     * Awards the created indexes which speed up at least one of the executed SELECT queries.
+     * The indexes are measured only if the index usage is evaluated. On the few rows inserted
+     * by the student an index makes no measurable difference, so without the generated rows
+     * the tables are filled with the rows for the index analysis first, or the criterion is skipped.
+     */
+    private void processIndexes() {
+        if (!criteria.containsKey("using indexes which speed up queries")) return;
+        if (createdIndexes.isEmpty() || executedSelects.isEmpty()) return;
+
+        if (!dataGenerator.isEnabled()) {
+            if (indexAnalysisRows <= 0) {
+                String message = "Indexes were not measured, because no rows are generated for the index analysis";
+                log.warn(message);
+                logHandler.addWarningLog(message);
+                return;
+            }
+            dataGenerator.generate(relationalModel, indexAnalysisRows);
+        }
+
+        indexAnalyzer.findBeneficialIndexes(createdIndexes, executedSelects)
+                .forEach(scoreCalculator::calculateIndexUsage);
+    }
+
+    /**
+     * Finds the criteria the SELECT query can fulfill.
+     *
+     * @param query SELECT statement.
+     * @return List of the criteria names.
+     */
+    private List<String> getSelectCriteria(String query) {
+        List<String> selectCriteria = new ArrayList<>();
+
+        if (query.contains("JOIN")) {
+            selectCriteria.add("outer join of tables");
+            selectCriteria.add("inner join of tables");
+        }
+        if (query.contains("WHERE")) selectCriteria.add("condition on the data");
+        if (containsAggregation(query)) selectCriteria.add("aggregation");
+        if (containsSorting(query)) selectCriteria.add("sorting and pagination");
+        if (containsSetOperation(query)) selectCriteria.add("set operations");
+        if (StringUtils.countMatches(query, "SELECT") > 1) selectCriteria.add("inner SELECT");
+
+        return selectCriteria;
+    }
+
+    /**
+     * Checks whether the SELECT statement uses aggregation.
+     *
+     * @param query SELECT statement.
+     * @return true, if the statement contains an aggregate function or GROUP BY with HAVING.
+     */
+    private boolean containsAggregation(String query) {
+        return query.contains("COUNT(") || query.contains("AVG(") || query.contains("SUM(") ||
+                query.contains("MIN(") || query.contains("MAX(") ||
+                (query.contains("GROUP BY") && query.contains("HAVING"));
+    }
+
+    /**
+     * Checks whether the SELECT statement uses sorting or pagination.
+     *
+     * @param query SELECT statement.
+     * @return true, if the statement contains ORDER BY, LIMIT or OFFSET.
+     */
+    private boolean containsSorting(String query) {
+        return query.contains("ORDER BY") || query.contains("LIMIT") || query.contains("OFFSET");
+    }
+
+    /**
+     * Checks whether the SELECT statement uses set operations.
+     *
+     * @param query SELECT statement.
+     * @return true, if the statement contains UNION, INTERSECT or EXCEPT.
+     */
+    private boolean containsSetOperation(String query) {
+        return query.contains("UNION") || query.contains("INTERSECT") || query.contains("EXCEPT");
+    }
+
     /**
      * Gets the names of the tables created
      * in the database to analyze them in detail.
@@ -0,0 +1,23 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+/**
+ * Ways of checking that a SELECT query can be executed.
+ */
+public enum SelectValidation {
+
+    /**
+     * The query is executed and its whole result is computed.
+     */
+    FULL,
+
+    /**
+     * The query is executed, but only the first row of the result is fetched.
+     */
+    LIMITED,
+
+    /**
+     * The query is only prepared, i.e. parsed and checked
+     * against the database schema, but not executed.
+     */
+    PREPARE
+}
@@ -0,0 +1,197 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryRegexLibrary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Caches the outcomes of SELECT queries across the evaluated solutions.
+ * Many solutions contain the same queries executed on the same schema and data,
+ * so an outcome is stored under the fingerprint of the normalized query including its literals
+ * and the fingerprint of the database.
+ * The least recently used outcomes are removed when the cache is full.
+ */
+@Slf4j
+@Component
+public class StatementCache {
+
+    /**
+     * Pattern to find queries whose outcome cannot be reused.
+     */
+    private static final Pattern volatileFunctionPattern = QueryRegexLibrary.getVolatileFunctionPattern();
+
+    /**
+     * Pattern to find statements whose effect on the database is not given by their text.
+     */
+    private static final Pattern nondeterministicFunctionPattern = QueryRegexLibrary.getNondeterministicFunctionPattern();
+
+    /**
+     * Computes the canonical form of queries.
+     */
+    private static final StatementNormalizer statementNormalizer = new StatementNormalizer();
+
+    /**
+     * The maximum number of cached outcomes, 0 disables the cache.
+     */
+    @Value("${evaluator.statement-cache.size:10000}")
+    private int capacity = 10000;
+
+    /**
+     * Path to the file the outcomes are kept in between runs, empty if they are not kept.
+     */
+    @Value("${evaluator.statement-cache.file:}")
+    private String file = "";
+
+    /**
+     * Cached outcomes in the order of their last use.
+     */
+    private final Map<String, StatementOutcome> outcomes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StatementOutcome> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    /**
+     * The number of the lookups which found an outcome.
+     */
+    private long hits = 0;
+
+    /**
+     * The number of all the lookups.
+     */
+    private long lookups = 0;
+
+    /**
+     * Execution time of the found outcomes in nanoseconds, i.e. the time saved by the cache.
+     */
+    private long savedTime = 0;
+
+    /**
+     * Checks whether outcomes are cached.
+     *
+     * @return true, if the cache can contain any outcome.
+     */
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Creates the key of the query's outcome.
+     *
+     * @param databaseFingerprint Fingerprint of the database schema and data.
+     * @param variant Description of the way the query is executed.
+     * @param query Query as a string.
+     * @return Key of the outcome, empty if the outcome of the query cannot be reused.
+     */
+    public static Optional<String> getKey(long databaseFingerprint, String variant, String query) {
+        if (volatileFunctionPattern.matcher(query).find()) return Optional.empty();
+        long queryFingerprint = statementNormalizer.normalize(query).getExactFingerprint();
+        return Optional.of(Long.toHexString(databaseFingerprint) + ":" + variant + ":" + Long.toHexString(queryFingerprint));
+    }
+
+    /**
+     * Computes the fingerprint of the database from the statements which built it, so the tables
+     * do not have to be read. Every solution is executed in an empty database, so the schema
+     * and the data are given by the successfully executed statements in their order
+     * and by the number of the generated rows.
+     *
+     * @param statements Successfully executed statements changing the database in the order of their execution.
+     * @param generatedRows The number of the rows generated into the tables afterwards.
+     * @return 64-bit fingerprint of the database, empty if a statement uses a function whose result
+     *         is not given by the statements, e.g. the current time, then the data has to be read.
+     */
+    public static Optional<Long> getDatabaseFingerprint(List<String> statements, long generatedRows) {
+        long fingerprint = ResultFingerprint.mix(generatedRows);
+        for (String statement : statements) {
+            if (nondeterministicFunctionPattern.matcher(statement).find()) return Optional.empty();
+            fingerprint = ResultFingerprint.mix(fingerprint * 31 + statementNormalizer.normalize(statement).getExactFingerprint());
+        }
+        return Optional.of(fingerprint);
+    }
+
+    /**
+     * Gets the cached outcome and counts the lookup.
+     *
+     * @param key Key of the outcome.
+     * @return Outcome, empty if it is not cached.
+     */
+    public synchronized Optional<StatementOutcome> get(String key) {
+        if (!isEnabled()) return Optional.empty();
+
+        lookups++;
+        StatementOutcome outcome = outcomes.get(key);
+        if (outcome == null) return Optional.empty();
+
+        hits++;
+        savedTime += outcome.getExecutionTime();
+        return Optional.of(outcome);
+    }
+
+    /**
+     * Stores the outcome of the query.
+     *
+     * @param key Key of the outcome.
+     * @param outcome Outcome of the query.
+     */
+    public synchronized void put(String key, StatementOutcome outcome) {
+        if (isEnabled()) outcomes.put(key, outcome);
+    }
+
+    /**
+     * Reads the outcomes kept by the previous runs, if the file exists.
+     */
+    public synchronized void load() {
+        if (!isEnabled() || file.isBlank() || !Files.exists(Path.of(file))) return;
+
+        try {
+            Map<String, StatementOutcome> loadedOutcomes = new ObjectMapper().readValue(Path.of(file).toFile(), new TypeReference<LinkedHashMap<String, StatementOutcome>>() {});
+            outcomes.putAll(loadedOutcomes);
+            log.info(loadedOutcomes.size() + " statement outcomes have been loaded from " + file);
+        } catch (IOException e) {
+            log.warn("Statement outcomes could not be loaded from " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the cached outcomes to the file, if it is set.
+     * The file is replaced at once, so a process loading it never reads a partly written file.
+     */
+    public synchronized void save() {
+        if (!isEnabled() || file.isBlank()) return;
+
+        try {
+            Path temporary = Path.of(file + "." + ProcessHandle.current().pid() + ".tmp");
+            new ObjectMapper().writeValue(temporary.toFile(), outcomes);
+            Files.move(temporary, Path.of(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info(outcomes.size() + " statement outcomes have been saved to " + file);
+        } catch (IOException e) {
+            log.warn("Statement outcomes could not be saved to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Describes how useful the cache was.
+     *
+     * @return Hit rate and execution time saved by the cache.
+     */
+    public synchronized String getReport() {
+        double hitRate = lookups == 0 ? 0 : 100.0 * hits / lookups;
+        return String.format(Locale.ROOT, "Statement cache: %d hits of %d lookups (%.1f %%), %.1f ms of execution saved",
+                hits, lookups, hitRate, savedTime / 1e6);
+    }
+}
@@ -0,0 +1,161 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits an SQL statement into tokens and computes its fingerprints in one pass.
+ * Whitespace and comments are left out, keywords and identifiers are converted to upper case,
+ * quotes are removed from identifiers which do not need them and string and number literals
+ * are replaced by parameters, so equivalent statements get the same fingerprint.
+ * Semicolons at the end of the statement are left out.
+ */
+public class StatementNormalizer {
+
+    /**
+     * Parameters of the 64-bit FNV-1a hash.
+     */
+    private static final long OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x100000001B3L;
+
+    /**
+     * Operators consisting of two characters.
+     */
+    private static final List<String> twoCharacterOperators = List.of("<=", ">=", "<>", "!=", "||", "::");
+
+    /**
+     * Pattern of a quoted identifier which means the same without the quotes.
+     */
+    private static final Pattern plainIdentifierPattern = Pattern.compile("[A-Z_][A-Z0-9_$]*");
+
+    /**
+     * Normalizes the statement.
+     *
+     * @param statement SQL statement as a string.
+     * @return Tokens, literals and fingerprints of the statement.
+     */
+    public NormalizedStatement normalize(String statement) {
+        List<String> tokens = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        long hash = OFFSET_BASIS;
+        long literalHash = OFFSET_BASIS;
+        int semicolons = 0;
+
+        int length = statement.length();
+        int i = 0;
+        while (i < length) {
+            char c = statement.charAt(i);
+            int start = i;
+            String token;
+
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if (statement.startsWith("--", i)) {
+                while (i < length && statement.charAt(i) != '\n') i++;
+                continue;
+            } else if (statement.startsWith("/*", i)) {
+                int end = statement.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            } else if (c == '\'') {
+                i = skipQuoted(statement, i, '\'');
+                String literal = statement.substring(start, i);
+                literals.add(literal);
+                literalHash = hash(literalHash, literal);
+                token = "?";
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(statement.charAt(i + 1)))) {
+                i = skipNumber(statement, i);
+                String literal = statement.substring(start, i);
+                literals.add(literal);
+                literalHash = hash(literalHash, literal);
+                token = "?";
+            } else if (c == '"') {
+                i = skipQuoted(statement, i, '"');
+                String identifier = statement.substring(start + 1, Math.max(start + 1, i - 1));
+                token = plainIdentifierPattern.matcher(identifier).matches() ? identifier : statement.substring(start, i);
+            } else if (Character.isLetter(c) || c == '_') {
+                while (i < length && (Character.isLetterOrDigit(statement.charAt(i)) || statement.charAt(i) == '_' || statement.charAt(i) == '$')) i++;
+                token = statement.substring(start, i).toUpperCase();
+            } else if (i + 1 < length && twoCharacterOperators.contains(statement.substring(i, i + 2))) {
+                i += 2;
+                token = statement.substring(start, i).equals("!=") ? "<>" : statement.substring(start, i);
+            } else {
+                i++;
+                token = String.valueOf(c);
+            }
+
+            if (token.equals(";")) {
+                semicolons++;
+                continue;
+            }
+            for (; semicolons > 0; semicolons--) {
+                tokens.add(";");
+                hash = hash(hash, ";");
+            }
+            tokens.add(token);
+            hash = hash(hash, token);
+        }
+
+        return new NormalizedStatement(tokens, literals, ResultFingerprint.mix(hash), ResultFingerprint.mix(literalHash));
+    }
+
+    /**
+     * Finds the end of a quoted literal or identifier, two quotes inside it stand for one.
+     *
+     * @param statement SQL statement as a string.
+     * @param start Position of the opening quote.
+     * @param quote The quote character.
+     * @return Position after the closing quote.
+     */
+    private int skipQuoted(String statement, int start, char quote) {
+        int i = start + 1;
+        while (i < statement.length()) {
+            if (statement.charAt(i) == quote) {
+                if (i + 1 < statement.length() && statement.charAt(i + 1) == quote) i += 2;
+                else return i + 1;
+            } else i++;
+        }
+        return i;
+    }
+
+    /**
+     * Finds the end of a number literal with an optional fraction and exponent.
+     *
+     * @param statement SQL statement as a string.
+     * @param start Position of the first character of the number.
+     * @return Position after the number.
+     */
+    private int skipNumber(String statement, int start) {
+        int i = start;
+        int length = statement.length();
+        while (i < length && (Character.isDigit(statement.charAt(i)) || statement.charAt(i) == '.')) i++;
+
+        if (i < length && (statement.charAt(i) == 'E' || statement.charAt(i) == 'e')) {
+            int exponent = i + 1;
+            if (exponent < length && (statement.charAt(exponent) == '+' || statement.charAt(exponent) == '-')) exponent++;
+            if (exponent < length && Character.isDigit(statement.charAt(exponent))) {
+                i = exponent;
+                while (i < length && Character.isDigit(statement.charAt(i))) i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Adds the token to the FNV-1a hash, followed by a separator.
+     *
+     * @param hash Current hash.
+     * @param token Token to add.
+     * @return Updated hash.
+     */
+    private static long hash(long hash, String token) {
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= PRIME;
+        }
+        hash ^= 0xFF;
+        return hash * PRIME;
+    }
+}
@@ -0,0 +1,38 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of executing a SELECT query on a database,
+ * which can be reused for the same query on a database with the same schema and data.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementOutcome {
+
+    /**
+     * Message of the error which occurred during the execution,
+     * null if the query was executed.
+     */
+    private String error;
+
+    /**
+     * Plan of the query returned by EXPLAIN, null if the plan could not be got.
+     */
+    private String plan;
+
+    /**
+     * Fingerprint of the query result, null if it was not computed.
+     */
+    private Long resultFingerprint;
+
+    /**
+     * Time of getting the outcome in nanoseconds.
+     */
+    private long executionTime;
+}
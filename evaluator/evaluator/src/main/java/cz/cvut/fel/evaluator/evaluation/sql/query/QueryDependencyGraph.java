@@ -0,0 +1,129 @@
+package cz.cvut.fel.evaluator.evaluation.sql.query;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks tables and sequences created by the executed queries
+ * and dependencies of the other queries on them,
+ * so the queries depending on a failed CREATE query can be skipped.
+ */
+@Slf4j
+public class QueryDependencyGraph {
+
+    /**
+     * Patterns to extract names of the created and referenced objects.
+     */
+    private static final Pattern createdTablePattern = QueryRegexLibrary.getCreatedTablePattern();
+    private static final Pattern createdSequencePattern = QueryRegexLibrary.getCreatedSequencePattern();
+    private static final Pattern referencedTablePattern = QueryRegexLibrary.getReferencedTablePattern();
+    private static final Pattern referencedSequencePattern = QueryRegexLibrary.getReferencedSequencePattern();
+
+    /**
+     * Tables and sequences which were successfully created.
+     */
+    private final Set<String> createdObjects = new HashSet<>();
+
+    /**
+     * Tables and sequences which could not be created.
+     */
+    private final Set<String> failedObjects = new HashSet<>();
+
+    /**
+     * The number of skipped queries for each table or sequence
+     * which could not be created.
+     */
+    @Getter
+    private final Map<String, Integer> skippedQueriesCounts = new LinkedHashMap<>();
+
+    /**
+     * Extracts the name of the table or the sequence created by the query.
+     *
+     * @param query Query as a string.
+     * @return Name of the created object,
+     *         null, if the query is not a CREATE TABLE or CREATE SEQUENCE query.
+     */
+    public static String getCreatedObject(String query) {
+        Matcher tableMatcher = createdTablePattern.matcher(query);
+        if (tableMatcher.lookingAt()) return tableMatcher.group(1);
+
+        Matcher sequenceMatcher = createdSequencePattern.matcher(query);
+        if (sequenceMatcher.lookingAt()) return sequenceMatcher.group(1);
+
+        return null;
+    }
+
+    /**
+     * Extracts names of the tables and sequences the query needs to exist.
+     *
+     * @param query Query as a string.
+     * @return Set of the referenced objects' names without the object created by the query.
+     */
+    public static Set<String> getReferencedObjects(String query) {
+        Set<String> referencedObjects = new LinkedHashSet<>();
+
+        referencedTablePattern.matcher(query).results().forEach(result -> referencedObjects.add(result.group(1)));
+        referencedSequencePattern.matcher(query).results().forEach(result -> referencedObjects.add(result.group(1)));
+
+        String createdObject = getCreatedObject(query);
+        if (createdObject != null) referencedObjects.remove(createdObject);
+
+        return referencedObjects;
+    }
+
+    /**
+     * Remembers the object created by the successfully executed query.
+     *
+     * @param query Executed query.
+     */
+    public void markExecuted(String query) {
+        String createdObject = getCreatedObject(query);
+        if (createdObject == null) return;
+
+        createdObjects.add(createdObject);
+        failedObjects.remove(createdObject);
+    }
+
+    /**
+     * Remembers the object which the failed query was supposed to create.
+     * The object is not marked as failed if it was already created by another query.
+     *
+     * @param query Query which could not be executed.
+     */
+    public void markFailed(String query) {
+        String createdObject = getCreatedObject(query);
+        if (createdObject == null || createdObjects.contains(createdObject)) return;
+
+        failedObjects.add(createdObject);
+    }
+
+    /**
+     * Finds the objects the query depends on which could not be created.
+     *
+     * @param query Query to check.
+     * @return Set of the failed objects' names, empty if the query can be executed.
+     */
+    public Set<String> getFailedPrerequisites(String query) {
+        Set<String> failedPrerequisites = getReferencedObjects(query);
+        failedPrerequisites.retainAll(failedObjects);
+        return failedPrerequisites;
+    }
+
+    /**
+     * Counts the skipped query for each of its failed prerequisites.
+     * The object created by the skipped query is marked as failed too,
+     * so the queries depending on it are skipped as well.
+     *
+     * @param query Skipped query.
+     * @param failedPrerequisites Objects the query depends on which could not be created.
+     */
+    public void markSkipped(String query, Set<String> failedPrerequisites) {
+        log.info("Query was skipped because of the failed prerequisites " + failedPrerequisites);
+        failedPrerequisites.forEach(name -> skippedQueriesCounts.merge(name, 1, Integer::sum));
+        markFailed(query);
+    }
+}
@@ -11,15 +11,15 @@ public class QueryRegexLibrary {
 
     /**
      * Regular expression for infrequently used queries:
-     * CREATE SEQUENCE, ALTER TABLE and DELETE FROM.
+     * CREATE SEQUENCE, CREATE INDEX, ALTER TABLE and DELETE FROM.
      */
     @Getter
     private static final String universalQueryRegex =
-            "\\b(CREATE\\s+SEQUENCE|ALTER\\s+TABLE|DELETE\\s+FROM)\\b(?:[^;']|(?:'[^']+')){1,1400};";
+            "\\b(CREATE\\s+SEQUENCE|CREATE\\s+(?:UNIQUE\\s+)?INDEX|ALTER\\s+TABLE|DELETE\\s+FROM)\\b(?:[^;']|(?:'[^']+')){1,1400};";
 
     /**
      * Pattern to extract queries that match a regular expression
-     * for CREATE SEQUENCE, ALTER TABLE and DELETE FROM queries.
+     * for CREATE SEQUENCE, CREATE INDEX, ALTER TABLE and DELETE FROM queries.
      */
     @Getter
     private static final Pattern universalQueryPattern = Pattern.compile(universalQueryRegex, Pattern.MULTILINE | Pattern.DOTALL);
@@ -138,4 +138,73 @@ public class QueryRegexLibrary {
      */
     @Getter
     private static final Pattern selectQueryPattern = Pattern.compile(selectQueryRegex, Pattern.MULTILINE | Pattern.DOTALL);
+
+
+    /**
+     * Regular expression for a name of a table or a sequence
+     * which can be quoted and prefixed by a schema name.
+     * The name without the schema and quotes is captured by the last group.
+     */
+    private static final String objectNameRegex = "['\"]?(?:[\\w-]+['\"]?\\.['\"]?)?([\\w-]+)['\"]?";
+
+    /**
+     * Pattern to extract the name of the table
+     * created by a CREATE TABLE query.
+     */
+    @Getter
+    private static final Pattern createdTablePattern = Pattern.compile(
+            "^\\s*CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + objectNameRegex, Pattern.MULTILINE | Pattern.DOTALL);
+
+    /**
+     * Pattern to extract the name of the sequence
+     * created by a CREATE SEQUENCE query.
+     */
+    @Getter
+    private static final Pattern createdSequencePattern = Pattern.compile(
+            "^\\s*CREATE\\s+SEQUENCE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + objectNameRegex, Pattern.MULTILINE | Pattern.DOTALL);
+
+    /**
+     * Pattern to extract the name of the index
+     * and the name of the indexed table from a CREATE INDEX query.
+     */
+    @Getter
+    private static final Pattern createdIndexPattern = Pattern.compile(
+            "^\\s*CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + objectNameRegex + "\\s+ON\\s+" + objectNameRegex,
+            Pattern.MULTILINE | Pattern.DOTALL);
+
+    /**
+     * Pattern to extract names of the tables which are referenced
+     * in a query, e.g. in FROM, JOIN, INTO or REFERENCES clauses.
+     */
+    @Getter
+    private static final Pattern referencedTablePattern = Pattern.compile(
+            "\\b(?:FROM|JOIN|INTO|UPDATE|REFERENCES|ALTER\\s+TABLE(?:\\s+IF\\s+EXISTS)?)\\s+(?:ONLY\\s+)?" + objectNameRegex,
+            Pattern.MULTILINE | Pattern.DOTALL);
+
+    /**
+     * Pattern to extract names of the sequences which are used in a query.
+     */
+    @Getter
+    private static final Pattern referencedSequencePattern = Pattern.compile(
+            "\\b(?:(?:NEXTVAL|CURRVAL|SETVAL)\\s*\\(\\s*|NEXT\\s+VALUE\\s+FOR\\s+)" + objectNameRegex,
+            Pattern.MULTILINE | Pattern.DOTALL);
+
+    /**
+     * Pattern to find functions whose result differs between executions
+     * or which change the state of the database, e.g. sequences or the current time.
+     */
+    @Getter
+    private static final Pattern volatileFunctionPattern = Pattern.compile(
+            "\\b(?:NEXTVAL|CURRVAL|SETVAL|NEXT\\s+VALUE\\s+FOR|RAND|RANDOM|RANDOM_UUID|UUID|NOW|SYSDATE|SYSTIMESTAMP" +
+                    "|CURRENT_DATE|CURRENT_TIME|CURRENT_TIMESTAMP|LOCALTIME|LOCALTIMESTAMP)\\b");
+
+    /**
+     * Pattern to find functions whose result is not given by the statements executed before,
+     * e.g. random values or the current time. Sequences start again in every evaluated database,
+     * so their values are given by the statements.
+     */
+    @Getter
+    private static final Pattern nondeterministicFunctionPattern = Pattern.compile(
+            "\\b(?:RAND|RANDOM|RANDOM_UUID|UUID|NOW|SYSDATE|SYSTIMESTAMP" +
+                    "|CURRENT_DATE|CURRENT_TIME|CURRENT_TIMESTAMP|LOCALTIME|LOCALTIMESTAMP)\\b");
 }
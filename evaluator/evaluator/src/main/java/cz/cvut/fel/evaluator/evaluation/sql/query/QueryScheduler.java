@@ -0,0 +1,198 @@
+package cz.cvut.fel.evaluator.evaluation.sql.query;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Orders SQL queries so that every query is executed
+ * after the queries creating the objects it depends on.
+ */
+@Slf4j
+public class QueryScheduler {
+
+    /**
+     * Beginnings of the queries ordered by the phases of the schedule.
+     */
+    private static final List<String> PHASE_PREFIXES = List.of("DROP TABLE", "CREATE SEQUENCE", "CREATE TABLE",
+            "ALTER TABLE", "CREATE INDEX", "CREATE UNIQUE INDEX", "INSERT", "DELETE", "SELECT");
+
+    /**
+     * Orders the queries in the phases:
+     * 1. DROP TABLE queries,
+     * 2. CREATE SEQUENCE queries,
+     * 3. CREATE TABLE queries ordered topologically by the referenced tables,
+     * 4. ALTER TABLE queries,
+     * 5. CREATE INDEX queries,
+     * 6. INSERT INTO and DELETE FROM queries in their original order, only INSERT INTO queries
+     *    between two DELETE FROM queries are ordered by the position of their table in the phase 3,
+     * 7. SELECT queries.
+     * The original order of the queries is kept inside each phase where possible.
+     * Other queries follow in their original order. Every query is scheduled
+     * as many times as it was read.
+     *
+     * @param queries List of queries in the order they were read.
+     * @return List of queries in the order they should be executed.
+     */
+    public List<String> schedule(List<String> queries) {
+        log.info("Method schedule was called");
+
+        List<String> createTableQueries = sortCreateTableQueries(filter(queries, "CREATE TABLE"), filter(queries, "ALTER TABLE"));
+
+        List<String> schedule = new ArrayList<>(filter(queries, "DROP TABLE"));
+        schedule.addAll(filter(queries, "CREATE SEQUENCE"));
+        schedule.addAll(createTableQueries);
+        schedule.addAll(filter(queries, "ALTER TABLE"));
+        schedule.addAll(filter(queries, "CREATE INDEX"));
+        schedule.addAll(filter(queries, "CREATE UNIQUE INDEX"));
+        schedule.addAll(sortDataQueries(queries.stream()
+                .filter(query -> query.startsWith("INSERT") || query.startsWith("DELETE"))
+                .collect(Collectors.toList()), createTableQueries));
+        schedule.addAll(filter(queries, "SELECT"));
+
+        queries.stream()
+                .filter(query -> PHASE_PREFIXES.stream().noneMatch(query::startsWith))
+                .forEach(schedule::add);
+        return schedule;
+    }
+
+    /**
+     * Selects queries of one type keeping their order.
+     *
+     * @param queries List of queries.
+     * @param prefix Beginning of the queries of the type.
+     * @return List of queries starting with the prefix.
+     */
+    private List<String> filter(List<String> queries, String prefix) {
+        return queries.stream().filter(query -> query.startsWith(prefix)).collect(Collectors.toList());
+    }
+
+    /**
+     * Orders CREATE TABLE queries so that each table is created
+     * after the tables it references. Tables in a reference cycle
+     * are left in their original order at the end.
+     *
+     * @param createTableQueries CREATE TABLE queries in the original order.
+     * @param alterTableQueries ALTER TABLE queries which can add references between the tables.
+     * @return Topologically ordered CREATE TABLE queries.
+     */
+    private List<String> sortCreateTableQueries(List<String> createTableQueries, List<String> alterTableQueries) {
+        Map<String, Integer> tableIndexes = new HashMap<>();
+        for (int i = 0; i < createTableQueries.size(); i++)
+            tableIndexes.putIfAbsent(QueryDependencyGraph.getCreatedObject(createTableQueries.get(i)), i);
+
+        List<Set<Integer>> prerequisites = new ArrayList<>();
+        List<Set<Integer>> dependants = new ArrayList<>();
+        for (int i = 0; i < createTableQueries.size(); i++) {
+            prerequisites.add(new HashSet<>());
+            dependants.add(new HashSet<>());
+        }
+
+        for (int i = 0; i < createTableQueries.size(); i++)
+            addDependencies(i, QueryDependencyGraph.getReferencedObjects(createTableQueries.get(i)), tableIndexes, prerequisites, dependants);
+
+        for (String alterTableQuery : alterTableQueries) {
+            Iterator<String> referencedTables = QueryDependencyGraph.getReferencedObjects(alterTableQuery).iterator();
+            if (!referencedTables.hasNext()) continue;
+
+            Integer alteredTableIndex = tableIndexes.get(referencedTables.next());
+            Set<String> otherTables = new HashSet<>();
+            referencedTables.forEachRemaining(otherTables::add);
+            if (alteredTableIndex != null) addDependencies(alteredTableIndex, otherTables, tableIndexes, prerequisites, dependants);
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < createTableQueries.size(); i++)
+            if (prerequisites.get(i).isEmpty()) ready.add(i);
+
+        List<String> sortedQueries = new ArrayList<>();
+        Set<Integer> sortedIndexes = new HashSet<>();
+        while (!ready.isEmpty()) {
+            int index = ready.poll();
+            sortedQueries.add(createTableQueries.get(index));
+            sortedIndexes.add(index);
+
+            for (int dependant : dependants.get(index)) {
+                prerequisites.get(dependant).remove(index);
+                if (prerequisites.get(dependant).isEmpty()) ready.add(dependant);
+            }
+        }
+
+        for (int i = 0; i < createTableQueries.size(); i++)
+            if (!sortedIndexes.contains(i)) sortedQueries.add(createTableQueries.get(i));
+
+        return sortedQueries;
+    }
+
+    /**
+     * Adds edges from the referenced tables to the table
+     * into the dependency graph of CREATE TABLE queries.
+     *
+     * @param index Index of the CREATE TABLE query of the dependant table.
+     * @param referencedTables Names of the referenced tables.
+     * @param tableIndexes Indexes of the CREATE TABLE queries by the table names.
+     * @param prerequisites Indexes of the queries each query depends on.
+     * @param dependants Indexes of the queries depending on each query.
+     */
+    private void addDependencies(int index, Set<String> referencedTables, Map<String, Integer> tableIndexes,
+                                 List<Set<Integer>> prerequisites, List<Set<Integer>> dependants) {
+        for (String referencedTable : referencedTables) {
+            Integer referencedIndex = tableIndexes.get(referencedTable);
+            if (referencedIndex == null || referencedIndex == index) continue;
+
+            prerequisites.get(index).add(referencedIndex);
+            dependants.get(referencedIndex).add(index);
+        }
+    }
+
+    /**
+     * Orders INSERT INTO and DELETE FROM queries, so that every DELETE FROM query
+     * deletes the rows inserted before it in the original order. The INSERT INTO queries
+     * between two DELETE FROM queries are ordered by the position of their table.
+     *
+     * @param dataQueries INSERT INTO and DELETE FROM queries in the original order.
+     * @param createTableQueries Topologically ordered CREATE TABLE queries.
+     * @return Ordered INSERT INTO and DELETE FROM queries.
+     */
+    private List<String> sortDataQueries(List<String> dataQueries, List<String> createTableQueries) {
+        List<String> sortedQueries = new ArrayList<>();
+        List<String> insertQueries = new ArrayList<>();
+
+        for (String query : dataQueries) {
+            if (query.startsWith("INSERT")) {
+                insertQueries.add(query);
+                continue;
+            }
+
+            sortedQueries.addAll(sortInsertQueries(insertQueries, createTableQueries));
+            sortedQueries.add(query);
+            insertQueries.clear();
+        }
+
+        sortedQueries.addAll(sortInsertQueries(insertQueries, createTableQueries));
+        return sortedQueries;
+    }
+
+    /**
+     * Orders INSERT INTO queries by the position of their table
+     * among the ordered CREATE TABLE queries, so that referenced rows
+     * are inserted first. Queries into the same table keep their order.
+     *
+     * @param insertQueries INSERT INTO queries in the original order.
+     * @param createTableQueries Topologically ordered CREATE TABLE queries.
+     * @return Ordered INSERT INTO queries.
+     */
+    private List<String> sortInsertQueries(List<String> insertQueries, List<String> createTableQueries) {
+        Map<String, Integer> tableRanks = new HashMap<>();
+        for (int i = 0; i < createTableQueries.size(); i++)
+            tableRanks.putIfAbsent(QueryDependencyGraph.getCreatedObject(createTableQueries.get(i)), i);
+
+        return insertQueries.stream()
+                .sorted(Comparator.comparingInt(query -> QueryDependencyGraph.getReferencedObjects(query).stream()
+                        .findFirst()
+                        .map(table -> tableRanks.getOrDefault(table, createTableQueries.size()))
+                        .orElse(createTableQueries.size())))
+                .collect(Collectors.toList());
+    }
+}
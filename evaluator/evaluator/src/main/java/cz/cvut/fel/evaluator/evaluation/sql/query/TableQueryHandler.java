@@ -1,6 +1,7 @@
 package cz.cvut.fel.evaluator.evaluation.sql.query;
 
 import cz.cvut.fel.evaluator.evaluation.model.ReferentialConstraint;
+import cz.cvut.fel.evaluator.evaluation.sql.ResultFingerprint;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -44,6 +45,54 @@ public class TableQueryHandler {
         return tableNames;
     }
 
+    /**
+     * Executes query to get views' names.
+     *
+     * @return List of views' names.
+     */
+    public List<String> getViewNames() {
+        String viewNamesQuery =
+                "SELECT TABLE_NAME\n" +
+                        "FROM INFORMATION_SCHEMA.VIEWS\n" +
+                        "WHERE TABLE_SCHEMA = 'PUBLIC'";
+
+        List<String> viewNames = jdbcTemplate.queryForList(viewNamesQuery, String.class);
+        return viewNames;
+    }
+
+    /**
+     * Executes query to get sequences' names.
+     *
+     * @return List of sequences' names.
+     */
+    public List<String> getSequenceNames() {
+        String sequenceNamesQuery =
+                "SELECT SEQUENCE_NAME\n" +
+                        "FROM INFORMATION_SCHEMA.SEQUENCES\n" +
+                        "WHERE SEQUENCE_SCHEMA = 'PUBLIC'";
+
+        List<String> sequenceNames = jdbcTemplate.queryForList(sequenceNamesQuery, String.class);
+        return sequenceNames;
+    }
+
+    /**
+     * Executes query to get the number of rows in every table.
+     *
+     * @return Map with the estimated number of rows by the table names.
+     */
+    public Map<String, Long> getRowCounts() {
+        String rowCountsQuery =
+                "SELECT TABLE_NAME, ROW_COUNT_ESTIMATE\n" +
+                        "FROM INFORMATION_SCHEMA.TABLES\n" +
+                        "WHERE TABLE_CLASS = 'org.h2.mvstore.db.MVTable'";
+
+        Map<String, Long> rowCounts = new HashMap<>();
+        jdbcTemplate.query(rowCountsQuery, resultSet -> {
+            rowCounts.put(resultSet.getString("TABLE_NAME"), resultSet.getLong("ROW_COUNT_ESTIMATE"));
+        });
+        return rowCounts;
+    }
+
     /**
      * Executes query to get table's columns.
      *
@@ -60,6 +109,60 @@ public class TableQueryHandler {
         return columns;
     }
 
+    /**
+     * Executes query to get types of the table's columns
+     * which can be filled by INSERT queries.
+     *
+     * @param name Name of the table.
+     * @return List of the columns in their order, each with the name, the data type,
+     *         the maximum length, the precision, the scale and the nullability.
+     */
+    public List<Map<String, Object>> getColumnTypes(String name) {
+        String columnTypesQuery =
+                "SELECT COLUMN_NAME, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, NUMERIC_SCALE, IS_NULLABLE\n" +
+                        "FROM INFORMATION_SCHEMA.COLUMNS\n" +
+                        "WHERE TABLE_NAME = '" + name + "' AND IS_GENERATED = 'NEVER'\n" +
+                        "ORDER BY ORDINAL_POSITION";
+
+        List<Map<String, Object>> columnTypes = jdbcTemplate.queryForList(columnTypesQuery);
+        return columnTypes;
+    }
+
+    /**
+     * Computes a fingerprint of the table's name, columns and data.
+     *
+     * @param name Name of the table.
+     * @return 64-bit fingerprint of the table.
+     */
+    public long getTableFingerprint(String name) {
+        ResultFingerprint fingerprint = new ResultFingerprint();
+        jdbcTemplate.query("SELECT * FROM \"" + name + "\"", fingerprint);
+
+        long definitionHash = ResultFingerprint.hashString(name + getColumns(name));
+        return ResultFingerprint.mix(definitionHash ^ fingerprint.getValue());
+    }
+
+    /**
+     * Computes a fingerprint of the tables with their data,
+     * the definitions of the views and the indexes.
+     *
+     * @return 64-bit fingerprint of the database.
+     */
+    public long getDatabaseFingerprint() {
+        long fingerprint = 0;
+        for (String name : getTableNames())
+            fingerprint += getTableFingerprint(name);
+
+        String objectsQuery =
+                "SELECT TABLE_NAME || ' ' || VIEW_DEFINITION FROM INFORMATION_SCHEMA.VIEWS WHERE TABLE_SCHEMA = 'PUBLIC'\n" +
+                        "UNION ALL\n" +
+                        "SELECT TABLE_NAME || ' ' || INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'";
+
+        for (String object : jdbcTemplate.queryForList(objectsQuery, String.class))
+            fingerprint += ResultFingerprint.mix(ResultFingerprint.hashString(object));
+        return fingerprint;
+    }
+
     /**
      * Executes query to get table's primary key.
      *
@@ -0,0 +1,116 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes the results of a stream of submissions, one JSON line each, and bounds the number
+ * of the submissions in flight, i.e. read but not written yet, so a fast producer
+ * does not fill the memory. With the input ordering the results finished ahead
+ * of an earlier submission wait here and count to the window too.
+ */
+@Slf4j
+public class ResultWriter {
+
+    /**
+     * Writes the results as JSON lines.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Stream the results are written to.
+     */
+    private final PrintStream output;
+
+    /**
+     * Order in which the results are written.
+     */
+    private final StreamOrdering ordering;
+
+    /**
+     * Permits for the submissions in flight.
+     */
+    private final Semaphore window;
+
+    /**
+     * Finished results waiting for the results of the earlier submissions by their sequence numbers.
+     */
+    private final Map<Long, StreamResult> waiting = new HashMap<>();
+
+    /**
+     * Sequence number of the next result in the input order.
+     */
+    private long next = 0;
+
+    /**
+     * The number of the written results.
+     */
+    private long written = 0;
+
+    public ResultWriter(PrintStream output, StreamOrdering ordering, int window) {
+        this.output = output;
+        this.ordering = ordering;
+        this.window = new Semaphore(Math.max(1, window));
+    }
+
+    /**
+     * Waits until another submission may be in flight.
+     *
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public void acquire() throws InterruptedException {
+        window.acquire();
+    }
+
+    /**
+     * Writes the result of a finished submission, or keeps it until the earlier results are written.
+     *
+     * @param result The result.
+     */
+    public synchronized void complete(StreamResult result) {
+        if (ordering == StreamOrdering.COMPLETION) {
+            write(result);
+            return;
+        }
+
+        waiting.put(result.getSequence(), result);
+        while (waiting.containsKey(next)) write(waiting.remove(next++));
+    }
+
+    /**
+     * Waits until the results are written.
+     *
+     * @param count The number of the results.
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public synchronized void await(long count) throws InterruptedException {
+        while (written < count) wait();
+    }
+
+    /**
+     * Writes one result as a line and frees its place in the window.
+     *
+     * @param result The result.
+     */
+    private void write(StreamResult result) {
+        String line;
+        try {
+            line = mapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            log.error("Result of " + result.getId() + " could not be written: " + e.getMessage());
+            line = "{\"sequence\":" + result.getSequence() + ",\"error\":\"The result could not be written\"}";
+        }
+
+        output.println(line);
+        output.flush();
+        written++;
+        window.release();
+        notifyAll();
+    }
+}
@@ -0,0 +1,175 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+import cz.cvut.fel.evaluator.evaluation.BatchProcessor;
+import cz.cvut.fel.evaluator.evaluation.BatchRun;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.output.Output;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Evaluates the submissions read from a stream and writes their results to another stream.
+ */
+@Slf4j
+@NoArgsConstructor
+@Component
+public class StreamEvaluation {
+
+    /**
+     * Reads and evaluates the submissions the same way as the solutions of a batch.
+     */
+    private BatchProcessor batchProcessor;
+
+    /**
+     * Keeps the results of all the evaluations for the statistics over years.
+     */
+    private EvaluationHistory evaluationHistory;
+
+    /**
+     * The maximum number of the submissions of a stream read but not written yet.
+     */
+    @Value("${evaluator.stream.window:16}")
+    private int window = 16;
+
+    /**
+     * Order in which the results of a stream are written.
+     */
+    @Value("${evaluator.stream.ordering:COMPLETION}")
+    private StreamOrdering ordering = StreamOrdering.COMPLETION;
+
+    @Autowired
+    public StreamEvaluation(BatchProcessor batchProcessor, EvaluationHistory evaluationHistory) {
+        this.batchProcessor = batchProcessor;
+        this.evaluationHistory = evaluationHistory;
+    }
+
+    /**
+     * Evaluates the submissions read from the input, one per line, and writes the result of every
+     * submission as one line of JSON to the output, so the evaluator can be a part of a Unix pipeline.
+     * A line is either a JSON object with the identifier and the path to the file or the inline text
+     * of the solution, or just the path. The files are read by the workers reading the files of a batch
+     * while the earlier submissions are executed one after another in the shared database.
+     * At most the window of the submissions is in flight, so the input is read only as fast
+     * as the submissions are evaluated. The results are written as the submissions finish,
+     * or in the order of the input. A record which cannot be read or evaluated gets a result
+     * with the error, the stream continues.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param input Stream with the submissions.
+     * @param output Stream the results are written to.
+     * @throws IOException When reading the input.
+     */
+    public void run(String criteriaJSON, InputStream input, PrintStream output) throws IOException {
+        log.info("Stream evaluation has been started");
+        BatchRun run = batchProcessor.start(criteriaJSON, null);
+
+        ResultWriter writer = new ResultWriter(output, ordering, window);
+        ExecutorService readers = Executors.newFixedThreadPool(Math.max(1, batchProcessor.getExtractThreads()));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        long sequence = 0;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) continue;
+                long current = sequence++;
+                writer.acquire();
+
+                StreamRecord record;
+                try {
+                    record = StreamRecord.parse(line, current);
+                } catch (IOException e) {
+                    writer.complete(StreamResult.ofError(current, null, "Invalid record: " + e.getMessage()));
+                    continue;
+                }
+
+                CompletableFuture
+                        .supplyAsync(() -> read(record), readers)
+                        .thenApplyAsync(text -> evaluate(run, current, record.getId(), text), executor)
+                        .exceptionally(e -> {
+                            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                            log.error("Submission " + record.getId() + " could not be evaluated: " + cause.getMessage());
+                            return StreamResult.ofError(current, record.getId(), cause.getClass().getSimpleName() + ": " + cause.getMessage());
+                        })
+                        .thenAccept(writer::complete);
+            }
+            writer.await(sequence);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Stream evaluation was interrupted", e);
+        } finally {
+            readers.shutdownNow();
+            executor.shutdownNow();
+        }
+        batchProcessor.finish(run);
+        log.info("Stream evaluation has finished after " + sequence + " submissions");
+    }
+
+    /**
+     * Reads the text of a submission.
+     *
+     * @param record The submission.
+     * @return Text of the solution.
+     */
+    private String read(StreamRecord record) {
+        if (record.getText() != null) return record.getText().toUpperCase();
+
+        try {
+            return batchProcessor.read(Paths.get(record.getPath()));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Evaluates a submission, unless it is identical to an earlier submission.
+     *
+     * @param run State of the stream with the outputs of the evaluated submissions.
+     * @param sequence Sequence number of the submission.
+     * @param id Identifier of the submission.
+     * @param text Text of the solution.
+     * @return The result.
+     */
+    private StreamResult evaluate(BatchRun run, long sequence, String id, String text) {
+        long start = System.nanoTime();
+        try {
+            List<String> queries = batchProcessor.parse(text);
+            Map<String, Criterion> criteria = batchProcessor.readCriteria(run.getCriteriaJSON());
+            long hash = batchProcessor.getStatementsHash(queries);
+
+            String identicalSolution = run.getSolutionsByHash().get(hash);
+            Output output;
+            if (identicalSolution != null) output = batchProcessor.getReusedOutput(run.getOutputsByHash().get(hash), identicalSolution);
+            else {
+                output = batchProcessor.evaluate(queries, criteria);
+                run.getSolutionsByHash().put(hash, id);
+                run.getOutputsByHash().put(hash, output);
+            }
+            if (output.getCriteria() != null) criteria = output.getCriteria();
+
+            evaluationHistory.record(run.getCriteriaJSON(), id, criteria, System.nanoTime() - start);
+            return StreamResult.ofCriteria(sequence, id, criteria, output.getWarnings(), identicalSolution);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+/**
+ * Order in which the results of a stream of submissions are written.
+ */
+public enum StreamOrdering {
+
+    /**
+     * Every result is written as soon as its submission is evaluated.
+     */
+    COMPLETION,
+
+    /**
+     * The results are written in the order of the submissions,
+     * a finished result waits for the results of the earlier submissions.
+     */
+    INPUT
+}
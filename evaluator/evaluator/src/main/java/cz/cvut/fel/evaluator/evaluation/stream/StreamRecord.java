@@ -0,0 +1,63 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Submission read from the standard input, one line: either a JSON object
+ * with the path to the file or the inline text of the solution, or just the path.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StreamRecord {
+
+    /**
+     * Reads the submissions from the JSON lines.
+     */
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Identifier of the submission copied to its result.
+     */
+    private String id;
+
+    /**
+     * Path to the file with the solution.
+     */
+    private String path;
+
+    /**
+     * Text of the solution with the SQL queries.
+     */
+    private String text;
+
+    /**
+     * Reads the submission from its line. A submission without an identifier is named
+     * after its file, or by its sequence number if the text is inline.
+     *
+     * @param line Line with a JSON object, or with a path.
+     * @param sequence Sequence number of the submission in the stream.
+     * @return The submission.
+     * @throws IOException When the line is not a valid record.
+     */
+    public static StreamRecord parse(String line, long sequence) throws IOException {
+        StreamRecord record = line.trim().startsWith("{")
+                ? mapper.readValue(line, StreamRecord.class)
+                : new StreamRecord(null, line.trim(), null);
+
+        if ((record.path == null) == (record.text == null))
+            throw new IOException("A record needs either a path or a text");
+        if (record.id == null)
+            record.id = record.path != null ? SolutionReader.getName(Path.of(record.path).getFileName().toString()) : String.valueOf(sequence);
+        return record;
+    }
+}
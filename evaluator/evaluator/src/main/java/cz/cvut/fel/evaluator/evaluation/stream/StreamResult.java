@@ -0,0 +1,89 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.output.CohortStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a submission of a stream, written as one line of JSON.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamResult {
+
+    /**
+     * Sequence number of the submission in the stream, starting with 0.
+     */
+    private long sequence;
+
+    /**
+     * Identifier of the submission.
+     */
+    private String id;
+
+    /**
+     * Total score and maximum score of the criteria, the manually scored criterion left out.
+     */
+    private double score;
+    private double maxScore;
+
+    /**
+     * Evaluated criteria.
+     */
+    private Map<String, Criterion> criteria;
+
+    /**
+     * Warnings about the skipped queries.
+     */
+    private List<String> warnings;
+
+    /**
+     * Name of the earlier submission with the same statements whose evaluation was reused, null if there is none.
+     */
+    private String identicalSolution;
+
+    /**
+     * Message of the exception the evaluation failed with, null if it succeeded.
+     */
+    private String error;
+
+    /**
+     * Creates the result of an evaluated submission.
+     *
+     * @param sequence Sequence number of the submission.
+     * @param id Identifier of the submission.
+     * @param criteria Evaluated criteria.
+     * @param warnings Warnings about the skipped queries.
+     * @param identicalSolution Name of the identical submission, or null.
+     * @return The result.
+     */
+    public static StreamResult ofCriteria(long sequence, String id, Map<String, Criterion> criteria,
+                                          List<String> warnings, String identicalSolution) {
+        double score = 0;
+        double maxScore = 0;
+        for (Map.Entry<String, Criterion> criterion : criteria.entrySet()) {
+            if (criterion.getKey().equals(CohortStatistics.MANUAL_CRITERION)) continue;
+            score += criterion.getValue().getScore();
+            maxScore += criterion.getValue().getMaxScore();
+        }
+        return new StreamResult(sequence, id, score, maxScore, criteria, warnings == null ? List.of() : warnings, identicalSolution, null);
+    }
+
+    /**
+     * Creates the result of a submission which could not be evaluated.
+     *
+     * @param sequence Sequence number of the submission.
+     * @param id Identifier of the submission, null if the record could not be read.
+     * @param error Message of the exception.
+     * @return The result.
+     */
+    public static StreamResult ofError(long sequence, String id, String error) {
+        return new StreamResult(sequence, id, 0, 0, null, List.of(), null, error);
+    }
+}
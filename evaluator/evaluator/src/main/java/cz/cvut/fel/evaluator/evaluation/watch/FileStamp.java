@@ -0,0 +1,24 @@
+package cz.cvut.fel.evaluator.evaluation.watch;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Size and modification time of a file in the inbox, a file whose stamp does not change is not being written.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class FileStamp {
+
+    /**
+     * Size of the file in bytes.
+     */
+    private final long size;
+
+    /**
+     * Modification time of the file in milliseconds.
+     */
+    private final long modified;
+}
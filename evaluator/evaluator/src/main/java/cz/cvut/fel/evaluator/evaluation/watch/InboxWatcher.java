@@ -0,0 +1,254 @@
+package cz.cvut.fel.evaluator.evaluation.watch;
+
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the inbox directory for new and changed solutions.
+ * A file is handed over when its size and modification time did not change for the debounce time,
+ * so a file which is still being written, e.g. uploaded or copied, is not evaluated half-written.
+ * The events only mark the files to be checked, the files themselves are compared with the stamps
+ * of the handed over files, so a file is handed over again only when its content was replaced.
+ * When the events overflow, e.g. when hundreds of files land at a deadline,
+ * the whole inbox is scanned again, so no file is missed.
+ */
+@Slf4j
+@Component
+public class InboxWatcher {
+
+    /**
+     * The longest time in milliseconds between two checks of the waiting files.
+     */
+    private static final long TICK = 100;
+
+    /**
+     * Time in milliseconds a file has to stay unchanged before it is handed over.
+     */
+    @Value("${evaluator.watch.debounce:2000}")
+    private long debounce = 2000;
+
+    /**
+     * The watched directory.
+     */
+    private Path inbox;
+
+    /**
+     * Service delivering the events of the inbox.
+     */
+    private WatchService watchService;
+
+    /**
+     * Files which are created or changed, their last stamps and the times the stamps were taken.
+     */
+    private final Map<Path, FileStamp> pending = new HashMap<>();
+    private final Map<Path, Long> changed = new HashMap<>();
+
+    /**
+     * Stamps of the files at the time they were handed over.
+     */
+    private final Map<Path, FileStamp> delivered = new HashMap<>();
+
+    /**
+     * The number of the handed over files and of the overflows of the events.
+     */
+    private int received = 0;
+    private int overflows = 0;
+
+    /**
+     * Starts watching the directory, the files already in it are handed over too.
+     *
+     * @param inbox Path to the directory.
+     * @throws IOException When the directory cannot be watched.
+     */
+    public synchronized void open(Path inbox) throws IOException {
+        close();
+        this.inbox = inbox;
+        watchService = inbox.getFileSystem().newWatchService();
+        inbox.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        pending.clear();
+        changed.clear();
+        delivered.clear();
+        received = 0;
+        overflows = 0;
+        rescan();
+    }
+
+    /**
+     * Waits for the files which were not changed for the debounce time.
+     *
+     * @param timeout The longest time to wait in milliseconds.
+     * @return Paths to the complete files sorted by name, empty if no file was complete in time.
+     * @throws IOException When the inbox cannot be read any more.
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public synchronized List<Path> poll(long timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        while (true) {
+            WatchKey key = watchService.poll(Math.max(1, Math.min(TICK, debounce)), TimeUnit.MILLISECONDS);
+            while (key != null) {
+                processEvents(key);
+                key = watchService.poll();
+            }
+
+            List<Path> ready = getReady();
+            if (!ready.isEmpty() || System.nanoTime() >= deadline) return ready;
+        }
+    }
+
+    /**
+     * Checks whether some files are still being written.
+     *
+     * @return true, if a created or changed file was not handed over yet.
+     */
+    public synchronized boolean isWaiting() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Describes the watching.
+     *
+     * @return The number of the received files and of the overflows of the events.
+     */
+    public synchronized String getReport() {
+        return received + " files were received in the inbox, " + pending.size() + " are still being written, "
+                + "the events overflowed " + overflows + " times and the inbox was scanned again";
+    }
+
+    /**
+     * Stops watching the directory.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Watching of the inbox " + inbox + " could not be stopped: " + e.getMessage());
+        }
+        watchService = null;
+    }
+
+    /**
+     * Marks the files of the events to be checked.
+     *
+     * @param key Key with the events of the inbox.
+     * @throws IOException When the inbox cannot be read any more.
+     */
+    private void processEvents(WatchKey key) throws IOException {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                log.warn("Events of the inbox " + inbox + " overflowed, the inbox is scanned again");
+                overflows++;
+                rescan();
+                continue;
+            }
+
+            Path file = inbox.resolve((Path) event.context());
+            if (event.kind() == ENTRY_DELETE) {
+                pending.remove(file);
+                changed.remove(file);
+                delivered.remove(file);
+            } else if (isSolution(file)) check(file);
+        }
+
+        if (!key.reset()) throw new IOException("The inbox " + inbox + " cannot be watched any more");
+    }
+
+    /**
+     * Marks all the solutions in the inbox whose content is not the content handed over.
+     *
+     * @throws IOException When reading the inbox.
+     */
+    private void rescan() throws IOException {
+        Set<Path> files;
+        try (Stream<Path> list = Files.list(inbox)) {
+            files = list.filter(this::isSolution).collect(Collectors.toSet());
+        }
+
+        delivered.keySet().retainAll(files);
+        for (Path file : files) check(file);
+    }
+
+    /**
+     * Compares the file with its last stamp and restarts its debounce time when it changed.
+     *
+     * @param file Path to the file.
+     */
+    private void check(Path file) {
+        FileStamp stamp = getStamp(file);
+        if (stamp == null || stamp.equals(delivered.get(file))) {
+            pending.remove(file);
+            changed.remove(file);
+            return;
+        }
+
+        if (!stamp.equals(pending.put(file, stamp))) changed.put(file, System.nanoTime());
+    }
+
+    /**
+     * Hands over the files which were not changed for the debounce time.
+     * An empty file is left waiting, it was created but not written yet.
+     *
+     * @return Paths to the complete files sorted by name.
+     */
+    private List<Path> getReady() {
+        List<Path> ready = new ArrayList<>();
+        long now = System.nanoTime();
+
+        for (Path file : new ArrayList<>(pending.keySet())) {
+            check(file);
+            FileStamp stamp = pending.get(file);
+            if (stamp == null || stamp.getSize() == 0) continue;
+            if (now - changed.get(file) < TimeUnit.MILLISECONDS.toNanos(debounce)) continue;
+
+            pending.remove(file);
+            changed.remove(file);
+            delivered.put(file, stamp);
+            ready.add(file);
+        }
+
+        received += ready.size();
+        Collections.sort(ready);
+        return ready;
+    }
+
+    /**
+     * Takes the stamp of the file.
+     *
+     * @param file Path to the file.
+     * @return The size and the modification time, null if the file does not exist.
+     */
+    private FileStamp getStamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the file is a solution to be evaluated.
+     *
+     * @param file Path to the file.
+     * @return true, if it is a PDF file, an SQL script or a text file.
+     */
+    private boolean isSolution(Path file) {
+        return Files.isRegularFile(file) && SolutionReader.isSolution(file);
+    }
+}
@@ -0,0 +1,118 @@
+package cz.cvut.fel.evaluator.evaluation.watch;
+
+import cz.cvut.fel.evaluator.evaluation.BatchProcessor;
+import cz.cvut.fel.evaluator.evaluation.BatchRun;
+import cz.cvut.fel.evaluator.evaluation.pipeline.BatchJob;
+import cz.cvut.fel.evaluator.evaluation.pipeline.Pipeline;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarPair;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Evaluates the solutions landing in the inbox directory continuously.
+ */
+@Slf4j
+@NoArgsConstructor
+@Component
+public class WatchEvaluation {
+
+    /**
+     * Passes the solutions through the stages of the pipeline and writes the reports.
+     */
+    private BatchProcessor batchProcessor;
+
+    /**
+     * Hands over the complete new and changed solutions of the watched inbox.
+     */
+    private InboxWatcher inboxWatcher;
+
+    /**
+     * Time in seconds without a new solution in the inbox after which watching ends, 0 watches until the program is stopped.
+     */
+    @Value("${evaluator.watch.idle-timeout:0}")
+    private int idleTimeout = 0;
+
+    @Autowired
+    public WatchEvaluation(BatchProcessor batchProcessor, InboxWatcher inboxWatcher) {
+        this.batchProcessor = batchProcessor;
+        this.inboxWatcher = inboxWatcher;
+    }
+
+    /**
+     * Evaluates the solutions landing in the inbox directory continuously, e.g. during a submission window.
+     * A file is taken when it did not change for the debounce time, so files still being written are not read.
+     * The complete files are evaluated together by the pipeline of a batch while new files keep landing,
+     * so a burst of files at a deadline is evaluated as one batch. A file replaced in the inbox is evaluated
+     * again, an unchanged one is not. After every batch the output HTML files, the manifest,
+     * the similarity report and the cohort summary of all the solutions evaluated so far
+     * are written to the outbox, the reports are replaced at once.
+     *
+     * @param criteriaJSON Path to JSON file containing evaluation criteria.
+     * @param inboxDirectory Path to the directory the files with the solutions land in.
+     * @param outputDirectory Directory for the output HTML files and the reports (the outbox),
+     *                        relative to the directory where the program is running.
+     *
+     * @throws IOException When the inbox cannot be watched.
+     */
+    public void run(String criteriaJSON, String inboxDirectory, String outputDirectory) throws IOException {
+        log.info("Watching of the inbox " + inboxDirectory + " has been started");
+        BatchRun run = batchProcessor.start(criteriaJSON, batchProcessor.getOutputPath(outputDirectory));
+        List<SimilarPair> similarPairs = new ArrayList<>();
+
+        inboxWatcher.open(Paths.get(inboxDirectory));
+        System.out.println("Solutions landing in " + inboxDirectory + " are evaluated, the outputs are written to " + run.getOutputPath());
+        try {
+            long idleSince = System.nanoTime();
+            while (idleTimeout <= 0 || System.nanoTime() - idleSince < idleTimeout * 1_000_000_000L) {
+                List<Path> files = inboxWatcher.poll(1000);
+                if (files.isEmpty()) {
+                    if (inboxWatcher.isWaiting()) idleSince = System.nanoTime();
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                List<BatchJob> jobs = new ArrayList<>();
+                for (Path file : files) {
+                    try {
+                        jobs.add(batchProcessor.getJob(file, outputDirectory));
+                    } catch (IOException e) {
+                        log.error("Solution " + file + " could not be read: " + e.getMessage());
+                        run.getFailed().add(file.getFileName().toString());
+                    }
+                }
+                Pipeline pipeline = batchProcessor.createPipeline(run, job -> {});
+                pipeline.run(jobs);
+                batchProcessor.finish(run);
+
+                // a file replaced in the inbox replaces its earlier scores, so the reports are written again
+                similarPairs = batchProcessor.publishReports(run, "watch");
+
+                run.getFailed().addAll(pipeline.getFailedJobs());
+                System.out.println(String.format(Locale.ROOT, "%d solutions from the inbox were evaluated in %.1f s, %d solutions in the cohort summary",
+                        jobs.size() - pipeline.getFailedJobs().size(), (System.nanoTime() - start) / 1e9, run.getResults().size()));
+                if (!pipeline.getFailedJobs().isEmpty())
+                    System.out.println("Solutions which could not be evaluated: " + String.join(", ", pipeline.getFailedJobs()));
+                idleSince = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Watching of the inbox was interrupted", e);
+        } finally {
+            inboxWatcher.close();
+        }
+
+        System.out.println(inboxWatcher.getReport());
+        batchProcessor.printReport(run, similarPairs);
+    }
+}
@@ -0,0 +1,272 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.EvaluatorApplication;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.output.Output;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+
+/**
+ * Runs the work which can crash the JVM, reading the PDF files and executing the queries,
+ * in a pool of child JVMs, so a pathological solution cannot end the whole batch.
+ * The workers are started on the first use and reused for many solutions.
+ * A worker which crashed or did not answer in time is replaced by a new one
+ * and the solution it worked on fails, the other solutions are evaluated as usual.
+ */
+@Slf4j
+@Component
+public class WorkerPool {
+
+    /**
+     * The number of the worker processes, 0 does the work in this process.
+     */
+    @Value("${evaluator.workers.processes:0}")
+    private int processes = 0;
+
+    /**
+     * The maximum heap size of a worker process.
+     */
+    @Value("${evaluator.workers.heap:512m}")
+    private String heap = "512m";
+
+    /**
+     * The longest time a worker may work on one request in seconds.
+     */
+    @Value("${evaluator.workers.timeout:120}")
+    private int timeout = 120;
+
+    /**
+     * Command starting a worker process, created on the first start.
+     */
+    private List<String> command;
+
+    /**
+     * Path to the PDF file with the reference solution loaded by the workers.
+     */
+    private String referencePDF;
+
+    /**
+     * All the running workers and the workers waiting for a request.
+     */
+    private final List<WorkerProcess> workers = new ArrayList<>();
+    private final BlockingQueue<WorkerProcess> idleWorkers = new LinkedBlockingQueue<>();
+
+    /**
+     * The number of the workers replaced after a crash.
+     */
+    private final AtomicInteger restarts = new AtomicInteger();
+
+    /**
+     * Writes the requests and reads the responses.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Checks whether the work is done in the worker processes.
+     *
+     * @return true, if at least one worker process is set.
+     */
+    public boolean isEnabled() {
+        return processes > 0;
+    }
+
+    /**
+     * Sets the reference solution the workers started later load.
+     *
+     * @param referencePDF Path to the PDF file with the reference solution.
+     */
+    public synchronized void setReferenceSolution(String referencePDF) {
+        this.referencePDF = referencePDF == null ? null : Path.of(referencePDF).toAbsolutePath().toString();
+    }
+
+    /**
+     * Reads the text of the solution in a worker process.
+     *
+     * @param file Path to the file with the solution, a file in an archive is sent as its URI.
+     * @return Text of the solution.
+     * @throws IOException When reading the file failed or the worker crashed.
+     */
+    public String extract(Path file) throws IOException {
+        String path = file.getFileSystem() == FileSystems.getDefault() ? file.toAbsolutePath().toString() : file.toUri().toString();
+        return call(new WorkerRequest(WorkerRequest.EXTRACT, path, null, null)).getText();
+    }
+
+    /**
+     * Evaluates the queries of the solution in a worker process, the database of the worker is cleared afterwards.
+     *
+     * @param queries SQL queries of the solution.
+     * @param criteria The evaluation criteria.
+     * @return Output of the evaluation.
+     * @throws IOException When the evaluation failed or the worker crashed.
+     */
+    public Output evaluate(List<String> queries, Map<String, Criterion> criteria) throws IOException {
+        return call(new WorkerRequest(WorkerRequest.EVALUATE, null, queries, criteria)).toOutput();
+    }
+
+    /**
+     * Describes the workers.
+     *
+     * @return The number of the workers and of the restarted ones.
+     */
+    public String getReport() {
+        return processes + " worker processes, " + restarts.get() + " restarted after a crash";
+    }
+
+    /**
+     * Stops all the workers.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        workers.forEach(WorkerProcess::stop);
+        workers.clear();
+        idleWorkers.clear();
+    }
+
+    /**
+     * Sends the request to an idle worker and waits for the response.
+     * A worker which crashed, did not answer in time or could not be reached is replaced,
+     * so a late response of the stopped request is never read as the response of the next one.
+     *
+     * @param request The request.
+     * @return The response.
+     * @throws IOException When the work failed or the worker crashed.
+     */
+    private WorkerResponse call(WorkerRequest request) throws IOException {
+        start();
+
+        WorkerProcess worker;
+        try {
+            worker = idleWorkers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Waiting for a worker process was interrupted", e);
+        }
+
+        String line;
+        try {
+            line = worker.call(mapper.writeValueAsString(request), timeout * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IOException failure = new IOException("Waiting for the worker process was interrupted", e);
+            worker = restart(worker, failure);
+            throw failure;
+        } catch (IOException e) {
+            worker = restart(worker, e);
+            throw e;
+        } finally {
+            idleWorkers.add(worker);
+        }
+
+        WorkerResponse response = mapper.readValue(line, WorkerResponse.class);
+        if (response.getError() != null) throw new IOException(response.getError());
+        return response;
+    }
+
+    /**
+     * Replaces a failed worker by a new one.
+     *
+     * @param worker The failed worker.
+     * @param cause The failure of the worker.
+     * @return The new worker, or the failed one if no worker could be started, then it is replaced on its next failure.
+     */
+    private synchronized WorkerProcess restart(WorkerProcess worker, IOException cause) {
+        log.error("Worker process is restarted after a failure: " + cause.getMessage());
+        restarts.incrementAndGet();
+        workers.remove(worker);
+        worker.stop();
+
+        try {
+            WorkerProcess newWorker = new WorkerProcess(command);
+            workers.add(newWorker);
+            return newWorker;
+        } catch (IOException e) {
+            log.error("Worker process could not be started: " + e.getMessage());
+            workers.add(worker);
+            return worker;
+        }
+    }
+
+    /**
+     * Starts the workers, if they are not running.
+     *
+     * @throws IOException When a worker cannot be started.
+     */
+    private synchronized void start() throws IOException {
+        if (!workers.isEmpty()) return;
+
+        if (command == null) command = getCommand();
+        log.info("Starting " + processes + " worker processes: " + String.join(" ", command));
+        for (int i = 0; i < processes; i++) {
+            WorkerProcess worker = new WorkerProcess(command);
+            workers.add(worker);
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Creates the command running this program as a worker with the same settings.
+     * The history and the file of the statement cache are left to the coordinating process.
+     *
+     * @return The command and its arguments.
+     * @throws IOException When reading the program's JAR file.
+     */
+    private List<String> getCommand() throws IOException {
+        List<String> workerCommand = new ArrayList<>();
+        workerCommand.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        workerCommand.add("-Xmx" + heap);
+        workerCommand.add("-XX:+ExitOnOutOfMemoryError");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("evaluator.") || name.startsWith("logging."))
+                .forEach(name -> workerCommand.add("-D" + name + "=" + System.getProperty(name)));
+        workerCommand.add("-Devaluator.history.file=");
+        workerCommand.add("-Devaluator.statement-cache.file=");
+        workerCommand.add("-Dspring.main.banner-mode=off");
+
+        String classPath = System.getProperty("java.class.path");
+        if (isSpringBootJar(classPath)) {
+            workerCommand.add("-jar");
+            workerCommand.add(classPath);
+        } else {
+            workerCommand.add("-cp");
+            workerCommand.add(classPath);
+            workerCommand.add(EvaluatorApplication.class.getName());
+        }
+
+        workerCommand.add("-worker");
+        if (referencePDF != null) {
+            workerCommand.add("-ref");
+            workerCommand.add(referencePDF);
+        }
+        return workerCommand;
+    }
+
+    /**
+     * Checks whether the program runs from its executable JAR file.
+     *
+     * @param classPath Class path of the program.
+     * @return true, if the class path is one JAR file with the start class of Spring Boot.
+     * @throws IOException When reading the JAR file.
+     */
+    private boolean isSpringBootJar(String classPath) throws IOException {
+        if (classPath.contains(File.pathSeparator) || !classPath.endsWith(".jar")) return false;
+
+        try (JarFile jar = new JarFile(classPath)) {
+            return jar.getManifest() != null && jar.getManifest().getMainAttributes().getValue("Start-Class") != null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A child JVM doing the work of the coordinating process, one request at a time.
+ * The lines of its output are read by a separate thread, so a worker which does not answer
+ * in time can be stopped, and the end of the output tells that the worker crashed.
+ */
+@Slf4j
+public class WorkerProcess {
+
+    /**
+     * The running process.
+     */
+    private final Process process;
+
+    /**
+     * Input of the process the requests are written to.
+     */
+    private final BufferedWriter writer;
+
+    /**
+     * Responses of the process, empty when its output ended.
+     */
+    private final BlockingQueue<Optional<String>> responses = new LinkedBlockingQueue<>();
+
+    public WorkerProcess(List<String> command) throws IOException {
+        process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+        Thread reader = new Thread(this::readResponses, "worker-" + process.pid());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Sends the request and waits for the response.
+     *
+     * @param request One line of JSON.
+     * @param timeout The longest time to wait in milliseconds.
+     * @return The response, one line of JSON.
+     * @throws IOException When the process crashed or did not answer in time, then the process is stopped
+     *                     and this method returns after it ended.
+     * @throws InterruptedException When the waiting is interrupted.
+     */
+    public String call(String request, long timeout) throws IOException, InterruptedException {
+        try {
+            writer.write(request);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new IOException("Worker process " + process.pid() + " does not accept requests: " + e.getMessage(), e);
+        }
+
+        Optional<String> response = responses.poll(timeout, TimeUnit.MILLISECONDS);
+        if (response == null) {
+            process.destroyForcibly().waitFor();
+            throw new IOException("Worker process " + process.pid() + " did not answer in " + timeout + " ms and was stopped");
+        }
+        if (response.isEmpty())
+            throw new IOException("Worker process " + process.pid() + " crashed with the exit code " + process.waitFor());
+        return response.get();
+    }
+
+    /**
+     * Checks whether the process is running.
+     *
+     * @return true, if the process has not ended.
+     */
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Ends the input of the process, so it ends by itself, and stops it if it does not.
+     */
+    public void stop() {
+        try {
+            writer.close();
+            if (!process.waitFor(2, TimeUnit.SECONDS)) process.destroyForcibly();
+        } catch (IOException e) {
+            process.destroyForcibly();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the output of the process until it ends.
+     * The lines which are not responses, e.g. the log, are logged.
+     */
+    private void readResponses() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(WorkerServer.RESPONSE_PREFIX))
+                    responses.add(Optional.of(line.substring(WorkerServer.RESPONSE_PREFIX.length())));
+                else log.debug("Worker process " + process.pid() + ": " + line);
+            }
+        } catch (IOException e) {
+            log.warn("Output of the worker process " + process.pid() + " could not be read: " + e.getMessage());
+        } finally {
+            responses.add(Optional.empty());
+        }
+    }
+}
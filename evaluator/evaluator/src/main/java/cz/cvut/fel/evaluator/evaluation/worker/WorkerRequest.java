@@ -0,0 +1,48 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Work sent to a worker process, one line of JSON.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerRequest {
+
+    /**
+     * Reads the text of a solution's file.
+     */
+    public static final String EXTRACT = "extract";
+
+    /**
+     * Evaluates the queries of a solution.
+     */
+    public static final String EVALUATE = "evaluate";
+
+    /**
+     * Type of the work, EXTRACT or EVALUATE.
+     */
+    private String type;
+
+    /**
+     * Absolute path to the file with the solution.
+     */
+    private String path;
+
+    /**
+     * SQL queries of the solution.
+     */
+    private List<String> queries;
+
+    /**
+     * The evaluation criteria.
+     */
+    private Map<String, Criterion> criteria;
+}
@@ -0,0 +1,94 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.output.Output;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the work of a worker process, one line of JSON.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerResponse {
+
+    /**
+     * Text of the solution's file.
+     */
+    private String text;
+
+    /**
+     * Evaluated criteria.
+     */
+    private Map<String, Criterion> criteria;
+
+    /**
+     * Exceptions that occurred during the execution of queries.
+     */
+    private List<String> logs;
+
+    /**
+     * Warnings about the skipped queries.
+     */
+    private List<String> warnings;
+
+    /**
+     * Statistics on read and executed SQL queries.
+     */
+    private List<String> statistics;
+
+    /**
+     * Executed SELECT queries with the summaries of their execution plans.
+     */
+    private List<String> queryPlans;
+
+    /**
+     * Message of the exception the work failed with, null if it succeeded.
+     */
+    private String error;
+
+    /**
+     * Creates the response with the text of a file.
+     *
+     * @param text Text of the solution's file.
+     * @return The response.
+     */
+    public static WorkerResponse ofText(String text) {
+        return new WorkerResponse(text, null, null, null, null, null, null);
+    }
+
+    /**
+     * Creates the response with the output of an evaluation.
+     *
+     * @param output Output of the evaluation.
+     * @return The response.
+     */
+    public static WorkerResponse ofOutput(Output output) {
+        return new WorkerResponse(null, output.getCriteria(), output.getLogs(), output.getWarnings(),
+                output.getStatistics(), output.getQueryPlans(), null);
+    }
+
+    /**
+     * Creates the response of a failed work.
+     *
+     * @param error Message of the exception.
+     * @return The response.
+     */
+    public static WorkerResponse ofError(String error) {
+        return new WorkerResponse(null, null, null, null, null, null, error);
+    }
+
+    /**
+     * Converts the response to the output of the evaluation.
+     *
+     * @return Output of the evaluation.
+     */
+    public Output toOutput() {
+        return new Output(criteria, logs, warnings, statistics, queryPlans);
+    }
+}
@@ -0,0 +1,120 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Serves the work of the coordinating process in a worker process.
+ * The requests are read from the standard input and every response is written
+ * to the standard output as one line starting with RESPONSE_PREFIX, so the lines
+ * of the log written to the same output are told apart. The worker ends at the end of the input.
+ */
+@Slf4j
+@Component
+public class WorkerServer {
+
+    /**
+     * Start of a line with a response.
+     */
+    public static final String RESPONSE_PREFIX = "@worker-response ";
+
+    /**
+     * Reads the text of students' solutions.
+     */
+    private SolutionReader solutionReader;
+
+    /**
+     * Evaluates the queries of the solutions.
+     */
+    private SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    /**
+     * Reads the requests and writes the responses.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    public WorkerServer(SolutionReader solutionReader, SQLSolutionEvaluator sqlSolutionEvaluator) {
+        this.solutionReader = solutionReader;
+        this.sqlSolutionEvaluator = sqlSolutionEvaluator;
+    }
+
+    /**
+     * Answers the requests until the end of the input.
+     *
+     * @param input Stream of the requests.
+     * @param output Stream for the responses.
+     * @throws IOException When reading the input.
+     */
+    public void serve(InputStream input, PrintStream output) throws IOException {
+        log.info("Worker process has been started");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+
+            WorkerResponse response;
+            try {
+                response = handle(mapper.readValue(line, WorkerRequest.class));
+            } catch (Exception e) {
+                response = WorkerResponse.ofError(e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+
+            synchronized (output) {
+                output.println(RESPONSE_PREFIX + mapper.writeValueAsString(response));
+                output.flush();
+            }
+        }
+    }
+
+    /**
+     * Does the requested work.
+     *
+     * @param request The request.
+     * @return The result of the work.
+     * @throws IOException When reading the file.
+     */
+    private WorkerResponse handle(WorkerRequest request) throws IOException {
+        if (WorkerRequest.EXTRACT.equals(request.getType()))
+            return WorkerResponse.ofText(read(request.getPath()));
+
+        if (WorkerRequest.EVALUATE.equals(request.getType())) {
+            try {
+                return WorkerResponse.ofOutput(sqlSolutionEvaluator.evaluate(request.getCriteria(), request.getQueries()));
+            } finally {
+                sqlSolutionEvaluator.clearDatabase();
+            }
+        }
+        throw new IllegalArgumentException("Unknown request " + request.getType());
+    }
+
+    /**
+     * Reads the text of the solution, the archive of a file given by its URI is opened
+     * for this file only and closed afterwards.
+     *
+     * @param path Path to the file, or the URI of a file in an archive.
+     * @return Text of the solution.
+     * @throws IOException When reading the file or opening the archive.
+     */
+    private String read(String path) throws IOException {
+        if (!path.startsWith("jar:")) return solutionReader.read(Path.of(path));
+
+        URI uri = URI.create(path);
+        try (FileSystem archive = FileSystems.newFileSystem(uri, Map.of())) {
+            return solutionReader.read(archive.provider().getPath(uri));
+        }
+    }
+}
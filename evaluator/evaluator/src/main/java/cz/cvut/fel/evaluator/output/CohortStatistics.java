@@ -0,0 +1,142 @@
+package cz.cvut.fel.evaluator.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.utils.FileUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aggregates the scores of the evaluated solutions of a batch into cohort statistics:
+ * the mean, the histogram and the quantiles of every criterion and of the total score.
+ * The statistics are updated as each solution is evaluated, so the memory does not depend
+ * on the size of the cohort.
+ */
+@Slf4j
+public class CohortStatistics {
+
+    /**
+     * Name of the statistics of the total score.
+     */
+    public static final String TOTAL_SCORE = "TOTAL SCORE";
+
+    /**
+     * Criterion which is scored manually and is not part of the total score.
+     */
+    public static final String MANUAL_CRITERION = "corresponding to the relational model";
+
+    /**
+     * Characters drawing the bars of the histogram from the lowest.
+     */
+    private static final String BARS = "▁▂▃▄▅▆▇█";
+
+    /**
+     * Statistics by the names of the criteria, the total score last.
+     */
+    private final Map<String, CriterionStatistics> statistics = new LinkedHashMap<>();
+
+    /**
+     * Removes the statistics before another batch is evaluated.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Adds the scores of an evaluated solution.
+     *
+     * @param criteria Evaluated criteria of the solution.
+     */
+    public void add(Map<String, Criterion> criteria) {
+        double totalScore = 0;
+        double totalMaxScore = 0;
+
+        for (Map.Entry<String, Criterion> criterion : criteria.entrySet()) {
+            if (criterion.getKey().equals(MANUAL_CRITERION)) continue;
+
+            statistics.computeIfAbsent(criterion.getKey(), key -> new CriterionStatistics(criterion.getValue().getMaxScore()))
+                    .add(criterion.getValue().getScore());
+            totalScore += criterion.getValue().getScore();
+            totalMaxScore += criterion.getValue().getMaxScore();
+        }
+
+        double maxScore = totalMaxScore;
+        CriterionStatistics total = statistics.remove(TOTAL_SCORE);
+        statistics.put(TOTAL_SCORE, total == null ? new CriterionStatistics(maxScore) : total);
+        statistics.get(TOTAL_SCORE).add(totalScore);
+    }
+
+    /**
+     * Gets the statistics of the criteria.
+     *
+     * @return Statistics by the names of the criteria, the total score last.
+     */
+    public Map<String, CriterionStatistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Writes the summary of the cohort as an HTML page and as JSON.
+     *
+     * @param summaryHTML Path to the HTML summary.
+     * @param summaryJSON Path to the JSON summary.
+     * @throws IOException When writing a file.
+     */
+    public void writeSummary(Path summaryHTML, Path summaryJSON) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        statistics.forEach((name, criterionStatistics) -> summary.put(name, criterionStatistics.getSummary()));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(summaryJSON.toFile(), summary);
+
+        String htmlString = FileUtils.readString("/output/cohort-template.html", this.getClass());
+        long count = statistics.containsKey(TOTAL_SCORE) ? statistics.get(TOTAL_SCORE).getCount() : 0;
+        htmlString = htmlString.replace("$count", String.valueOf(count));
+        htmlString = htmlString.replace("$criteria", getRows());
+        Files.writeString(summaryHTML, htmlString);
+
+        log.info("Cohort summary of " + count + " solutions has been written to " + summaryHTML);
+    }
+
+    /**
+     * Generates the rows of the summary table.
+     *
+     * @return Rows of the table as HTML.
+     */
+    private String getRows() {
+        StringBuilder rows = new StringBuilder();
+        statistics.forEach((name, criterionStatistics) -> {
+            QuantileSketch sketch = criterionStatistics.getSketch();
+            rows.append(String.format(Locale.ROOT,
+                    "\n<tr%s>\n<th>%s</th>\n<th>%s</th>\n<th>%.2f</th>\n<th>%.2f</th>\n<th>%.1f</th>\n<th>%.1f</th>\n"
+                            + "<th>%.1f</th>\n<th>%.1f</th>\n<th>%.1f</th>\n<th class=\"histogram\">%s</th>\n</tr>",
+                    name.equals(TOTAL_SCORE) ? " class=\"total\"" : "", name,
+                    Math.round(criterionStatistics.getMaxScore() * 10.0) / 10.0,
+                    criterionStatistics.getMean(), criterionStatistics.getStandardDeviation(),
+                    sketch.getQuantile(0), sketch.getQuantile(0.25), sketch.getQuantile(0.5),
+                    sketch.getQuantile(0.75), sketch.getQuantile(1), getHistogramBars(criterionStatistics.getHistogram())));
+        });
+        return rows.toString();
+    }
+
+    /**
+     * Draws the histogram as a line of bars.
+     *
+     * @param histogram Numbers of the scores in the bins.
+     * @return One bar for every bin, the highest for the fullest bin.
+     */
+    private String getHistogramBars(long[] histogram) {
+        long highest = 1;
+        for (long bin : histogram) highest = Math.max(highest, bin);
+
+        StringBuilder bars = new StringBuilder();
+        for (long bin : histogram)
+            bars.append(bin == 0 ? "&nbsp;" : String.valueOf(BARS.charAt((int) ((BARS.length() - 1) * bin / highest))));
+        return bars.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package cz.cvut.fel.evaluator.output;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running statistics of the scores of one criterion over a cohort,
+ * updated with every evaluated solution in constant memory.
+ */
+@Getter
+public class CriterionStatistics {
+
+    /**
+     * The number of the bins of the histogram.
+     */
+    public static final int BINS = 10;
+
+    /**
+     * Quantiles written to the summary.
+     */
+    private static final double[] quantiles = {0.1, 0.25, 0.5, 0.75, 0.9};
+
+    /**
+     * The maximum score of the criterion, the histogram covers the scores from 0 to it.
+     */
+    private double maxScore;
+
+    /**
+     * The number of the scores.
+     */
+    private long count = 0;
+
+    /**
+     * Running mean of the scores and the sum of the squared differences from it (Welford).
+     */
+    private double mean = 0;
+    private double squaredDifferences = 0;
+
+    /**
+     * Numbers of the scores in the bins of equal width between 0 and maxScore.
+     */
+    private final long[] histogram = new long[BINS];
+
+    /**
+     * Sketch of the distribution of the scores.
+     */
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    public CriterionStatistics(double maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    /**
+     * Adds a score of a solution.
+     *
+     * @param score Score of the criterion.
+     */
+    public void add(double score) {
+        count++;
+        double difference = score - mean;
+        mean += difference / count;
+        squaredDifferences += difference * (score - mean);
+
+        int bin = maxScore <= 0 ? 0 : (int) (score / maxScore * BINS);
+        histogram[Math.max(0, Math.min(BINS - 1, bin))]++;
+
+        sketch.add(score);
+    }
+
+    /**
+     * Gets the standard deviation of the scores.
+     *
+     * @return Population standard deviation, 0 for less than two scores.
+     */
+    public double getStandardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(squaredDifferences / count);
+    }
+
+    /**
+     * Summarizes the statistics for the JSON output.
+     *
+     * @return Values of the statistics by their names.
+     */
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("maxScore", maxScore);
+        summary.put("count", count);
+        summary.put("mean", mean);
+        summary.put("standardDeviation", getStandardDeviation());
+
+        Map<String, Double> quantileValues = new LinkedHashMap<>();
+        quantileValues.put("min", sketch.getQuantile(0));
+        for (double quantile : quantiles) quantileValues.put("p" + Math.round(quantile * 100), sketch.getQuantile(quantile));
+        quantileValues.put("max", sketch.getQuantile(1));
+        summary.put("quantiles", quantileValues);
+
+        summary.put("histogram", histogram.clone());
+        return summary;
+    }
+}
@@ -29,12 +29,23 @@ public class HTMLOutput {
      */
     private List<String> logs = new ArrayList<>();
 
+    /**
+     * Warnings about the skipped queries.
+     */
+    private List<String> warnings = new ArrayList<>();
+
     /**
      * Statistics about reading and executing queries
      * for each query type.
      */
     private List<String> statistics = new ArrayList<>();
 
+    /**
+     * The executed SELECT queries
+     * with the summaries of their execution plans.
+     */
+    private List<String> queryPlans = new ArrayList<>();
+
     /**
      * Reads a template for the output
      * and adds evaluation information to it.
@@ -43,10 +54,12 @@ public class HTMLOutput {
      * @param outputHTML Name of the output HTML file.
      * @throws IOException While reading a file or writing to a file.
      */
-    public void generateEvaluationResult(Output output, String outputHTML) throws IOException {
+    public synchronized void generateEvaluationResult(Output output, String outputHTML) throws IOException {
         this.criteria = output.getCriteria();
         this.logs = output.getLogs();
+        this.warnings = output.getWarnings();
         this.statistics = output.getStatistics();
+        this.queryPlans = output.getQueryPlans();
 
         String htmlString = FileUtils.readString("/output/template.html", this.getClass());
 
@@ -141,7 +154,8 @@ public class HTMLOutput {
     }
 
     /**
-     * Adds exceptions captured while executing queries.
+     * Adds exceptions captured while executing queries
+     * and warnings about the skipped queries.
      *
      * @param htmlString Output template.
      * @return Updated output.
@@ -153,6 +167,10 @@ public class HTMLOutput {
             htmlLogs += "\n<tr>\n<th class=\"error\">ERROR</th>\n<th>" + log.replaceAll("\\r?\\n|\\r", "<br>") + "</th>\n</tr>";
         }
 
+        for (String warning : warnings) {
+            htmlLogs += "\n<tr>\n<th class=\"warning\">SKIPPED</th>\n<th>" + warning.replaceAll("\\r?\\n|\\r", "<br>") + "</th>\n</tr>";
+        }
+
         htmlString = htmlString.replace("$logs", htmlLogs);
         return htmlString;
     }
@@ -175,9 +193,55 @@ public class HTMLOutput {
         htmlString = addRequirement(htmlString, "Sorting and pagination usage", "sorting and pagination", "$sorting");
         htmlString = addRequirement(htmlString, "Set operations usage", "set operations", "$setOperations");
         htmlString = addRequirement(htmlString, "Inner SELECT usage", "inner SELECT", "$innerSelect");
+        htmlString = addReferenceResults(htmlString);
+        htmlString = addIndexes(htmlString);
+        htmlString = addQueryPlans(htmlString);
         return htmlString;
     }
 
+    /**
+     * Adds CREATE INDEX statements which speed up a SELECT statement.
+     * The criterion is optional, so it may be missing in the criteria.
+     *
+     * @param htmlString Output template.
+     * @return Updated output.
+     */
+    private String addIndexes(String htmlString) {
+        String key = "using indexes which speed up queries";
+        if (!criteria.containsKey(key))
+            return htmlString.replace("$indexes", "Index usage was not evaluated");
+        return addRequirement(htmlString, "Index speeding up a query", key, "$indexes");
+    }
+
+    /**
+     * Adds the executed SELECT statements with the summaries of their plans.
+     *
+     * @param htmlString Output template.
+     * @return Updated output.
+     */
+    private String addQueryPlans(String htmlString) {
+        String htmlQueryPlans = "No SELECT query was executed";
+        String description = String.join("", queryPlans);
+        if (!description.isEmpty())
+            htmlQueryPlans = StringUtils.chop(StringUtils.chop(StringUtils.chop(StringUtils.chop(description))));
+        htmlString = htmlString.replace("$queryPlans", htmlQueryPlans);
+        return htmlString;
+    }
+
+    /**
+     * Adds statements whose results match the reference solution.
+     * The criterion is optional, so it may be missing in the criteria.
+     *
+     * @param htmlString Output template.
+     * @return Updated output.
+     */
+    private String addReferenceResults(String htmlString) {
+        String key = "results matching the reference solution";
+        if (!criteria.containsKey(key))
+            return htmlString.replace("$referenceResults", "Results were not compared to a reference solution");
+        return addRequirement(htmlString, "Result matching the reference solution", key, "$referenceResults");
+    }
+
     /**
      * Adds relational model.
      *
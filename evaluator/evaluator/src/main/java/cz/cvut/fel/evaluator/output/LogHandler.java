@@ -15,7 +15,19 @@ public class LogHandler {
     @Getter
     private final List<String> errorLogs = new ArrayList<>();
 
+    @Getter
+    private final List<String> warningLogs = new ArrayList<>();
+
     public void addErrorLog(String message) {
         errorLogs.add(message);
     }
+
+    public void addWarningLog(String message) {
+        warningLogs.add(message);
+    }
+
+    public void clear() {
+        errorLogs.clear();
+        warningLogs.clear();
+    }
 }
@@ -4,6 +4,7 @@ import cz.cvut.fel.evaluator.evaluation.Criterion;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -31,9 +32,32 @@ public class Output {
      */
     private List<String> statistics;
 
+    /**
+     * A list of warnings about the queries
+     * that were skipped during the execution.
+     */
+    private List<String> warnings = new ArrayList<>();
+
+    /**
+     * The executed SELECT queries
+     * with the summaries of their execution plans.
+     */
+    private List<String> queryPlans = new ArrayList<>();
+
     public Output(Map<String, Criterion> criteria, List<String> logs, List<String> statistics) {
         this.criteria = criteria;
         this.logs = logs;
         this.statistics = statistics;
     }
+
+    public Output(Map<String, Criterion> criteria, List<String> logs, List<String> warnings, List<String> statistics) {
+        this(criteria, logs, statistics);
+        this.warnings = warnings;
+    }
+
+    public Output(Map<String, Criterion> criteria, List<String> logs, List<String> warnings, List<String> statistics,
+                  List<String> queryPlans) {
+        this(criteria, logs, warnings, statistics);
+        this.queryPlans = queryPlans;
+    }
 }
@@ -0,0 +1,196 @@
+package cz.cvut.fel.evaluator.output;
+
+import java.util.Arrays;
+
+/**
+ * Estimates quantiles of a stream of values in constant memory (merging t-digest).
+ * The values are summarized by centroids, i.e. means with weights, which are small
+ * near the ends of the distribution and large in the middle, so the extreme quantiles
+ * are estimated precisely. New values are buffered and merged into the centroids
+ * when the buffer is full.
+ */
+public class QuantileSketch {
+
+    /**
+     * The number of values buffered before they are merged into the centroids.
+     */
+    private static final int BUFFER_SIZE = 500;
+
+    /**
+     * Compression of the digest, the number of the centroids is at most about a half of it.
+     */
+    private final double compression;
+
+    /**
+     * Means and weights of the centroids sorted by the means.
+     */
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+
+    /**
+     * Values not merged into the centroids yet.
+     */
+    private final double[] buffer = new double[BUFFER_SIZE];
+    private int buffered = 0;
+
+    /**
+     * The number of the added values.
+     */
+    private long count = 0;
+
+    /**
+     * The least and the greatest added value.
+     */
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(100);
+    }
+
+    public QuantileSketch(double compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value Value to add.
+     */
+    public void add(double value) {
+        buffer[buffered++] = value;
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+
+        if (buffered == BUFFER_SIZE) merge();
+    }
+
+    /**
+     * Gets the number of the added values.
+     *
+     * @return The number of the values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of the centroids summarizing the values.
+     *
+     * @return The number of the centroids.
+     */
+    public int getCentroidCount() {
+        merge();
+        return means.length;
+    }
+
+    /**
+     * Estimates the quantile of the added values.
+     *
+     * @param quantile Quantile between 0 and 1.
+     * @return Estimated value of the quantile, NaN if no value was added.
+     */
+    public double getQuantile(double quantile) {
+        merge();
+        if (count == 0) return Double.NaN;
+        if (means.length == 1) return means[0];
+
+        double position = quantile * count;
+        if (position <= weights[0] / 2) return interpolate(min, means[0], position / (weights[0] / 2));
+
+        double cumulative = 0;
+        for (int i = 0; i < means.length - 1; i++) {
+            double left = cumulative + weights[i] / 2;
+            double right = cumulative + weights[i] + weights[i + 1] / 2;
+            if (position <= right) return interpolate(means[i], means[i + 1], (position - left) / (right - left));
+            cumulative += weights[i];
+        }
+
+        int last = means.length - 1;
+        double left = count - weights[last] / 2;
+        return interpolate(means[last], max, Math.min(1, (position - left) / (weights[last] / 2)));
+    }
+
+    /**
+     * Merges the buffered values into the centroids. Neighbouring centroids are joined
+     * while the joined centroid spans at most one unit of the scale function
+     * k(q) = compression / (2 pi) * asin(2q - 1).
+     */
+    private void merge() {
+        if (buffered == 0) return;
+
+        int size = means.length + buffered;
+        double[] allMeans = Arrays.copyOf(means, size);
+        double[] allWeights = Arrays.copyOf(weights, size);
+        for (int i = 0; i < buffered; i++) {
+            allMeans[means.length + i] = buffer[i];
+            allWeights[means.length + i] = 1;
+        }
+        buffered = 0;
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (first, second) -> Double.compare(allMeans[first], allMeans[second]));
+
+        double[] mergedMeans = new double[size];
+        double[] mergedWeights = new double[size];
+        int merged = 0;
+        double weightSoFar = 0;
+        double limit = count * getQuantileOfScale(getScale(0) + 1);
+
+        mergedMeans[0] = allMeans[order[0]];
+        mergedWeights[0] = allWeights[order[0]];
+        for (int i = 1; i < size; i++) {
+            double mean = allMeans[order[i]];
+            double weight = allWeights[order[i]];
+
+            if (weightSoFar + mergedWeights[merged] + weight <= limit) {
+                mergedWeights[merged] += weight;
+                mergedMeans[merged] += (mean - mergedMeans[merged]) * weight / mergedWeights[merged];
+            } else {
+                weightSoFar += mergedWeights[merged];
+                limit = count * getQuantileOfScale(getScale(weightSoFar / count) + 1);
+                merged++;
+                mergedMeans[merged] = mean;
+                mergedWeights[merged] = weight;
+            }
+        }
+
+        means = Arrays.copyOf(mergedMeans, merged + 1);
+        weights = Arrays.copyOf(mergedWeights, merged + 1);
+    }
+
+    /**
+     * Scale function mapping a quantile to the index of a centroid.
+     *
+     * @param quantile Quantile between 0 and 1.
+     * @return Value of the scale function.
+     */
+    private double getScale(double quantile) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, quantile) - 1);
+    }
+
+    /**
+     * Inverse of the scale function.
+     *
+     * @param scale Value of the scale function.
+     * @return Quantile between 0 and 1.
+     */
+    private double getQuantileOfScale(double scale) {
+        if (scale >= compression / 4) return 1;
+        return (Math.sin(scale * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    /**
+     * Interpolates linearly between two values.
+     *
+     * @param from Value at 0.
+     * @param to Value at 1.
+     * @param ratio Position between 0 and 1.
+     * @return Interpolated value.
+     */
+    private double interpolate(double from, double to, double ratio) {
+        return from + (to - from) * Math.max(0, ratio);
+    }
+}
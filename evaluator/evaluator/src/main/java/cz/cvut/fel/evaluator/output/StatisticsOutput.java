@@ -24,6 +24,18 @@ public class StatisticsOutput {
     private int executedInsertQueriesCount = 0;
     private int executedSelectQueriesCount = 0;
 
+    /**
+     * Sets all the statistics to zero before another solution is evaluated.
+     */
+    public void reset() {
+        createTableQueriesCount = 0;
+        insertQueriesCount = 0;
+        selectQueriesCount = 0;
+        executedCreateTableQueriesCount = 0;
+        executedInsertQueriesCount = 0;
+        executedSelectQueriesCount = 0;
+    }
+
     /**
      * Generates statistics about reading and executing queries
      * for each query type.
@@ -3,6 +3,8 @@ package cz.cvut.fel.evaluator.utils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.cli.*;
 
+import java.util.List;
+
 /**
  * Contains methods necessary for working with the command line.
  */
@@ -18,6 +20,17 @@ public class CLIUtils {
      * -rm  Contains path to the file with the relational model.
      * -sql Contains path to the file with the SQL queries.
      * -o   Contains name of the output HTML file.
+     * -ref Contains path to the file with the reference solution.
+     * -batch Contains path to the directory or the ZIP archive with the files with the SQL queries,
+     *        which is evaluated instead of one file.
+     * -watch Contains path to the inbox directory whose new and changed files with the SQL queries
+     *        are evaluated continuously instead of one file.
+     * -stream Reads the submissions from the standard input, one path or JSON record per line,
+     *         and writes the result of every submission as one line of JSON to the standard output.
+     * -history Prints the statistics of the stored evaluations grouped by the columns
+     *          separated by commas (year, task, criterion, student) instead of evaluating.
+     * -shard Evaluates the batch together with other processes sharing the input and the output directory.
+     * -worker Runs as a worker process of a batch, reading the requests from the standard input.
      *
      * @param args Arguments sent to the program on its startup.
      * @return Command line containing parsed arguments.
@@ -28,23 +41,37 @@ public class CLIUtils {
         Options options = new Options();
 
         Option criteriaJSON = new Option("c", true, "Criteria configuration");
-        criteriaJSON.setRequired(true);
         options.addOption(criteriaJSON);
 
         Option rmPDF = new Option("rm", true, "Relational model");
         options.addOption(rmPDF);
 
         Option sqlPDF = new Option("sql", true, "SQL queries");
-        sqlPDF.setRequired(true);
-        options.addOption(sqlPDF);
+        Option batchDirectory = new Option("batch", true, "Directory with SQL queries of several students");
+        OptionGroup solutions = new OptionGroup();
+        solutions.addOption(sqlPDF);
+        solutions.addOption(batchDirectory);
+        solutions.addOption(new Option("watch", true, "Inbox directory with SQL queries evaluated as they land"));
+        solutions.addOption(new Option("stream", false, "Submissions from the standard input, results to the standard output"));
+        solutions.addOption(new Option("worker", false, "Worker process of a batch"));
+        solutions.addOption(Option.builder("history").hasArg().optionalArg(true).desc("Statistics of the stored evaluations").build());
+        solutions.setRequired(true);
+        options.addOptionGroup(solutions);
+
+        Option shard = new Option("shard", false, "Batch shared with other processes");
+        options.addOption(shard);
 
         Option outputHTML = new Option("o", true, "Output HTML");
         options.addOption(outputHTML);
 
+        Option referencePDF = new Option("ref", true, "Reference solution");
+        options.addOption(referencePDF);
+
         CommandLineParser parser = new DefaultParser();
         CommandLine cmd;
 
         cmd = parser.parse(options, args);
+        if (!cmd.hasOption("history") && !cmd.hasOption("worker") && !cmd.hasOption("c")) throw new MissingOptionException(List.of("c"));
         return cmd;
     }
 }
@@ -5,6 +5,13 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Collectors;
 
 /**
@@ -13,6 +20,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FileUtils {
 
+    /**
+     * The least size of a text file in bytes which is mapped into memory instead of read into a buffer.
+     */
+    private static final long MAPPED_SIZE = 64 * 1024;
+
     /**
      * Gets information about the directory where the program is running.
      *
@@ -53,15 +65,63 @@ public class FileUtils {
      * @throws IOException When reading a file.
      */
     public static String readPDF(String path) throws IOException {
-        log.info("Method loadPDF was called with the path " + path);
+        log.info("Method readPDF was called with the path " + path);
+
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(Path.of(path)))) {
+            return readPDF(input);
+        }
+    }
+
+    /**
+     * Reads text from a PDF file given by its content, e.g. an entry of an archive,
+     * without writing the file to the disk.
+     *
+     * @param input Stream with the content of the PDF file.
+     * @return Text read from the file.
+     * @throws IOException When reading the stream.
+     */
+    public static String readPDF(InputStream input) throws IOException {
+        log.info("Method readPDF was called with a stream");
 
-        File loadedFile = new File(path);
-        PDDocument document = PDDocument.load(loadedFile);
-        PDFTextStripper pdfTextStripper = new PDFTextStripper();
+        try (PDDocument document = PDDocument.load(input)) {
+            PDFTextStripper pdfTextStripper = new PDFTextStripper();
+            return pdfTextStripper.getText(document).toUpperCase();
+        }
+    }
 
-        String text = pdfTextStripper.getText(document).toUpperCase();
-        document.close();
+    /**
+     * Reads text from a plain text file, e.g. an SQL script, as UTF-8 without PDFBox.
+     * A large file is mapped into memory, a small one or a file in an archive is read at once. The text is converted to upper case
+     * like the text of a PDF file.
+     *
+     * @param path Path to the text file, on the disk or in an archive.
+     * @return Text read from the file.
+     * @throws IOException When reading a file.
+     */
+    public static String readText(Path path) throws IOException {
+        log.info("Method readText was called with the path " + path);
+
+        if (path.getFileSystem() != FileSystems.getDefault() || Files.size(path) < MAPPED_SIZE)
+            return decodeText(ByteBuffer.wrap(Files.readAllBytes(path)));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("The file " + path + " is too large");
+            return decodeText(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Decodes UTF-8 text without its byte order mark, malformed bytes are replaced.
+     *
+     * @param bytes Content of the file.
+     * @return Text in upper case.
+     */
+    private static String decodeText(ByteBuffer bytes) {
+        if (bytes.remaining() >= 3 && bytes.get(bytes.position()) == (byte) 0xEF
+                && bytes.get(bytes.position() + 1) == (byte) 0xBB && bytes.get(bytes.position() + 2) == (byte) 0xBF)
+            bytes.position(bytes.position() + 3);
 
-        return text;
+        return StandardCharsets.UTF_8.decode(bytes).toString().toUpperCase();
     }
 }
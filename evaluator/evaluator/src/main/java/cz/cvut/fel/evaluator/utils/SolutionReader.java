@@ -0,0 +1,73 @@
+package cz.cvut.fel.evaluator.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the text of students' solutions.
+ */
+@Slf4j
+@Component
+public class SolutionReader {
+
+    /**
+     * Extensions of the files with solutions: PDF files and plain text files with the queries.
+     */
+    private static final Pattern SOLUTION_EXTENSION = Pattern.compile("(?i)\\.(pdf|sql|txt)$");
+
+    /**
+     * Checks whether the file may contain a solution.
+     *
+     * @param file Path to the file.
+     * @return true, if it is a PDF file, an SQL script or a text file.
+     */
+    public static boolean isSolution(Path file) {
+        return file.getFileName() != null && SOLUTION_EXTENSION.matcher(file.getFileName().toString()).find();
+    }
+
+    /**
+     * Checks whether the solution is plain text which is read without PDFBox.
+     *
+     * @param file Path to the file with the solution.
+     * @return true, if it is an SQL script or a text file, any other file is read as a PDF file.
+     */
+    public static boolean isText(Path file) {
+        String name = file.getFileName() == null ? "" : file.getFileName().toString().toLowerCase();
+        return name.endsWith(".sql") || name.endsWith(".txt");
+    }
+
+    /**
+     * Gets the name of the solution.
+     *
+     * @param fileName Name of the file with the solution.
+     * @return The name without the extension of a solution.
+     */
+    public static String getName(String fileName) {
+        return SOLUTION_EXTENSION.matcher(fileName).replaceFirst("");
+    }
+
+    /**
+     * Reads the text of the solution from the file.
+     * SQL scripts and text files are read directly, only PDF files are read by PDFBox.
+     * A file in an archive is streamed from the archive without extracting it.
+     *
+     * @param file Path to the file with the solution, on the disk or in an archive.
+     * @return Text of the solution.
+     * @throws IOException When reading the file.
+     */
+    public String read(Path file) throws IOException {
+        if (isText(file)) return FileUtils.readText(file);
+        if (file.getFileSystem() == FileSystems.getDefault()) return FileUtils.readPDF(file.toString());
+
+        try (InputStream input = Files.newInputStream(file)) {
+            return FileUtils.readPDF(input);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarityDetector;
+import cz.cvut.fel.evaluator.evaluation.sql.ReferenceSolution;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.evaluation.sql.StatementCache;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerPool;
+import cz.cvut.fel.evaluator.output.CohortStatistics;
+import cz.cvut.fel.evaluator.output.HTMLOutput;
+import cz.cvut.fel.evaluator.output.Output;
+import cz.cvut.fel.evaluator.utils.FileUtils;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+public class BatchEvaluationTest {
+
+    @Mock
+    SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    @Mock
+    Output output;
+
+    @Mock
+    HTMLOutput htmlOutput;
+
+    @Mock
+    CohortStatistics cohortStatistics;
+
+    @Mock
+    StatementCache statementCache;
+
+    @Mock
+    SimilarityDetector similarityDetector;
+
+    @Mock
+    BatchManifest batchManifest;
+
+    @Mock
+    EvaluationHistory evaluationHistory;
+
+    @Mock
+    SolutionReader solutionReader;
+
+    @Mock
+    BatchJournal batchJournal;
+
+    @Mock
+    WorkerPool workerPool;
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    BatchProcessor batchProcessor;
+
+    BatchEvaluation batchEvaluation;
+
+    MockedStatic<FileUtils> utilities;
+
+    @BeforeEach
+    public void setUpMock() {
+        utilities = Mockito.mockStatic(FileUtils.class);
+        batchProcessor = new BatchProcessor(sqlSolutionEvaluator, statementCache, similarityDetector, batchManifest,
+                evaluationHistory, solutionReader, workerPool);
+        ReflectionTestUtils.setField(batchProcessor, "htmlOutput", htmlOutput);
+        ReflectionTestUtils.setField(batchProcessor, "cohortStatistics", cohortStatistics);
+        batchEvaluation = new BatchEvaluation(batchProcessor, batchManifest, batchJournal);
+    }
+
+    @AfterEach
+    public void close() {
+        utilities.close();
+    }
+
+    @Test
+    void run_DirectoryWithTwoSolutions_EachSolutionIsEvaluated(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        Files.writeString(batchDirectory.resolve("student2.pdf"), "");
+        Files.writeString(batchDirectory.resolve("notes.docx"), "");
+        when(solutionReader.read(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0).toString().endsWith("student1.pdf")
+                ? "SELECT * FROM TABLE_NAME_1;" : "SELECT * FROM TABLE_NAME_2;");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(sqlSolutionEvaluator, times(1)).evaluate(any(), eq(List.of("SELECT * FROM TABLE_NAME_1;")));
+        verify(sqlSolutionEvaluator, times(1)).evaluate(any(), eq(List.of("SELECT * FROM TABLE_NAME_2;")));
+        verify(sqlSolutionEvaluator, times(2)).clearDatabase();
+        verify(htmlOutput, times(1)).generateEvaluationResult(any(), eq("student1.html"));
+        verify(statementCache, times(1)).save();
+        verify(similarityDetector, times(1)).findSimilar(Mockito.anyMap());
+        verify(cohortStatistics, times(2)).add(Mockito.anyMap());
+    }
+
+    @Test
+    void run_IdenticalSolutions_OutputIsReused(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        Files.writeString(batchDirectory.resolve("student2.pdf"), "");
+        when(solutionReader.read(Mockito.any())).thenReturn("SELECT * FROM TABLE_NAME_1;");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        when(output.getCriteria()).thenReturn(readCriteria());
+        when(output.getWarnings()).thenReturn(new ArrayList<>());
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        ReflectionTestUtils.setField(batchProcessor, "extractThreads", 1);
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(sqlSolutionEvaluator, times(1)).evaluate(any(), Mockito.anyList());
+        verify(htmlOutput, times(1)).generateEvaluationResult(eq(output), eq("student1.html"));
+        verify(htmlOutput, times(1)).generateEvaluationResult(Mockito.argThat(reusedOutput -> reusedOutput.getWarnings().contains(
+                "The solution is identical to the solution student1, its evaluation was reused")), eq("student2.html"));
+    }
+
+    @Test
+    void run_UnchangedSolution_IsRescoredFromManifest(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        ManifestEntry entry = getManifestEntry();
+        when(batchManifest.getFileHash(Mockito.any())).thenReturn("FILE_HASH");
+        when(batchManifest.getEntry("student1")).thenReturn(Optional.of(entry));
+        when(batchManifest.getEvaluationHash(Mockito.anyList(), Mockito.anyMap())).thenReturn("EVALUATION_HASH");
+        when(batchManifest.rescore(eq(entry), Mockito.anyMap())).thenReturn(output);
+        when(output.getCriteria()).thenReturn(entry.getCriteria());
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(solutionReader, never()).read(Mockito.any());
+        verify(sqlSolutionEvaluator, never()).evaluate(any(), Mockito.anyList());
+        verify(htmlOutput, times(1)).generateEvaluationResult(eq(output), eq("student1.html"));
+        verify(batchManifest, times(1)).save(Mockito.any());
+    }
+
+    @Test
+    void run_InterruptedBatch_CompletedSolutionIsSkipped(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        Files.writeString(batchDirectory.resolve("student2.pdf"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        ManifestEntry entry = getManifestEntry();
+        when(batchJournal.isEnabled()).thenReturn(true);
+        when(batchManifest.getBatchHash(CRITERIA_JSON)).thenReturn("BATCH_HASH");
+        when(batchManifest.getFileHash(Mockito.any())).thenReturn("FILE_HASH");
+        when(batchJournal.open(Mockito.any(), eq("BATCH_HASH"))).thenReturn(Map.of("student1", entry));
+        when(solutionReader.read(Mockito.any())).thenReturn("SELECT * FROM TABLE_NAME_2;");
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(solutionReader, times(1)).read(batchDirectory.resolve("student2.pdf"));
+        verify(htmlOutput, never()).generateEvaluationResult(any(), eq("student1.html"));
+        verify(batchManifest, times(1)).putEntry("student1", entry);
+        verify(batchJournal, times(1)).append(eq("student2"), eq("BATCH_HASH"), any());
+        verify(cohortStatistics, times(2)).add(Mockito.anyMap());
+        verify(batchJournal, never()).read(Mockito.any(), Mockito.any());
+        verify(batchJournal, times(1)).finish(Mockito.any());
+    }
+
+    @Test
+    void run_ResumedBatchOfMoreSolutionsThanSketchBuffer_SameCohortSummaryAsUninterruptedBatch(@TempDir Path directory) throws Exception {
+        Path batchDirectory = Files.createDirectory(directory.resolve("batch"));
+        for (int i = 0; i < 600; i++) Files.writeString(batchDirectory.resolve(String.format("student%03d.pdf", i)), String.valueOf(i));
+        utilities.when(FileUtils::getProgramPath).thenReturn(directory.toString());
+        utilities.when(() -> FileUtils.readString(Mockito.anyString(), Mockito.any())).thenCallRealMethod();
+
+        when(solutionReader.read(Mockito.any())).thenAnswer(invocation -> "SELECT * FROM TABLE_NAME_" + invocation.<Path>getArgument(0).getFileName().toString().replaceAll("\\D", "") + ";");
+        when(sqlSolutionEvaluator.evaluate(Mockito.anyMap(), Mockito.anyList())).thenAnswer(invocation -> {
+            Map<String, Criterion> criteria = invocation.getArgument(0);
+            int solution = Integer.parseInt(invocation.<List<String>>getArgument(1).get(0).replaceAll("\\D", ""));
+            criteria.forEach((name, criterion) -> criterion.setScore(Math.floorMod(solution * 7919 + name.hashCode(), 1000) / 1000.0 * criterion.getMaxScore()));
+            return new Output(criteria, List.of(), List.of(), List.of());
+        });
+        doAnswer(invocation -> Files.writeString(invocation.getArgument(1), "")).when(similarityDetector).writeReport(any(), any());
+        BatchManifest manifest = new BatchManifest(new ReferenceSolution(), new StandardEnvironment());
+        ReflectionTestUtils.setField(manifest, "file", "");
+        batchProcessor = new BatchProcessor(sqlSolutionEvaluator, statementCache, similarityDetector, manifest,
+                evaluationHistory, solutionReader, workerPool);
+        ReflectionTestUtils.setField(batchProcessor, "htmlOutput", htmlOutput);
+        ReflectionTestUtils.setField(batchProcessor, "extractThreads", 4);
+
+        new BatchEvaluation(batchProcessor, manifest, new BatchJournal()).run(CRITERIA_JSON, batchDirectory.toString(), "uninterrupted");
+
+        BatchJournal interruptedJournal = spy(new BatchJournal());
+        doNothing().when(interruptedJournal).finish(Mockito.any());
+        new BatchEvaluation(batchProcessor, manifest, interruptedJournal).run(CRITERIA_JSON, batchDirectory.toString(), "resumed");
+        Path journal = directory.resolve("resumed/batch-journal.jsonl");
+        Files.write(journal, Files.readAllLines(journal).subList(0, 300));
+        new BatchEvaluation(batchProcessor, manifest, new BatchJournal()).run(CRITERIA_JSON, batchDirectory.toString(), "resumed");
+
+        Assertions.assertEquals(Files.readString(directory.resolve("uninterrupted/cohort-summary.json")),
+                Files.readString(directory.resolve("resumed/cohort-summary.json")));
+        Assertions.assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    void run_SQLScriptAmongPDFFiles_ScriptIsNotSentToWorker(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        Files.writeString(batchDirectory.resolve("student2.sql"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        when(workerPool.isEnabled()).thenReturn(true);
+        when(workerPool.extract(batchDirectory.resolve("student1.pdf"))).thenReturn("SELECT * FROM TABLE_NAME_1;");
+        when(solutionReader.read(batchDirectory.resolve("student2.sql"))).thenReturn("SELECT * FROM TABLE_NAME_2;");
+        when(workerPool.evaluate(Mockito.anyList(), Mockito.anyMap())).thenReturn(output);
+        when(output.getCriteria()).thenReturn(readCriteria());
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(workerPool, times(1)).extract(Mockito.any());
+        verify(workerPool, times(1)).evaluate(eq(List.of("SELECT * FROM TABLE_NAME_2;")), Mockito.anyMap());
+        verify(htmlOutput, times(1)).generateEvaluationResult(any(), eq("student2.html"));
+    }
+
+    @Test
+    void run_ZipArchive_EntriesAreEvaluatedWithoutExtracting(@TempDir Path batchDirectory) throws Exception {
+        Path archive = batchDirectory.resolve("export.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("student1.pdf"));
+            zip.putNextEntry(new ZipEntry("group2/student2.pdf"));
+            zip.putNextEntry(new ZipEntry("group2/notes.docx"));
+        }
+        when(solutionReader.read(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0).toString().endsWith("student1.pdf")
+                ? "SELECT * FROM TABLE_NAME_1;" : "SELECT * FROM TABLE_NAME_2;");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, archive.toString(), null);
+
+        verify(solutionReader, times(2)).read(Mockito.argThat(path -> path.getFileSystem() != FileSystems.getDefault()));
+        verify(htmlOutput, times(1)).generateEvaluationResult(any(), eq("student1.html"));
+        verify(htmlOutput, times(1)).generateEvaluationResult(any(), eq("group2_student2.html"));
+        Assertions.assertFalse(Files.exists(batchDirectory.resolve("group2")));
+    }
+
+    @Test
+    void run_WorkerProcesses_SolutionIsEvaluatedByWorker(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        when(workerPool.isEnabled()).thenReturn(true);
+        when(workerPool.extract(batchDirectory.resolve("student1.pdf"))).thenReturn("SELECT * FROM TABLE_NAME_1;");
+        when(workerPool.evaluate(eq(List.of("SELECT * FROM TABLE_NAME_1;")), Mockito.anyMap())).thenReturn(output);
+        when(output.getCriteria()).thenReturn(readCriteria());
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        stubReports();
+
+        batchEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(solutionReader, never()).read(Mockito.any());
+        verify(sqlSolutionEvaluator, never()).evaluate(any(), Mockito.anyList());
+        verify(htmlOutput, times(1)).generateEvaluationResult(eq(output), eq("student1.html"));
+    }
+
+    private void stubReports() throws Exception {
+        doAnswer(invocation -> Files.writeString(invocation.getArgument(1), "")).when(similarityDetector).writeReport(any(), any());
+        doAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(0), "");
+            return Files.writeString(invocation.getArgument(1), "");
+        }).when(cohortStatistics).writeSummary(any(), any());
+    }
+
+    private Map<String, Criterion> readCriteria() throws Exception {
+        return new ObjectMapper().readValue(Files.readString(Path.of(CRITERIA_JSON)), new TypeReference<>() {});
+    }
+
+    private ManifestEntry getManifestEntry() throws Exception {
+        return new ManifestEntry("FILE_HASH", "EVALUATION_HASH", List.of("SELECT * FROM TABLE_NAME_1;"), readCriteria(),
+                List.of(), List.of(), List.of(), List.of());
+    }
+}
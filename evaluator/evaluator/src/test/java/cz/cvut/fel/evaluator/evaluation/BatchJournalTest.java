@@ -0,0 +1,74 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+public class BatchJournalTest {
+
+    BatchJournal batchJournal = new BatchJournal();
+
+    @Test
+    void open_JournalOfInterruptedBatch_CompletedSolutionsAreReturned(@TempDir Path directory) throws Exception {
+        batchJournal.open(directory, "BATCH_HASH");
+        batchJournal.append("student1", "BATCH_HASH", getEntry("FILE_HASH_1"));
+        batchJournal.append("student2", "OTHER_HASH", getEntry("FILE_HASH_2"));
+        batchJournal.close();
+
+        Map<String, ManifestEntry> actualResult = batchJournal.open(directory, "BATCH_HASH");
+        batchJournal.close();
+
+        Assertions.assertEquals(List.of("student1"), List.copyOf(actualResult.keySet()));
+        Assertions.assertEquals("FILE_HASH_1", actualResult.get("student1").getFileHash());
+    }
+
+    @Test
+    void open_IncompleteLastLine_LineIsIgnoredAndNextLineIsKept(@TempDir Path directory) throws Exception {
+        batchJournal.open(directory, "BATCH_HASH");
+        batchJournal.append("student1", "BATCH_HASH", getEntry("FILE_HASH_1"));
+        batchJournal.close();
+        Files.writeString(directory.resolve("batch-journal.jsonl"), "{\"name\":\"student2\",\"batch", StandardOpenOption.APPEND);
+
+        batchJournal.open(directory, "BATCH_HASH");
+        batchJournal.append("student3", "BATCH_HASH", getEntry("FILE_HASH_3"));
+        batchJournal.close();
+
+        Map<String, ManifestEntry> actualResult = batchJournal.read(directory, "BATCH_HASH");
+
+        Assertions.assertEquals(List.of("student1", "student3"), List.copyOf(actualResult.keySet()));
+    }
+
+    @Test
+    void finish_FinishedBatch_JournalIsDeleted(@TempDir Path directory) throws Exception {
+        batchJournal.open(directory, "BATCH_HASH");
+        batchJournal.append("student1", "BATCH_HASH", getEntry("FILE_HASH_1"));
+
+        batchJournal.finish(directory);
+
+        Assertions.assertFalse(Files.exists(directory.resolve("batch-journal.jsonl")));
+    }
+
+    @Test
+    void readResult_ResultOfOtherInputs_ResultIsEmpty(@TempDir Path directory) throws Exception {
+        batchJournal.writeResult(directory.resolve("student1.result.json"), "student1", "BATCH_HASH", getEntry("FILE_HASH_1"));
+
+        Assertions.assertEquals("FILE_HASH_1", batchJournal.readResult(directory.resolve("student1.result.json"), "BATCH_HASH")
+                .orElseThrow().getFileHash());
+        Assertions.assertTrue(batchJournal.readResult(directory.resolve("student1.result.json"), "OTHER_HASH").isEmpty());
+    }
+
+    private ManifestEntry getEntry(String fileHash) {
+        Criterion criterion = new Criterion();
+        criterion.setScore(1.5);
+        return new ManifestEntry(fileHash, "EVALUATION_HASH", List.of("SELECT 1;"), Map.of("SELECT", criterion),
+                List.of(), List.of(), List.of(), List.of());
+    }
+}
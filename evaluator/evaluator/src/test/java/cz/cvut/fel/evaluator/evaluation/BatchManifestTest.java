@@ -0,0 +1,130 @@
+package cz.cvut.fel.evaluator.evaluation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.sql.ReferenceSolution;
+import cz.cvut.fel.evaluator.output.Output;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@SpringBootTest
+public class BatchManifestTest {
+
+    BatchManifest batchManifest = new BatchManifest(new ReferenceSolution(), new StandardEnvironment());
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    private static final List<String> STATEMENTS = List.of("CREATE TABLE TABLE_NAME (ID INT PRIMARY KEY);",
+            "INSERT INTO TABLE_NAME VALUES (1);");
+
+    @Test
+    void getEvaluationHash_ChangedMaxScore_HashIsEqual() throws Exception {
+        Map<String, Criterion> criteria = readCriteria();
+        Map<String, Criterion> changedCriteria = readCriteria(Files.readString(Path.of(CRITERIA_JSON))
+                .replaceFirst("\"maxScore\" *: *\\d+", "\"maxScore\" : 9"));
+
+        String expectedResult = batchManifest.getEvaluationHash(STATEMENTS, criteria);
+        String actualResult = batchManifest.getEvaluationHash(STATEMENTS, changedCriteria);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+        Assertions.assertNotEquals(expectedResult, batchManifest.getEvaluationHash(STATEMENTS.subList(0, 1), criteria));
+    }
+
+    @Test
+    void rescore_SavedManifestWithChangedMaxScore_ScoreIsChanged(@TempDir Path directory) throws Exception {
+        Map<String, Criterion> criteria = readCriteria();
+        ScoreCalculator scoreCalculator = new ScoreCalculator(criteria);
+        scoreCalculator.calculateInsertInto();
+        scoreCalculator.calculateIntegrityConstraints("CREATE TABLE TABLE_NAME (ID INT CHECK (ID > 0));");
+
+        String fileHash = batchManifest.getFileHash(Path.of(CRITERIA_JSON));
+        String evaluationHash = batchManifest.getEvaluationHash(STATEMENTS, criteria);
+        batchManifest.putEntry("ST01", fileHash, evaluationHash, STATEMENTS, new Output(criteria, List.of(), List.of()));
+        batchManifest.save(directory);
+        batchManifest.load(directory);
+
+        Map<String, Criterion> changedCriteria = readCriteria();
+        changedCriteria.get("statements to fill tables by data").rescore(5);
+        changedCriteria.get("using integrity constraints").rescore(4);
+        ManifestEntry entry = batchManifest.getEntry("ST01").orElseThrow();
+        Output output = batchManifest.rescore(entry, changedCriteria);
+
+        Assertions.assertEquals(fileHash, entry.getFileHash());
+        Assertions.assertEquals(STATEMENTS, entry.getStatements());
+        Assertions.assertEquals(5, output.getCriteria().get("statements to fill tables by data").getScore());
+        Assertions.assertEquals(0.5, output.getCriteria().get("using integrity constraints").getScore());
+        Assertions.assertEquals(1, output.getCriteria().get("statements to fill tables by data").getOccurrences());
+    }
+
+    @Test
+    void getBatchHash_ChangedThreadSettings_HashIsEqual() throws Exception {
+        BatchManifest tunedManifest = getBatchManifest(Map.of("evaluator.pipeline.extract-threads", "8",
+                "evaluator.pipeline.queue-size", "32", "evaluator.workers.processes", "4", "evaluator.select-threads", "1"));
+
+        String expectedResult = getBatchManifest(Map.of()).getBatchHash(CRITERIA_JSON);
+        String actualResult = tunedManifest.getBatchHash(CRITERIA_JSON);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+        Assertions.assertNotEquals(expectedResult, getBatchManifest(Map.of("evaluator.generated-rows", "100")).getBatchHash(CRITERIA_JSON));
+    }
+
+    @Test
+    void readResult_ResultOfOwnerWithOtherThreadSettings_ResultIsReused(@TempDir Path directory) throws Exception {
+        BatchManifest firstManifest = getBatchManifest(Map.of("evaluator.sharding.owner", "machine1",
+                "evaluator.pipeline.extract-threads", "1", "evaluator.workers.processes", "0"));
+        BatchManifest secondManifest = getBatchManifest(Map.of("evaluator.sharding.owner", "machine2",
+                "evaluator.pipeline.extract-threads", "8", "evaluator.workers.processes", "4", "evaluator.select-threads", "2"));
+        BatchJournal batchJournal = new BatchJournal();
+        Map<String, Criterion> criteria = readCriteria();
+        ManifestEntry entry = new ManifestEntry("FILE_HASH", batchManifest.getEvaluationHash(STATEMENTS, criteria), STATEMENTS,
+                criteria, List.of(), List.of(), List.of(), List.of());
+
+        batchJournal.writeResult(directory.resolve("ST01.result.json"), "ST01", firstManifest.getBatchHash(CRITERIA_JSON), entry);
+        batchJournal.writeResult(directory.resolve("ST02.result.json"), "ST02", secondManifest.getBatchHash(CRITERIA_JSON), entry);
+
+        Assertions.assertTrue(batchJournal.readResult(directory.resolve("ST01.result.json"), secondManifest.getBatchHash(CRITERIA_JSON)).isPresent());
+        Assertions.assertTrue(batchJournal.readResult(directory.resolve("ST02.result.json"), firstManifest.getBatchHash(CRITERIA_JSON)).isPresent());
+    }
+
+    @Test
+    void save_ManifestExists_ManifestIsReplacedWithoutTemporaryFile(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("manifest.json"), "{\"ST01\" : {\"fileHash\" : ");
+        batchManifest.putEntry("ST02", "FILE_HASH", "EVALUATION_HASH", STATEMENTS, new Output(readCriteria(), List.of(), List.of()));
+
+        batchManifest.save(directory);
+        batchManifest.load(directory);
+
+        Assertions.assertTrue(batchManifest.getEntry("ST01").isEmpty());
+        Assertions.assertEquals(STATEMENTS, batchManifest.getEntry("ST02").orElseThrow().getStatements());
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(directory.resolve("manifest.json")), files.collect(Collectors.toList()));
+        }
+    }
+
+    private BatchManifest getBatchManifest(Map<String, Object> settings) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("settings", settings));
+        return new BatchManifest(new ReferenceSolution(), environment);
+    }
+
+    private Map<String, Criterion> readCriteria() throws Exception {
+        return readCriteria(Files.readString(Path.of(CRITERIA_JSON)));
+    }
+
+    private Map<String, Criterion> readCriteria(String json) throws Exception {
+        return new ObjectMapper().readValue(json, new TypeReference<>() {});
+    }
+}
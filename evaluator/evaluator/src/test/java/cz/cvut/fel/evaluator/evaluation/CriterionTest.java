@@ -42,4 +42,17 @@ public class CriterionTest {
 
         Assertions.assertEquals(expectedResult, actualResult);
     }
+
+    @ParameterizedTest(name = "rescore_MaxScoreIs{0}_ScoreIsLimited")
+    @ValueSource(ints = {1, 2, 4})
+    void rescore_ScoreIsLimited(int maxScore) {
+        criterion.addFeature(0.5, 0, true);
+        criterion.addFeature(1, 0, true);
+        criterion.addFeature(0, 0.25, false);
+
+        criterion.rescore(maxScore);
+
+        Assertions.assertEquals(Math.min(1.5, maxScore), criterion.getScore());
+        Assertions.assertEquals(Math.min(1.5 + 0.25 * maxScore, maxScore), criterion.getPossibleScore());
+    }
 }
@@ -1,16 +1,16 @@
 package cz.cvut.fel.evaluator.evaluation;
 
 
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
 import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
 import cz.cvut.fel.evaluator.output.HTMLOutput;
 import cz.cvut.fel.evaluator.output.Output;
-import cz.cvut.fel.evaluator.utils.FileUtils;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
-import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,24 +34,18 @@ public class EvaluationTest {
     @Mock
     HTMLOutput htmlOutput;
 
-    @Value("${CRITERIA_JSON}")
-    private String CRITERIA_JSON;
-
-    MockedStatic<FileUtils> utilities;
+    @Mock
+    EvaluationHistory evaluationHistory;
 
-    @BeforeEach
-    public void setUpMock() {
-        utilities = Mockito.mockStatic(FileUtils.class);
-    }
+    @Mock
+    SolutionReader solutionReader;
 
-    @AfterEach
-    public void close() {
-        utilities.close();
-    }
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
 
     @Test
     void run_ValidPathToCriteriaJSON_Success() throws Exception {
-        utilities.when(() -> FileUtils.readPDF(Mockito.anyString())).thenReturn("SQL_SOLUTION");
+        when(solutionReader.read(Mockito.any())).thenReturn("SQL_SOLUTION");
 
         when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyString())).thenReturn(output);
         doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
@@ -59,6 +53,6 @@ public class EvaluationTest {
         evaluation.run(CRITERIA_JSON, "SQL_PDF", null, null);
 
         verify(sqlSolutionEvaluator, times(1)).evaluate(any(), eq("SQL_SOLUTION"));
+        verify(evaluationHistory, times(1)).record(eq(CRITERIA_JSON), eq("SQL_PDF"), Mockito.anyMap(), Mockito.anyLong());
     }
-
 }
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -17,6 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -55,6 +59,93 @@ public class ScoreCalculatorTest {
         return table;
     }
 
+    private Map<String, Criterion> getCriteria(int maxScore) {
+        Map<String, Criterion> criteria = new HashMap<>();
+        for (String key : List.of("defining primary keys of tables", "using integrity constraints",
+                "using ON UPDATE/DELETE for foreign key", "statements to fill tables by data", "outer join of tables",
+                "inner join of tables", "condition on the data", "aggregation", "sorting and pagination", "set operations",
+                "inner SELECT", "results matching the reference solution", "using indexes which speed up queries")) {
+            Criterion criterion = new Criterion();
+            criterion.rescore(maxScore);
+            criteria.put(key, criterion);
+        }
+        return criteria;
+    }
+
+    static Stream<Arguments> generateEvaluation() {
+        Consumer<ScoreCalculator> primaryKey = calculator -> {
+            calculator.calculatePrimaryKey(3);
+            calculator.calculatePrimaryKey(3);
+        };
+        Consumer<ScoreCalculator> integrityConstraints = calculator -> {
+            calculator.calculateIntegrityConstraints("CREATE TABLE A (ID INT CHECK (ID > 0))");
+            calculator.calculateIntegrityConstraints("CREATE TABLE B (ID INT NOT NULL)");
+            calculator.calculateIntegrityConstraints("CREATE TABLE C (ID INT UNIQUE)");
+        };
+        Consumer<ScoreCalculator> onUpdateDelete = calculator -> {
+            calculator.calculateOnUpdateDelete("CREATE TABLE A (ID INT REFERENCES B ON DELETE CASCADE)");
+            calculator.calculateOnUpdateDelete("CREATE TABLE C (ID INT REFERENCES B ON UPDATE CASCADE)");
+        };
+        Consumer<ScoreCalculator> insertInto = ScoreCalculator::calculateInsertInto;
+        Consumer<ScoreCalculator> joins = calculator -> {
+            calculator.calculateJoin("SELECT * FROM A LEFT JOIN B ON A.ID = B.ID", false);
+            calculator.calculateJoin("SELECT * FROM A JOIN B ON A.ID = B.ID", true);
+        };
+        Consumer<ScoreCalculator> uncertainGroupByBeforeAggregation = calculator -> {
+            calculator.calculateAggregation("SELECT A FROM T GROUP BY A HAVING A > 1", false);
+            calculator.calculateAggregation("SELECT COUNT(*) FROM T", true);
+        };
+        Consumer<ScoreCalculator> uncertainAggregationBeforeGroupBy = calculator -> {
+            calculator.calculateAggregation("SELECT A, COUNT(*) FROM T GROUP BY A HAVING COUNT(*) > 1", false);
+            calculator.calculateAggregation("SELECT A FROM T GROUP BY A HAVING A > 1", true);
+            calculator.calculateAggregation("SELECT MAX(A) FROM T", true);
+        };
+        Consumer<ScoreCalculator> selects = calculator -> {
+            calculator.calculateCondition("SELECT * FROM T WHERE A = 1", false);
+            calculator.calculateSorting("SELECT * FROM T ORDER BY A", true);
+            calculator.calculateSetOperations("SELECT A FROM T UNION SELECT A FROM U", false);
+            calculator.calculateInnerSelect("SELECT * FROM T WHERE A IN (SELECT A FROM U)", true);
+        };
+        Consumer<ScoreCalculator> referenceResults = calculator -> {
+            calculator.calculateReferenceResult("SELECT * FROM T", 1, 3);
+            calculator.calculateReferenceResult("SELECT * FROM T", 1, 3);
+            calculator.calculateReferenceResult("SELECT * FROM U", 2, 3);
+        };
+        Consumer<ScoreCalculator> indexUsage = calculator ->
+                calculator.calculateIndexUsage("CREATE INDEX I ON T (A)", "SELECT * FROM T WHERE A = 1");
+
+        return Stream.of(
+                Arguments.of("PrimaryKey", primaryKey),
+                Arguments.of("IntegrityConstraints", integrityConstraints),
+                Arguments.of("OnUpdateDelete", onUpdateDelete),
+                Arguments.of("InsertInto", insertInto),
+                Arguments.of("Joins", joins),
+                Arguments.of("UncertainGroupByBeforeAggregation", uncertainGroupByBeforeAggregation),
+                Arguments.of("UncertainAggregationBeforeGroupBy", uncertainAggregationBeforeGroupBy),
+                Arguments.of("ConditionSortingSetOperationsAndInnerSelect", selects),
+                Arguments.of("ReferenceResults", referenceResults),
+                Arguments.of("IndexUsage", indexUsage)
+        );
+    }
+
+    @ParameterizedTest(name = "rescore_EvaluationIs{0}_ScoresOfNewEvaluationAreGot")
+    @MethodSource("generateEvaluation")
+    void rescore_ScoresOfNewEvaluationAreGot(String name, Consumer<ScoreCalculator> evaluation) {
+        for (int maxScore : List.of(1, 2, 5)) {
+            Map<String, Criterion> rescoredCriteria = getCriteria(3);
+            evaluation.accept(new ScoreCalculator(rescoredCriteria));
+            rescoredCriteria.values().forEach(rescoredCriterion -> rescoredCriterion.rescore(maxScore));
+
+            Map<String, Criterion> expectedCriteria = getCriteria(maxScore);
+            evaluation.accept(new ScoreCalculator(expectedCriteria));
+
+            for (String key : expectedCriteria.keySet()) {
+                Assertions.assertEquals(expectedCriteria.get(key).getScore(), rescoredCriteria.get(key).getScore(), 1e-9, key);
+                Assertions.assertEquals(expectedCriteria.get(key).getPossibleScore(), rescoredCriteria.get(key).getPossibleScore(), 1e-9, key);
+            }
+        }
+    }
+
     @Test
     void calculateRelationalModel_EmptyRelationalModel_Success() {
         RelationalModel relationalModel = new RelationalModel();
@@ -94,6 +185,7 @@ public class ScoreCalculatorTest {
     @CsvSource({"1, 1, 1", "0, 0, 0", "-1, 0, 0"})
     void calculatePrimaryKey_Success(int createQueriesCount, int expectedScore, int methodsCallsCount) {
         if (createQueriesCount > 0) when(criterion.getScore()).thenReturn(0.0);
+        if (createQueriesCount > 0) when(criterion.getMaxScore()).thenReturn(1);
         when(criteria.get(Mockito.anyString())).thenReturn(criterion);
         when(criteria.put(Mockito.anyString(), eq(criterion))).thenCallRealMethod();
 
@@ -418,4 +510,60 @@ public class ScoreCalculatorTest {
 
         Assertions.assertEquals(expectedResult, actualResult);
     }
+
+    @Test
+    void calculateReferenceResult_NewTask_Success() {
+        String statement = "STATEMENT";
+
+        when(criteria.get(Mockito.anyString())).thenReturn(criterion);
+        when(criterion.getDescription()).thenReturn("");
+        when(criterion.getScore()).thenReturn(0.0);
+        when(criterion.getMaxScore()).thenReturn(2);
+        when(criteria.put(Mockito.anyString(), eq(criterion))).thenCallRealMethod();
+
+        scoreCalculator.calculateReferenceResult(statement, 1, 4);
+
+        verify(criterion, times(1)).setScore(0.5);
+        verify(criterion, times(1)).setPossibleScore(0.5);
+        verify(criterion, times(1)).addDescription("<span>TASK 1: </span>" + statement + "<br><br>");
+        verify(criterion, times(1)).incrementOccurrences();
+    }
+
+    @Test
+    void calculateReferenceResult_AlreadyMatchedTask_ScoreIsNotChanged() {
+        when(criteria.get(Mockito.anyString())).thenReturn(criterion);
+        when(criterion.getDescription()).thenReturn("<span>TASK 1: </span>STATEMENT<br><br>");
+        when(criteria.put(Mockito.anyString(), eq(criterion))).thenCallRealMethod();
+
+        scoreCalculator.calculateReferenceResult("STATEMENT", 1, 4);
+
+        verify(criterion, times(0)).setScore(Mockito.anyDouble());
+        verify(criterion, times(1)).incrementOccurrences();
+    }
+
+    @Test
+    void calculateIndexUsage_BeneficialIndex_Success() {
+        String statement = "CREATE INDEX I ON T (A)";
+        String benefit = "SELECT * FROM T WHERE A = 1";
+
+        when(criteria.get(Mockito.anyString())).thenReturn(criterion);
+        when(criterion.getMaxScore()).thenReturn(1);
+        when(criteria.put(Mockito.anyString(), eq(criterion))).thenCallRealMethod();
+
+        scoreCalculator.calculateIndexUsage(statement, benefit);
+
+        verify(criterion, times(1)).setScore(1);
+        verify(criterion, times(1)).setPossibleScore(1);
+        verify(criterion, times(1)).addDescription(statement + "<br>" + benefit + "<br><br>");
+        verify(criterion, times(1)).incrementOccurrences();
+    }
+
+    @Test
+    void calculateIndexUsage_CriterionIsNotEvaluated_NothingIsChanged() {
+        when(criteria.get(Mockito.anyString())).thenReturn(null);
+
+        scoreCalculator.calculateIndexUsage("CREATE INDEX I ON T (A)", "SELECT * FROM T WHERE A = 1");
+
+        verify(criterion, times(0)).incrementOccurrences();
+    }
 }
@@ -0,0 +1,108 @@
+package cz.cvut.fel.evaluator.evaluation.history;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.evaluation.ScoreCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+public class EvaluationHistoryTest {
+
+    EvaluationHistory evaluationHistory = new EvaluationHistory();
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(evaluationHistory, "file", directory.resolve("history").toString());
+        ReflectionTestUtils.setField(evaluationHistory, "task", "TASK");
+    }
+
+    @AfterEach
+    public void close() {
+        evaluationHistory.close();
+    }
+
+    @Test
+    void getAggregates_EvaluationsOfTwoYears_AggregatedByYear() throws Exception {
+        ReflectionTestUtils.setField(evaluationHistory, "year", 2022);
+        evaluationHistory.record(CRITERIA_JSON, "ST01", getCriteria(true), 1_000_000);
+        evaluationHistory.record(CRITERIA_JSON, "ST02", getCriteria(false), 3_000_000);
+        ReflectionTestUtils.setField(evaluationHistory, "year", 2023);
+        evaluationHistory.record(CRITERIA_JSON, "ST01", getCriteria(true), 1_000_000);
+
+        List<HistoryAggregate> actualResult = evaluationHistory.getAggregates("year, task");
+
+        Assertions.assertEquals(2, actualResult.size());
+        Assertions.assertEquals(List.of("2022", "TASK"), actualResult.get(0).getGroup());
+        Assertions.assertEquals(2, actualResult.get(0).getCount());
+        Assertions.assertEquals(1, actualResult.get(0).getAverageScore());
+        Assertions.assertEquals(0, actualResult.get(0).getMinScore());
+        Assertions.assertEquals(2, actualResult.get(0).getMaxScore());
+        Assertions.assertEquals(2, actualResult.get(0).getAverageDuration());
+        Assertions.assertEquals(List.of("2023", "TASK"), actualResult.get(1).getGroup());
+    }
+
+    @Test
+    void getAggregates_GroupedByCriterion_ScoresOfCriterionAreAggregated() throws Exception {
+        ReflectionTestUtils.setField(evaluationHistory, "year", 2023);
+        evaluationHistory.record(CRITERIA_JSON, "ST01", getCriteria(true), 1_000_000);
+        evaluationHistory.close();
+        evaluationHistory.record(CRITERIA_JSON, "ST02", getCriteria(false), 1_000_000);
+
+        List<HistoryAggregate> actualResult = evaluationHistory.getAggregates("criterion");
+        HistoryAggregate insertInto = actualResult.stream()
+                .filter(aggregate -> aggregate.getGroup().equals(List.of("statements to fill tables by data")))
+                .findFirst().orElseThrow();
+
+        Assertions.assertEquals(getCriteria(true).size(), actualResult.size());
+        Assertions.assertEquals(2, insertInto.getCount());
+        Assertions.assertEquals(1, insertInto.getAverageScore());
+    }
+
+    @Test
+    void getAggregates_StudentEvaluatedAgain_OnlyLatestEvaluationIsAggregated() throws Exception {
+        ReflectionTestUtils.setField(evaluationHistory, "year", 2023);
+        evaluationHistory.record(CRITERIA_JSON, "ST01", getCriteria(false), 1_000_000);
+        evaluationHistory.record(CRITERIA_JSON, "ST01", getCriteria(true), 3_000_000);
+
+        List<HistoryAggregate> actualResult = evaluationHistory.getAggregates("student");
+        HistoryAggregate insertInto = evaluationHistory.getAggregates("criterion").stream()
+                .filter(aggregate -> aggregate.getGroup().equals(List.of("statements to fill tables by data")))
+                .findFirst().orElseThrow();
+
+        Assertions.assertEquals(1, actualResult.size());
+        Assertions.assertEquals(1, actualResult.get(0).getCount());
+        Assertions.assertEquals(2, actualResult.get(0).getAverageScore());
+        Assertions.assertEquals(3, actualResult.get(0).getAverageDuration());
+        Assertions.assertEquals(1, insertInto.getCount());
+    }
+
+    @Test
+    void getAggregates_UnknownColumn_ExceptionIsThrown() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> evaluationHistory.getAggregates("year, score"));
+    }
+
+    private Map<String, Criterion> getCriteria(boolean withInsertInto) throws Exception {
+        Map<String, Criterion> criteria = new ObjectMapper().readValue(Files.readString(Path.of(CRITERIA_JSON)), new TypeReference<>() {});
+        if (withInsertInto) new ScoreCalculator(criteria).calculateInsertInto();
+        return criteria;
+    }
+}
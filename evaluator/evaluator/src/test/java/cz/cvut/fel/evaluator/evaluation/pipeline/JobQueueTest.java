@@ -0,0 +1,54 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest
+public class JobQueueTest {
+
+    JobQueue jobQueue = new JobQueue(2, SchedulingPolicy.SJF.getComparator());
+
+    @Test
+    void take_JobsAndEnd_CheapestFirstAndEndLast() throws Exception {
+        jobQueue.put(getJob("ST1", 30));
+        jobQueue.put(getJob("ST2", 10));
+        jobQueue.put(Pipeline.END);
+
+        Assertions.assertEquals("ST2", jobQueue.take().getName());
+        Assertions.assertEquals("ST1", jobQueue.take().getName());
+        Assertions.assertSame(Pipeline.END, jobQueue.take());
+    }
+
+    @Test
+    void put_FullQueue_WaitsForTake() throws Exception {
+        jobQueue.put(getJob("ST1", 10));
+        jobQueue.put(getJob("ST2", 20));
+
+        Thread producer = new Thread(() -> {
+            try {
+                jobQueue.put(getJob("ST3", 5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(TimeUnit.MILLISECONDS.toMillis(100));
+
+        Assertions.assertTrue(producer.isAlive());
+
+        jobQueue.take();
+        producer.join();
+
+        Assertions.assertEquals("ST3", jobQueue.take().getName());
+    }
+
+    private BatchJob getJob(String name, long cost) {
+        BatchJob job = new BatchJob(Path.of(name + ".pdf"), name, name + ".html");
+        job.setEstimatedCost(cost);
+        return job;
+    }
+}
@@ -0,0 +1,94 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+public class PipelineTest {
+
+    @Test
+    void run_HundredJobs_EveryJobPassesAllStages() throws Exception {
+        Set<String> rendered = ConcurrentHashMap.newKeySet();
+        Pipeline pipeline = new Pipeline(2)
+                .addStage("extract", 3, job -> job.setText(job.getName()))
+                .addStage("parse", 2, job -> job.setQueries(List.of(job.getText())))
+                .addStage("render", 2, job -> rendered.add(job.getQueries().get(0)));
+
+        List<BatchJob> jobs = getJobs(100);
+        pipeline.run(jobs);
+
+        Set<String> expectedResult = jobs.stream().map(BatchJob::getName).collect(Collectors.toSet());
+        Assertions.assertEquals(expectedResult, rendered);
+        Assertions.assertEquals(3, pipeline.getUtilizationReport().size());
+        Assertions.assertTrue(pipeline.getUtilizationReport().get(0).startsWith("Stage extract: 3 threads, 100 jobs (0 failed)"));
+    }
+
+    @Test
+    void run_SlowLastStage_FirstStageIsHeldBack() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        List<Integer> inFlightCounts = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(1)
+                .addStage("extract", 2, job -> inFlightCounts.add(inFlight.incrementAndGet()))
+                .addStage("render", 1, job -> {
+                    Thread.sleep(2);
+                    inFlight.decrementAndGet();
+                });
+
+        pipeline.run(getJobs(50));
+
+        int expectedResult = 2 + 1 + 1;
+        int actualResult = Collections.max(inFlightCounts);
+
+        Assertions.assertTrue(actualResult <= expectedResult);
+    }
+
+    @Test
+    void run_FailingJob_JobIsLeftOut() throws Exception {
+        List<String> rendered = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(4)
+                .addStage("parse", 1, job -> {
+                    if (job.getName().equals("ST3")) throw new IllegalStateException("Unreadable");
+                })
+                .addStage("render", 1, job -> rendered.add(job.getName()));
+
+        pipeline.run(getJobs(5));
+
+        Assertions.assertEquals(List.of("ST0", "ST1", "ST2", "ST4"), rendered);
+        Assertions.assertTrue(pipeline.getUtilizationReport().get(0).contains("5 jobs (1 failed)"));
+    }
+
+    @ParameterizedTest(name = "run_PolicyIs{0}_JobsAreProcessedInOrder")
+    @CsvSource({"FIFO, ST0 ST1 ST2 ST3", "SJF, ST2 ST0 ST3 ST1", "LPT, ST1 ST3 ST0 ST2"})
+    void run_JobsAreProcessedInOrderOfPolicy(SchedulingPolicy policy, String order) throws Exception {
+        List<BatchJob> jobs = getJobs(4);
+        long[] costs = {20, 40, 10, 30};
+        for (int i = 0; i < jobs.size(); i++) jobs.get(i).setEstimatedCost(costs[i]);
+
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        Pipeline pipeline = new Pipeline(4, policy).addStage("execute", 1, job -> processed.add(job.getName()));
+        pipeline.run(jobs);
+
+        List<String> expectedResult = List.of(order.split(" "));
+
+        Assertions.assertEquals(expectedResult, processed);
+        Assertions.assertTrue(pipeline.getMakespanReport().startsWith("Scheduling policy " + policy + ", makespan"));
+    }
+
+    private List<BatchJob> getJobs(int count) {
+        List<BatchJob> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) jobs.add(new BatchJob(Path.of("ST" + i + ".pdf"), "ST" + i, "ST" + i + ".html"));
+        return jobs;
+    }
+}
@@ -0,0 +1,84 @@
+package cz.cvut.fel.evaluator.evaluation.pipeline;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class WorkerControllerTest {
+
+    @Test
+    void adjust_ThroughputPeaksAtFourWorkers_SettlesAtFour() {
+        WorkerController controller = new WorkerController(1, 8, 2, 4, 0.85, 0.1);
+        double[] throughputs = {0, 10, 15, 18, 21, 19, 14, 12, 9};
+
+        for (int i = 0; i < 10 && !controller.isConverged(); i++)
+            controller.adjust(throughputs[controller.getLimit()], 0, 0.5);
+
+        Assertions.assertTrue(controller.isConverged());
+        Assertions.assertEquals(4, controller.getLimit());
+        Assertions.assertEquals(List.of(2, 3, 4, 5, 3, 4), controller.getHistory());
+    }
+
+    @Test
+    void adjust_HeapOverLimit_WorkerIsRemovedAndCeilingIsLowered() {
+        WorkerController controller = new WorkerController(1, 8, 4, 4, 0.85, 0.1);
+
+        int actualResult = controller.adjust(10, 0, 0.95);
+
+        Assertions.assertEquals(3, actualResult);
+        Assertions.assertEquals(3, controller.getCeiling());
+    }
+
+    @Test
+    void adjust_HeapBelowLimitAgain_CeilingRecoversAndWorkerIsAddedAgain() {
+        WorkerController controller = new WorkerController(1, 8, 4, 4, 0.85, 0.1);
+
+        controller.adjust(10, 0, 0.95);
+        controller.adjust(10, 0, 0.5);
+        controller.adjust(10, 0, 0.5);
+
+        Assertions.assertEquals(5, controller.getCeiling());
+        Assertions.assertEquals(4, controller.getLimit());
+        Assertions.assertEquals(List.of(4, 3, 2, 4), controller.getHistory());
+    }
+
+    @Test
+    void adjust_LongGcPauses_WorkerIsRemoved() {
+        WorkerController controller = new WorkerController(1, 8, 4, 4, 0.85, 0.1);
+
+        int actualResult = controller.adjust(10, 0.3, 0.5);
+
+        Assertions.assertEquals(3, actualResult);
+    }
+
+    @Test
+    void run_AdaptiveStage_AtMostLimitWorkersAreActive() throws Exception {
+        WorkerController controller = new WorkerController(1, 2, 1, 4, 0.85, 0.1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+        Pipeline pipeline = new Pipeline(2).addStage("extract", controller, job -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            active.decrementAndGet();
+            processed.add(job.getName());
+        });
+
+        List<BatchJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) jobs.add(new BatchJob(Path.of("ST" + i + ".pdf"), "ST" + i, "ST" + i + ".html"));
+        pipeline.run(jobs);
+
+        Assertions.assertEquals(40, processed.size());
+        Assertions.assertTrue(maxActive.get() <= controller.getMaxWorkers());
+        Assertions.assertTrue(pipeline.getUtilizationReport().get(1).startsWith("Adaptive workers of stage extract: 1"));
+    }
+}
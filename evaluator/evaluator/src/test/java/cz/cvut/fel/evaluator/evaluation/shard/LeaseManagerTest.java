@@ -0,0 +1,95 @@
+package cz.cvut.fel.evaluator.evaluation.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest
+public class LeaseManagerTest {
+
+    LeaseManager first = getLeaseManager("machine1");
+    LeaseManager second = getLeaseManager("machine2");
+
+    @AfterEach
+    public void tearDown() {
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void claim_SolutionLeasedByOtherProcess_LeaseIsNotGranted(@TempDir Path directory) throws Exception {
+        Path solution = Files.writeString(directory.resolve("student1.pdf"), "");
+
+        Optional<Lease> firstLease = first.claim(solution);
+        Optional<Lease> secondLease = second.claim(solution);
+
+        Assertions.assertTrue(firstLease.isPresent());
+        Assertions.assertTrue(secondLease.isEmpty());
+        Assertions.assertEquals("machine1", Files.readString(firstLease.get().getFile()));
+    }
+
+    @Test
+    void claim_ExpiredLease_LeaseIsTakenOver(@TempDir Path directory) throws Exception {
+        Path solution = Files.writeString(directory.resolve("student1.pdf"), "");
+        Lease firstLease = first.claim(solution).orElseThrow();
+        Files.setLastModifiedTime(firstLease.getFile(), FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+
+        Optional<Lease> secondLease = second.claim(solution);
+
+        Assertions.assertTrue(secondLease.isPresent());
+        Assertions.assertFalse(first.renew(firstLease));
+        Assertions.assertTrue(second.renew(secondLease.get()));
+    }
+
+    @Test
+    void release_ReleasedLease_SolutionCanBeClaimedAgain(@TempDir Path directory) throws Exception {
+        Path solution = Files.writeString(directory.resolve("student1.pdf"), "");
+        first.release(first.claim(solution).orElseThrow());
+
+        Optional<Lease> actualResult = second.claim(solution);
+
+        Assertions.assertTrue(actualResult.isPresent());
+    }
+
+    @Test
+    void claim_ManyProcessesAtOnce_EverySolutionIsClaimedOnce(@TempDir Path directory) throws Exception {
+        List<Path> solutions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) solutions.add(Files.writeString(directory.resolve("student" + i + ".pdf"), ""));
+
+        List<String> claims = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService processes = Executors.newFixedThreadPool(4);
+        for (int process = 0; process < 4; process++) {
+            LeaseManager leaseManager = getLeaseManager("machine" + process);
+            processes.submit(() -> {
+                for (Path solution : solutions)
+                    if (leaseManager.claim(solution).isPresent()) claims.add(solution.getFileName().toString());
+                return null;
+            });
+        }
+        processes.shutdown();
+        processes.awaitTermination(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(20, claims.size());
+        Assertions.assertEquals(20, claims.stream().distinct().count());
+    }
+
+    private LeaseManager getLeaseManager(String owner) {
+        LeaseManager leaseManager = new LeaseManager();
+        ReflectionTestUtils.setField(leaseManager, "owner", owner);
+        return leaseManager;
+    }
+}
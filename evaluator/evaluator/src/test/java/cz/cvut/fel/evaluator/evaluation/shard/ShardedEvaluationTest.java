@@ -0,0 +1,178 @@
+package cz.cvut.fel.evaluator.evaluation.shard;
+
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.BatchJournal;
+import cz.cvut.fel.evaluator.evaluation.BatchManifest;
+import cz.cvut.fel.evaluator.evaluation.BatchProcessor;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.evaluation.ManifestEntry;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarityDetector;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.evaluation.sql.StatementCache;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerPool;
+import cz.cvut.fel.evaluator.output.CohortStatistics;
+import cz.cvut.fel.evaluator.output.HTMLOutput;
+import cz.cvut.fel.evaluator.output.Output;
+import cz.cvut.fel.evaluator.utils.FileUtils;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+public class ShardedEvaluationTest {
+
+    @Mock
+    SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    @Mock
+    Output output;
+
+    @Mock
+    HTMLOutput htmlOutput;
+
+    @Mock
+    CohortStatistics cohortStatistics;
+
+    @Mock
+    StatementCache statementCache;
+
+    @Mock
+    SimilarityDetector similarityDetector;
+
+    @Mock
+    BatchManifest batchManifest;
+
+    @Mock
+    EvaluationHistory evaluationHistory;
+
+    @Mock
+    SolutionReader solutionReader;
+
+    @Mock
+    WorkerPool workerPool;
+
+    @Mock
+    BatchJournal batchJournal;
+
+    @Mock
+    LeaseManager leaseManager;
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    ShardedEvaluation shardedEvaluation;
+
+    MockedStatic<FileUtils> utilities;
+
+    @BeforeEach
+    public void setUpMock() {
+        utilities = Mockito.mockStatic(FileUtils.class);
+        BatchProcessor batchProcessor = new BatchProcessor(sqlSolutionEvaluator, statementCache, similarityDetector, batchManifest,
+                evaluationHistory, solutionReader, workerPool);
+        ReflectionTestUtils.setField(batchProcessor, "htmlOutput", htmlOutput);
+        ReflectionTestUtils.setField(batchProcessor, "cohortStatistics", cohortStatistics);
+        shardedEvaluation = new ShardedEvaluation(batchProcessor, batchManifest, batchJournal, leaseManager);
+    }
+
+    @AfterEach
+    public void close() {
+        utilities.close();
+    }
+
+    @Test
+    void run_SolutionFinishedByOtherProcess_OnlyRemainingSolutionIsEvaluated(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        Files.writeString(batchDirectory.resolve("student2.pdf"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        ManifestEntry entry = getManifestEntry();
+        Path result1 = batchDirectory.resolve("student1.result.json");
+        Path result2 = batchDirectory.resolve("student2.result.json");
+        Lease lease = new Lease(batchDirectory.resolve("student2.pdf"), batchDirectory.resolve("student2.pdf.lease"));
+        when(batchManifest.getBatchHash(CRITERIA_JSON)).thenReturn("BATCH_HASH");
+        when(batchJournal.readResult(result1, "BATCH_HASH")).thenReturn(Optional.of(entry));
+        when(batchJournal.readResult(result2, "BATCH_HASH")).thenReturn(Optional.empty(), Optional.empty(), Optional.of(entry));
+        when(leaseManager.claim(batchDirectory.resolve("student2.pdf"))).thenReturn(Optional.of(lease));
+        when(leaseManager.getOwner()).thenReturn("machine1");
+        when(solutionReader.read(Mockito.any())).thenReturn("SELECT * FROM TABLE_NAME_2;");
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        doAnswer(invocation -> Files.writeString(invocation.getArgument(1), "")).when(similarityDetector).writeReport(any(), any());
+        doAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(0), "");
+            return Files.writeString(invocation.getArgument(1), "");
+        }).when(cohortStatistics).writeSummary(any(), any());
+
+        shardedEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(solutionReader, times(1)).read(batchDirectory.resolve("student2.pdf"));
+        verify(batchJournal, times(1)).writeResult(eq(result2), eq("student2"), eq("BATCH_HASH"), any());
+        verify(leaseManager, times(1)).release(lease);
+        verify(cohortStatistics, times(2)).add(Mockito.anyMap());
+        Assertions.assertTrue(Files.exists(batchDirectory.resolve("cohort-summary.html")));
+    }
+
+    @Test
+    void run_UnchangedSolution_IsRescoredFromManifest(@TempDir Path batchDirectory) throws Exception {
+        Files.writeString(batchDirectory.resolve("student1.pdf"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(batchDirectory.toString());
+
+        ManifestEntry entry = getManifestEntry();
+        Path result1 = batchDirectory.resolve("student1.result.json");
+        Lease lease = new Lease(batchDirectory.resolve("student1.pdf"), batchDirectory.resolve("student1.pdf.lease"));
+        when(batchManifest.getBatchHash(CRITERIA_JSON)).thenReturn("BATCH_HASH");
+        when(batchJournal.readResult(result1, "BATCH_HASH")).thenReturn(Optional.empty(), Optional.empty(), Optional.of(entry));
+        when(leaseManager.claim(batchDirectory.resolve("student1.pdf"))).thenReturn(Optional.of(lease));
+        when(leaseManager.getOwner()).thenReturn("machine1");
+        when(batchManifest.getFileHash(Mockito.any())).thenReturn("FILE_HASH");
+        when(batchManifest.getEntry("student1")).thenReturn(Optional.of(entry));
+        when(batchManifest.getEvaluationHash(Mockito.anyList(), Mockito.anyMap())).thenReturn("EVALUATION_HASH");
+        when(batchManifest.rescore(eq(entry), Mockito.anyMap())).thenReturn(output);
+        when(output.getCriteria()).thenReturn(entry.getCriteria());
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        doAnswer(invocation -> Files.writeString(invocation.getArgument(1), "")).when(similarityDetector).writeReport(any(), any());
+        doAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(0), "");
+            return Files.writeString(invocation.getArgument(1), "");
+        }).when(cohortStatistics).writeSummary(any(), any());
+
+        shardedEvaluation.run(CRITERIA_JSON, batchDirectory.toString(), null);
+
+        verify(solutionReader, never()).read(Mockito.any());
+        verify(sqlSolutionEvaluator, never()).evaluate(any(), Mockito.anyList());
+        verify(htmlOutput, times(1)).generateEvaluationResult(eq(output), eq("student1.html"));
+        verify(batchJournal, times(1)).writeResult(eq(result1), eq("student1"), eq("BATCH_HASH"), any());
+        verify(batchManifest, times(1)).putEntry("student1", entry);
+        verify(batchManifest, times(1)).save(batchDirectory);
+    }
+
+    private Map<String, Criterion> readCriteria() throws Exception {
+        return new ObjectMapper().readValue(Files.readString(Path.of(CRITERIA_JSON)), new TypeReference<>() {});
+    }
+
+    private ManifestEntry getManifestEntry() throws Exception {
+        return new ManifestEntry("FILE_HASH", "EVALUATION_HASH", List.of("SELECT * FROM TABLE_NAME_1;"), readCriteria(),
+                List.of(), List.of(), List.of(), List.of());
+    }
+}
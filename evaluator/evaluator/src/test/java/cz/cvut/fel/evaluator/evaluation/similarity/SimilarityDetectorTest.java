@@ -0,0 +1,76 @@
+package cz.cvut.fel.evaluator.evaluation.similarity;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+public class SimilarityDetectorTest {
+
+    SimilarityDetector similarityDetector = new SimilarityDetector();
+
+    @Test
+    void findSimilar_CopiedSubmission_PairIsFound() {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        statements.put("ST01", getSubmission(1));
+        statements.put("ST02", getSubmission(2));
+        statements.put("ST03", formatDifferently(getSubmission(1)));
+
+        List<SimilarPair> actualResult = similarityDetector.findSimilar(statements);
+
+        Assertions.assertEquals(1, actualResult.size());
+        Assertions.assertEquals("ST01", actualResult.get(0).getFirst());
+        Assertions.assertEquals("ST03", actualResult.get(0).getSecond());
+        Assertions.assertEquals(1.0, actualResult.get(0).getSimilarity());
+    }
+
+    @Test
+    void findSimilar_ThousandSubmissions_OnlyCopiedPairIsFound() {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) statements.put("ST" + i, getSubmission(i));
+        statements.put("COPY", getSubmission(500));
+
+        List<SimilarPair> actualResult = similarityDetector.findSimilar(statements);
+
+        Assertions.assertEquals(1, actualResult.size());
+        Assertions.assertEquals("ST500", actualResult.get(0).getFirst());
+        Assertions.assertEquals("COPY", actualResult.get(0).getSecond());
+    }
+
+    @Test
+    void findSimilar_StatementsOfAssignment_PairIsNotFound() {
+        List<String> assignment = List.of("CREATE TABLE PERSON (ID INT PRIMARY KEY, NAME VARCHAR(50) NOT NULL);");
+
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            List<String> submission = new ArrayList<>(assignment);
+            submission.add("SELECT NAME FROM PERSON WHERE ID = " + i + ";");
+            statements.put("ST" + i, submission);
+        }
+
+        List<SimilarPair> actualResult = similarityDetector.findSimilar(statements);
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    private List<String> getSubmission(int student) {
+        List<String> submission = new ArrayList<>();
+        submission.add("CREATE TABLE TABLE_" + student + " (ID_" + student + " INT PRIMARY KEY, NAME_" + student + " VARCHAR(50));");
+        for (int row = 0; row < 5; row++)
+            submission.add("INSERT INTO TABLE_" + student + " VALUES (" + (student * 100 + row) + ", 'NAME " + student + " " + row + "');");
+        submission.add("SELECT NAME_" + student + " FROM TABLE_" + student + " WHERE ID_" + student + " > " + student + ";");
+        return submission;
+    }
+
+    private List<String> formatDifferently(List<String> submission) {
+        List<String> formatted = new ArrayList<>();
+        submission.forEach(statement -> formatted.add(statement.toLowerCase().replace(" ", "\n  ").replace("'name\n  ", "'NAME ")
+                .replaceAll("'NAME (\\d+)\n  (\\d+)'", "'NAME $1 $2'")));
+        return formatted;
+    }
+}
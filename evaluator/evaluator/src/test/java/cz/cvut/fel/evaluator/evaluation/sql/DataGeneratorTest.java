@@ -0,0 +1,65 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import cz.cvut.fel.evaluator.evaluation.model.RelationalModel;
+import cz.cvut.fel.evaluator.evaluation.model.Table;
+import cz.cvut.fel.evaluator.evaluation.sql.query.TableQueryHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+public class DataGeneratorTest {
+
+    private final DataGenerator dataGenerator;
+
+    private final TableQueryHandler tableQueryHandler;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DataGeneratorTest(DataGenerator dataGenerator, TableQueryHandler tableQueryHandler, JdbcTemplate jdbcTemplate) {
+        this.dataGenerator = dataGenerator;
+        this.tableQueryHandler = tableQueryHandler;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Test
+    void generate_TablesWithReference_GeneratedRowsAreInserted() {
+        long rowsBefore = countRows("TABLE_NAME_1") + countRows("TABLE_NAME_2");
+
+        long actualResult = dataGenerator.generate(getRelationalModel(), 20);
+        long expectedResult = countRows("TABLE_NAME_1") + countRows("TABLE_NAME_2") - rowsBefore;
+
+        Assertions.assertEquals(expectedResult, actualResult);
+        Assertions.assertTrue(countRows("TABLE_NAME_2") > 0);
+    }
+
+    @Test
+    void generate_ZeroRows_NoRowIsInserted() {
+        long expectedResult = 0;
+        long actualResult = dataGenerator.generate(getRelationalModel(), 0);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    private RelationalModel getRelationalModel() {
+        RelationalModel relationalModel = new RelationalModel();
+
+        for (String name : tableQueryHandler.getTableNames()) {
+            Table table = new Table(name, tableQueryHandler.getColumns(name));
+            table.addPrimaryKey(tableQueryHandler.getPrimaryKey(name));
+            tableQueryHandler.getUniqueNotNull(name).values().forEach(table::addPrimaryKey);
+            table.addReferentialConstraints(tableQueryHandler.getReferentialConstraints(name));
+            relationalModel.addTable(table);
+        }
+        return relationalModel;
+    }
+
+    private long countRows(String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + name, Long.class);
+    }
+}
@@ -0,0 +1,62 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+public class IndexAnalyzerTest {
+
+    private static final String createIndexQuery = "CREATE INDEX INDEX_NAME ON INDEXED_TABLE (VALUE_COLUMN)";
+
+    private final IndexAnalyzer indexAnalyzer;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IndexAnalyzerTest(IndexAnalyzer indexAnalyzer, JdbcTemplate jdbcTemplate) {
+        this.indexAnalyzer = indexAnalyzer;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void createIndexedTable() {
+        jdbcTemplate.execute("CREATE TABLE INDEXED_TABLE (ID INT PRIMARY KEY, VALUE_COLUMN INT)");
+        jdbcTemplate.execute("INSERT INTO INDEXED_TABLE SELECT X, X FROM SYSTEM_RANGE(1, 50000)");
+        jdbcTemplate.execute(createIndexQuery);
+    }
+
+    @AfterEach
+    void dropIndexedTable() {
+        jdbcTemplate.execute("DROP TABLE INDEXED_TABLE");
+    }
+
+    @Test
+    void findBeneficialIndexes_IndexUsedByQuery_IndexIsFound() {
+        Map<String, String> actualResult = indexAnalyzer.findBeneficialIndexes(List.of(createIndexQuery),
+                List.of("SELECT * FROM INDEXED_TABLE WHERE VALUE_COLUMN = 25000"));
+
+        Assertions.assertTrue(actualResult.containsKey(createIndexQuery));
+        Assertions.assertEquals(1, countIndexes());
+    }
+
+    @Test
+    void findBeneficialIndexes_IndexNotUsedByQuery_NoIndexIsFound() {
+        Map<String, String> actualResult = indexAnalyzer.findBeneficialIndexes(List.of(createIndexQuery),
+                List.of("SELECT * FROM INDEXED_TABLE WHERE ID = 25000"));
+
+        Assertions.assertTrue(actualResult.isEmpty());
+        Assertions.assertEquals(1, countIndexes());
+    }
+
+    private long countIndexes() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'INDEX_NAME'", Long.class);
+    }
+}
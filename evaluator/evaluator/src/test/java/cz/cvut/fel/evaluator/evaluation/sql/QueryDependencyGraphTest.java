@@ -0,0 +1,93 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryDependencyGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.Set;
+
+@SpringBootTest
+public class QueryDependencyGraphTest {
+
+    QueryDependencyGraph dependencyGraph = new QueryDependencyGraph();
+
+    @ParameterizedTest(name = "getCreatedObject_QueryIs{0}_CreatedObjectIs{1}")
+    @CsvSource(delimiter = '|', value = {
+            "CREATE TABLE TABLE_NAME_1 (A INT);|TABLE_NAME_1",
+            "CREATE TABLE IF NOT EXISTS PUBLIC.\"TABLE_NAME_1\" (A INT);|TABLE_NAME_1",
+            "CREATE SEQUENCE SEQUENCE_NAME START WITH 1;|SEQUENCE_NAME"})
+    void getCreatedObject_CreateQuery_ObjectNameIsGot(String query, String expectedResult) {
+        String actualResult = QueryDependencyGraph.getCreatedObject(query);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getCreatedObject_SelectQuery_NullIsGot() {
+        String actualResult = QueryDependencyGraph.getCreatedObject("SELECT * FROM TABLE_NAME_1;");
+
+        Assertions.assertNull(actualResult);
+    }
+
+    @Test
+    void getReferencedObjects_CreateTableQueryWithReferences_ReferencedObjectsAreGot() {
+        String query = "CREATE TABLE TABLE_NAME_2 (\n" +
+                "A INT DEFAULT NEXTVAL('SEQUENCE_NAME') PRIMARY KEY,\n" +
+                "B INT REFERENCES TABLE_NAME_1 (A));";
+
+        Set<String> expectedResult = Set.of("TABLE_NAME_1", "SEQUENCE_NAME");
+        Set<String> actualResult = QueryDependencyGraph.getReferencedObjects(query);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getReferencedObjects_SelectQueryWithJoin_ReferencedTablesAreGot() {
+        String query = "SELECT * FROM TABLE_NAME_1 T1 JOIN TABLE_NAME_2 T2 ON T1.A = T2.B;";
+
+        Set<String> expectedResult = Set.of("TABLE_NAME_1", "TABLE_NAME_2");
+        Set<String> actualResult = QueryDependencyGraph.getReferencedObjects(query);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getFailedPrerequisites_ReferencedTableFailed_FailedTableIsGot() {
+        dependencyGraph.markFailed("CREATE TABLE TABLE_NAME_1 (A INT);");
+
+        Set<String> expectedResult = Set.of("TABLE_NAME_1");
+        Set<String> actualResult = dependencyGraph.getFailedPrerequisites("INSERT INTO TABLE_NAME_1 VALUES (1);");
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getFailedPrerequisites_FailedTableWasCreatedLater_NoPrerequisiteIsGot() {
+        dependencyGraph.markFailed("CREATE TABLE TABLE_NAME_1 (A INT);");
+        dependencyGraph.markExecuted("CREATE TABLE TABLE_NAME_1 (A INTEGER);");
+
+        Set<String> actualResult = dependencyGraph.getFailedPrerequisites("INSERT INTO TABLE_NAME_1 VALUES (1);");
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void markSkipped_SkippedCreateTableQuery_DependentQueriesAreSkippedToo() {
+        dependencyGraph.markFailed("CREATE TABLE TABLE_NAME_1 (A INT);");
+
+        String createQuery = "CREATE TABLE TABLE_NAME_2 (A INT REFERENCES TABLE_NAME_1 (A));";
+        dependencyGraph.markSkipped(createQuery, dependencyGraph.getFailedPrerequisites(createQuery));
+
+        String insertQuery = "INSERT INTO TABLE_NAME_2 VALUES (1);";
+        dependencyGraph.markSkipped(insertQuery, dependencyGraph.getFailedPrerequisites(insertQuery));
+
+        Map<String, Integer> expectedResult = Map.of("TABLE_NAME_1", 1, "TABLE_NAME_2", 1);
+        Map<String, Integer> actualResult = dependencyGraph.getSkippedQueriesCounts();
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+}
@@ -0,0 +1,87 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@SpringBootTest
+public class QueryPlanTest {
+
+    private final SQLExecutor sqlExecutor;
+
+    private final Map<String, Long> rowCounts = Map.of("TABLE_NAME_1", 1000L, "TABLE_NAME_2", 2000L);
+
+    @Autowired
+    public QueryPlanTest(SQLExecutor sqlExecutor) {
+        this.sqlExecutor = sqlExecutor;
+    }
+
+    @Test
+    void queryPlan_JoinWithoutJoinPredicate_CartesianJoinIsFound() {
+        QueryPlan queryPlan = getQueryPlan("SELECT * FROM TABLE_NAME_1, TABLE_NAME_2 WHERE TABLE_NAME_2.TABLE_ATTRIBUTE_3 = '1'");
+
+        Assertions.assertTrue(queryPlan.hasCartesianJoin());
+        Assertions.assertEquals(2000000, queryPlan.getCartesianRows());
+    }
+
+    @Test
+    void queryPlan_JoinWithJoinPredicate_NoCartesianJoinIsFound() {
+        QueryPlan queryPlan = getQueryPlan("SELECT * FROM TABLE_NAME_1 T1 JOIN TABLE_NAME_2 T2 ON T1.TABLE_ATTRIBUTE_2 = T2.TABLE_ATTRIBUTE_3");
+
+        Assertions.assertFalse(queryPlan.hasCartesianJoin());
+    }
+
+    @Test
+    void queryPlan_InnerSelect_NoCartesianJoinIsFound() {
+        QueryPlan queryPlan = getQueryPlan("SELECT * FROM TABLE_NAME_1 WHERE TABLE_ATTRIBUTE_1 IN (SELECT TABLE_ATTRIBUTE_1 FROM TABLE_NAME_2)");
+
+        Assertions.assertFalse(queryPlan.hasCartesianJoin());
+    }
+
+    @Test
+    void queryPlan_JoinWithoutJoinPredicateInDerivedTable_CartesianJoinIsFound() {
+        QueryPlan queryPlan = getQueryPlan("SELECT T.A FROM (SELECT T1.TABLE_ATTRIBUTE_1 AS A FROM TABLE_NAME_1 T1, TABLE_NAME_2 T2) AS T");
+
+        Assertions.assertTrue(queryPlan.hasCartesianJoin());
+    }
+
+    @Test
+    void queryPlan_ConditionOnColumnWithoutIndex_FullScanIsFound() {
+        QueryPlan queryPlan = getQueryPlan("SELECT * FROM TABLE_NAME_1 WHERE TABLE_ATTRIBUTE_3 = '1'");
+
+        Set<String> expectedResult = Set.of("TABLE_NAME_1");
+        Set<String> actualResult = queryPlan.getFullScans();
+
+        Assertions.assertEquals(expectedResult, actualResult);
+        Assertions.assertEquals(1000, queryPlan.getEstimatedCost());
+    }
+
+    @Test
+    void queryPlan_ConditionOnPrimaryKey_NoFullScanIsFound() {
+        QueryPlan queryPlan = getQueryPlan("SELECT * FROM TABLE_NAME_1 WHERE TABLE_ATTRIBUTE_1 = '1'");
+
+        Assertions.assertTrue(queryPlan.getFullScans().isEmpty());
+        Assertions.assertEquals(1, queryPlan.getEstimatedCost());
+    }
+
+    @Test
+    void getSummary_JoinWithoutJoinPredicate_SummaryDescribesPlan() {
+        QueryPlan queryPlan = getQueryPlan("SELECT * FROM TABLE_NAME_1 CROSS JOIN TABLE_NAME_2");
+
+        String expectedResult = "full scan of TABLE_NAME_1 (1000 rows), TABLE_NAME_2 (2000 rows); " +
+                "cartesian join of TABLE_NAME_1 and TABLE_NAME_2; estimated cost 2001000 rows";
+        String actualResult = queryPlan.getSummary();
+
+        Assertions.assertEquals(expectedResult, actualResult);
+        Assertions.assertEquals(List.of(List.of("TABLE_NAME_1", "TABLE_NAME_2")), queryPlan.getCartesianJoins());
+    }
+
+    private QueryPlan getQueryPlan(String query) {
+        return new QueryPlan(sqlExecutor.explain(query).orElseThrow(), rowCounts);
+    }
+}
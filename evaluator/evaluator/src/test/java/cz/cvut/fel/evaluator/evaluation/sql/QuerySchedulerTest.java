@@ -0,0 +1,135 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import cz.cvut.fel.evaluator.evaluation.sql.query.QueryScheduler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+@SpringBootTest
+public class QuerySchedulerTest {
+
+    QueryScheduler queryScheduler = new QueryScheduler();
+
+    @Test
+    void schedule_QueriesOfAllTypes_QueriesAreOrderedByPhases() {
+        List<String> queries = List.of(
+                "SELECT * FROM A;",
+                "INSERT INTO A VALUES (1);",
+                "CREATE TABLE A (ID INT DEFAULT NEXTVAL('S'));",
+                "DELETE FROM A;",
+                "CREATE INDEX I ON A (B);",
+                "ALTER TABLE A ADD COLUMN B INT;",
+                "CREATE SEQUENCE S;",
+                "DROP TABLE IF EXISTS A;");
+
+        List<String> expectedResult = List.of(
+                "DROP TABLE IF EXISTS A;",
+                "CREATE SEQUENCE S;",
+                "CREATE TABLE A (ID INT DEFAULT NEXTVAL('S'));",
+                "ALTER TABLE A ADD COLUMN B INT;",
+                "CREATE INDEX I ON A (B);",
+                "INSERT INTO A VALUES (1);",
+                "DELETE FROM A;",
+                "SELECT * FROM A;");
+        List<String> actualResult = queryScheduler.schedule(queries);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void schedule_InsertAndDeleteQueries_OriginalOrderOfInsertAndDeleteIsKept() {
+        List<String> queries = List.of(
+                "DELETE FROM B;",
+                "INSERT INTO B VALUES (1, 1);",
+                "INSERT INTO A VALUES (1);",
+                "DELETE FROM B WHERE ID = 1;",
+                "INSERT INTO B VALUES (2, 1);",
+                "CREATE TABLE B (ID INT PRIMARY KEY, A_ID INT REFERENCES A (ID));",
+                "CREATE TABLE A (ID INT PRIMARY KEY);");
+
+        List<String> expectedResult = List.of(
+                "CREATE TABLE A (ID INT PRIMARY KEY);",
+                "CREATE TABLE B (ID INT PRIMARY KEY, A_ID INT REFERENCES A (ID));",
+                "DELETE FROM B;",
+                "INSERT INTO A VALUES (1);",
+                "INSERT INTO B VALUES (1, 1);",
+                "DELETE FROM B WHERE ID = 1;",
+                "INSERT INTO B VALUES (2, 1);");
+        List<String> actualResult = queryScheduler.schedule(queries);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void schedule_IdenticalQueriesOfOtherTypes_EveryQueryIsKept() {
+        List<String> queries = List.of(
+                "UPDATE A SET B = B + 1;",
+                "CREATE TABLE A (B INT);",
+                "UPDATE A SET B = B + 1;",
+                "INSERT INTO A VALUES (1);",
+                "INSERT INTO A VALUES (1);");
+
+        List<String> expectedResult = List.of(
+                "CREATE TABLE A (B INT);",
+                "INSERT INTO A VALUES (1);",
+                "INSERT INTO A VALUES (1);",
+                "UPDATE A SET B = B + 1;",
+                "UPDATE A SET B = B + 1;");
+        List<String> actualResult = queryScheduler.schedule(queries);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void schedule_TableReferencesLaterTable_ReferencedTableIsCreatedFirst() {
+        List<String> queries = List.of(
+                "CREATE TABLE C (ID INT REFERENCES B (ID));",
+                "CREATE TABLE B (ID INT PRIMARY KEY, A_ID INT REFERENCES A (ID));",
+                "CREATE TABLE A (ID INT PRIMARY KEY);",
+                "CREATE TABLE D (ID INT);");
+
+        List<String> expectedResult = List.of(
+                "CREATE TABLE A (ID INT PRIMARY KEY);",
+                "CREATE TABLE B (ID INT PRIMARY KEY, A_ID INT REFERENCES A (ID));",
+                "CREATE TABLE C (ID INT REFERENCES B (ID));",
+                "CREATE TABLE D (ID INT);");
+        List<String> actualResult = queryScheduler.schedule(queries);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void schedule_TablesInReferenceCycle_OriginalOrderIsKept() {
+        List<String> queries = List.of(
+                "CREATE TABLE A (ID INT REFERENCES B (ID));",
+                "CREATE TABLE B (ID INT REFERENCES A (ID));");
+
+        List<String> actualResult = queryScheduler.schedule(queries);
+
+        Assertions.assertEquals(queries, actualResult);
+    }
+
+    @Test
+    void schedule_InsertIntoReferencingTableFirst_ReferencedRowsAreInsertedFirst() {
+        List<String> queries = List.of(
+                "CREATE TABLE A (ID INT PRIMARY KEY);",
+                "CREATE TABLE B (ID INT);",
+                "ALTER TABLE B ADD FOREIGN KEY (ID) REFERENCES A (ID);",
+                "INSERT INTO B VALUES (1);",
+                "INSERT INTO A VALUES (1);",
+                "INSERT INTO B VALUES (2);");
+
+        List<String> expectedResult = List.of(
+                "CREATE TABLE A (ID INT PRIMARY KEY);",
+                "CREATE TABLE B (ID INT);",
+                "ALTER TABLE B ADD FOREIGN KEY (ID) REFERENCES A (ID);",
+                "INSERT INTO A VALUES (1);",
+                "INSERT INTO B VALUES (1);",
+                "INSERT INTO B VALUES (2);");
+        List<String> actualResult = queryScheduler.schedule(queries);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+}
@@ -3,10 +3,14 @@ package cz.cvut.fel.evaluator.evaluation.sql;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.Optional;
+
 @SpringBootTest
 @ExtendWith(MockitoExtension.class)
 public class SQLExecutorTest {
@@ -33,4 +37,107 @@ public class SQLExecutorTest {
 
         Assertions.assertEquals(expectedResult, actualResult);
     }
+
+    @ParameterizedTest(name = "tryExecuteQuietly_ValidSelectQueryAndSelectValidationIs{0}_Success")
+    @EnumSource(SelectValidation.class)
+    void tryExecuteQuietly_ValidSelectQuery_Success(SelectValidation selectValidation) {
+        Optional<String> actualResult = sqlExecutor.tryExecuteQuietly("SELECT * FROM TABLE_NAME_1", "", selectValidation);
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @ParameterizedTest(name = "tryExecuteQuietly_InvalidSelectQueryAndSelectValidationIs{0}_ErrorIsReturned")
+    @EnumSource(SelectValidation.class)
+    void tryExecuteQuietly_InvalidSelectQuery_ErrorIsReturned(SelectValidation selectValidation) {
+        Optional<String> actualResult = sqlExecutor.tryExecuteQuietly("SELECT * FROM TABLE_NAME_3", "", selectValidation);
+
+        Assertions.assertTrue(actualResult.isPresent());
+    }
+
+    @Test
+    void explain_ValidSelectQuery_PlanIsGot() {
+        Optional<String> actualResult = sqlExecutor.explain("SELECT * FROM TABLE_NAME_1");
+
+        Assertions.assertTrue(actualResult.isPresent());
+        Assertions.assertTrue(actualResult.get().contains("TABLE_NAME_1"));
+    }
+
+    @Test
+    void explain_InvalidSelectQuery_NoPlanIsGot() {
+        Optional<String> actualResult = sqlExecutor.explain("SELECT * FROM TABLE_NAME_3");
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void measure_ValidSelectQuery_TimeIsMeasured() {
+        Optional<Long> actualResult = sqlExecutor.measure("SELECT * FROM TABLE_NAME_1", 1, 3);
+
+        Assertions.assertTrue(actualResult.isPresent());
+        Assertions.assertTrue(actualResult.get() >= 0);
+    }
+
+    @Test
+    void measure_InvalidSelectQuery_NoTimeIsMeasured() {
+        Optional<Long> actualResult = sqlExecutor.measure("SELECT * FROM TABLE_NAME_3", 1, 3);
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void getResultFingerprint_SameRowsInDifferentOrder_FingerprintsAreEqual() {
+        long expectedResult = sqlExecutor.getResultFingerprint("SELECT * FROM (VALUES (1, 'A'), (2, 'B'), (2, 'B'))").orElseThrow().getValue();
+        long actualResult = sqlExecutor.getResultFingerprint("SELECT * FROM (VALUES (2, 'B'), (1, 'A'), (2, 'B'))").orElseThrow().getValue();
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getResultFingerprint_DifferentRows_FingerprintsAreDifferent() {
+        long expectedResult = sqlExecutor.getResultFingerprint("SELECT * FROM (VALUES (1, 'A'), (2, 'B'), (2, 'B'))").orElseThrow().getValue();
+        long actualResult = sqlExecutor.getResultFingerprint("SELECT * FROM (VALUES (1, 'A'), (2, 'B'))").orElseThrow().getValue();
+
+        Assertions.assertNotEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getResultFingerprint_InvalidQuery_EmptyFingerprint() {
+        Assertions.assertTrue(sqlExecutor.getResultFingerprint("SELECT * FROM TABLE_NAME_3").isEmpty());
+    }
+
+    @Test
+    void tryExecuteQuietly_QueryFailingOnSecondRowAndSelectValidationIsFull_ErrorIsReturned() {
+        Optional<String> actualResult = sqlExecutor.tryExecuteQuietly(
+                "SELECT CAST(X AS INT) FROM (VALUES ('1'), ('A')) T(X)", "", SelectValidation.FULL);
+
+        Assertions.assertTrue(actualResult.isPresent());
+    }
+
+    @Test
+    void tryExecuteQuietly_QueryFailingOnSecondRowAndSelectValidationIsLimited_Success() {
+        Optional<String> actualResult = sqlExecutor.tryExecuteQuietly(
+                "SELECT CAST(X AS INT) FROM (VALUES ('1'), ('A')) T(X)", "", SelectValidation.LIMITED);
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void tryFingerprintQuietly_QueryFailingWhileRowsAreRead_ErrorIsReturned() {
+        String query = "SELECT CAST(X AS INT) FROM (VALUES ('1'), ('A')) T(X)";
+
+        StatementOutcome actualResult = sqlExecutor.tryFingerprintQuietly(query, "");
+
+        Assertions.assertTrue(sqlExecutor.tryExecuteQuietly(query, "", SelectValidation.PREPARE).isEmpty());
+        Assertions.assertNotNull(actualResult.getError());
+        Assertions.assertNull(actualResult.getResultFingerprint());
+    }
+
+    @Test
+    void tryFingerprintQuietly_ValidSelectQuery_FingerprintIsComputed() {
+        StatementOutcome actualResult = sqlExecutor.tryFingerprintQuietly("SELECT * FROM (VALUES (1, 'A'), (2, 'B'))", "");
+
+        Assertions.assertNull(actualResult.getError());
+        Assertions.assertEquals(sqlExecutor.getResultFingerprint("SELECT * FROM (VALUES (2, 'B'), (1, 'A'))").orElseThrow().getValue(),
+                actualResult.getResultFingerprint());
+    }
 }
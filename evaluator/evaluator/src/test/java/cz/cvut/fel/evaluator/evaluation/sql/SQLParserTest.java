@@ -39,12 +39,16 @@ public class SQLParserTest {
         String sqlSolution5 =
                 "SELECT * FROM TABLE_NAME_1;";
 
+        String sqlSolution6 =
+                "CREATE UNIQUE INDEX INDEX_NAME_1 ON TABLE_NAME_1 (TABLE_ATTRIBUTE_2);";
+
         return Stream.of(
                 Arguments.of(sqlSolution1),
                 Arguments.of(sqlSolution2),
                 Arguments.of(sqlSolution3),
                 Arguments.of(sqlSolution4),
-                Arguments.of(sqlSolution5)
+                Arguments.of(sqlSolution5),
+                Arguments.of(sqlSolution6)
         );
     }
 
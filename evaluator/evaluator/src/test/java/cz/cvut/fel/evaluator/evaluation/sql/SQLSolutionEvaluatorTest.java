@@ -11,6 +11,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.Map;
@@ -36,6 +37,21 @@ public class SQLSolutionEvaluatorTest {
     @Mock
     TableQueryHandler tableQueryHandler;
 
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    ReferenceSolution referenceSolution;
+
+    @Mock
+    DataGenerator dataGenerator;
+
+    @Mock
+    IndexAnalyzer indexAnalyzer;
+
+    @Mock
+    StatementCache statementCache;
+
     @Mock
     Map<String, Criterion> criteria;
 
@@ -0,0 +1,127 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+@SpringBootTest
+public class StatementCacheTest {
+
+    @Test
+    void getKey_QueriesDifferInWhitespace_KeysAreEqual() {
+        Optional<String> expectedResult = StatementCache.getKey(1, "FULL", "SELECT *\n  FROM TABLE_NAME_1");
+        Optional<String> actualResult = StatementCache.getKey(1, "FULL", "SELECT * FROM TABLE_NAME_1 ");
+
+        Assertions.assertTrue(expectedResult.isPresent());
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getKey_DifferentDatabases_KeysAreDifferent() {
+        Optional<String> expectedResult = StatementCache.getKey(1, "FULL", "SELECT * FROM TABLE_NAME_1");
+        Optional<String> actualResult = StatementCache.getKey(2, "FULL", "SELECT * FROM TABLE_NAME_1");
+
+        Assertions.assertNotEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getKey_QueryWithSequence_NoKey() {
+        Optional<String> actualResult = StatementCache.getKey(1, "FULL", "SELECT NEXTVAL('SEQUENCE_1')");
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void getDatabaseFingerprint_StatementsDifferInWhitespace_FingerprintsAreEqual() {
+        Optional<Long> expectedResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1 (ID INT)", "INSERT INTO TABLE_NAME_1 VALUES (1)"), 0);
+        Optional<Long> actualResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1\n  (ID INT)", "INSERT INTO TABLE_NAME_1 VALUES (1) "), 0);
+
+        Assertions.assertTrue(expectedResult.isPresent());
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getDatabaseFingerprint_DifferentData_FingerprintsAreDifferent() {
+        Optional<Long> expectedResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1 (ID INT)", "INSERT INTO TABLE_NAME_1 VALUES (1)"), 0);
+        Optional<Long> actualResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1 (ID INT)", "INSERT INTO TABLE_NAME_1 VALUES (2)"), 0);
+
+        Assertions.assertNotEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getDatabaseFingerprint_DifferentGeneratedRows_FingerprintsAreDifferent() {
+        Optional<Long> expectedResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1 (ID INT)"), 0);
+        Optional<Long> actualResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1 (ID INT)"), 1000);
+
+        Assertions.assertNotEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void getDatabaseFingerprint_InsertOfCurrentTime_NoFingerprint() {
+        Optional<Long> actualResult = StatementCache.getDatabaseFingerprint(
+                List.of("CREATE TABLE TABLE_NAME_1 (CREATED TIMESTAMP)", "INSERT INTO TABLE_NAME_1 VALUES (NOW())"), 0);
+
+        Assertions.assertTrue(actualResult.isEmpty());
+    }
+
+    @Test
+    void get_StoredOutcome_OutcomeIsReturnedAndHitIsReported() {
+        StatementCache statementCache = new StatementCache();
+        StatementOutcome outcome = new StatementOutcome(null, "PLAN", 42L, 2_000_000);
+
+        Optional<StatementOutcome> missedOutcome = statementCache.get("KEY");
+        statementCache.put("KEY", outcome);
+        Optional<StatementOutcome> actualResult = statementCache.get("KEY");
+
+        Assertions.assertTrue(missedOutcome.isEmpty());
+        Assertions.assertEquals(Optional.of(outcome), actualResult);
+        Assertions.assertEquals("Statement cache: 1 hits of 2 lookups (50.0 %), 2.0 ms of execution saved",
+                statementCache.getReport());
+    }
+
+    @Test
+    void put_CacheIsFull_LeastRecentlyUsedOutcomeIsRemoved() {
+        StatementCache statementCache = new StatementCache();
+        ReflectionTestUtils.setField(statementCache, "capacity", 2);
+
+        statementCache.put("KEY_1", new StatementOutcome());
+        statementCache.put("KEY_2", new StatementOutcome());
+        statementCache.get("KEY_1");
+        statementCache.put("KEY_3", new StatementOutcome());
+
+        Assertions.assertTrue(statementCache.get("KEY_1").isPresent());
+        Assertions.assertTrue(statementCache.get("KEY_2").isEmpty());
+        Assertions.assertTrue(statementCache.get("KEY_3").isPresent());
+    }
+
+    @Test
+    void save_OutcomesAreSaved_OutcomesAreLoadedByAnotherCache(@TempDir Path directory) {
+        String file = directory.resolve("statement-cache.json").toString();
+
+        StatementCache savedCache = new StatementCache();
+        ReflectionTestUtils.setField(savedCache, "file", file);
+        savedCache.put("KEY", new StatementOutcome("ERROR", null, null, 1000));
+        savedCache.save();
+
+        StatementCache loadedCache = new StatementCache();
+        ReflectionTestUtils.setField(loadedCache, "file", file);
+        loadedCache.load();
+
+        Optional<String> expectedResult = Optional.of("ERROR");
+        Optional<String> actualResult = loadedCache.get("KEY").map(StatementOutcome::getError);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+}
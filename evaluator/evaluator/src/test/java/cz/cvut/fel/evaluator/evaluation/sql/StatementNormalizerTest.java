@@ -0,0 +1,50 @@
+package cz.cvut.fel.evaluator.evaluation.sql;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+@SpringBootTest
+public class StatementNormalizerTest {
+
+    StatementNormalizer statementNormalizer = new StatementNormalizer();
+
+    @Test
+    void normalize_SelectQuery_CanonicalTokensAreGot() {
+        List<String> expectedResult = List.of("SELECT", "NAME", "FROM", "TABLE_NAME_1", "WHERE", "ID", "<>", "?", "AND", "NAME", "=", "?");
+        List<String> actualResult = statementNormalizer.normalize(
+                "select name\n  from \"TABLE_NAME_1\" -- comment\nwhere id != 10 AND /* other comment */ name = 'A;B';").getTokens();
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void normalize_QueriesDifferInFormatting_FingerprintsAreEqual() {
+        NormalizedStatement expectedResult = statementNormalizer.normalize("SELECT * FROM TABLE_NAME_1 WHERE ID = 1;");
+        NormalizedStatement actualResult = statementNormalizer.normalize("select *\n\tfrom table_name_1\nwhere id=1");
+
+        Assertions.assertEquals(expectedResult.getFingerprint(), actualResult.getFingerprint());
+        Assertions.assertEquals(expectedResult.getExactFingerprint(), actualResult.getExactFingerprint());
+    }
+
+    @Test
+    void normalize_QueriesDifferInLiterals_OnlyExactFingerprintsAreDifferent() {
+        NormalizedStatement expectedResult = statementNormalizer.normalize("SELECT * FROM TABLE_NAME_1 WHERE ID = 1 AND NAME = 'A'");
+        NormalizedStatement actualResult = statementNormalizer.normalize("SELECT * FROM TABLE_NAME_1 WHERE ID = 2.5E3 AND NAME = 'B'");
+
+        Assertions.assertEquals(expectedResult.getFingerprint(), actualResult.getFingerprint());
+        Assertions.assertNotEquals(expectedResult.getExactFingerprint(), actualResult.getExactFingerprint());
+        Assertions.assertEquals(List.of("2.5E3", "'B'"), actualResult.getLiterals());
+    }
+
+    @Test
+    void normalize_QuotedIdentifierInLowerCase_QuotesAreKept() {
+        NormalizedStatement expectedResult = statementNormalizer.normalize("SELECT * FROM TABLE_NAME_1");
+        NormalizedStatement actualResult = statementNormalizer.normalize("SELECT * FROM \"table_name_1\"");
+
+        Assertions.assertNotEquals(expectedResult.getFingerprint(), actualResult.getFingerprint());
+        Assertions.assertEquals("SELECT * FROM \"table_name_1\"", actualResult.getCanonicalText());
+    }
+}
@@ -0,0 +1,78 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@SpringBootTest
+public class ResultWriterTest {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void complete_InputOrdering_ResultsAreWrittenInOrderOfSubmissions() throws Exception {
+        ResultWriter writer = getResultWriter(StreamOrdering.INPUT, 3);
+
+        writer.complete(StreamResult.ofError(2, "st3", "ERROR"));
+        writer.complete(StreamResult.ofError(1, "st2", "ERROR"));
+        List<String> beforeFirst = getIds();
+        writer.complete(StreamResult.ofError(0, "st1", "ERROR"));
+        writer.await(3);
+
+        Assertions.assertTrue(beforeFirst.isEmpty());
+        Assertions.assertEquals(List.of("st1", "st2", "st3"), getIds());
+    }
+
+    @Test
+    void complete_CompletionOrdering_ResultsAreWrittenAsTheyFinish() throws Exception {
+        ResultWriter writer = getResultWriter(StreamOrdering.COMPLETION, 3);
+
+        writer.complete(StreamResult.ofError(2, "st3", "ERROR"));
+        writer.complete(StreamResult.ofError(0, "st1", "ERROR"));
+        writer.complete(StreamResult.ofError(1, "st2", "ERROR"));
+        writer.await(3);
+
+        Assertions.assertEquals(List.of("st3", "st1", "st2"), getIds());
+    }
+
+    @Test
+    void acquire_WindowIsFull_WaitsUntilResultIsWritten() throws Exception {
+        ResultWriter writer = getResultWriter(StreamOrdering.COMPLETION, 2);
+        writer.acquire();
+        writer.acquire();
+
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> {
+            try {
+                writer.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Assertions.assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+        writer.complete(StreamResult.ofError(0, "st1", "ERROR"));
+        third.get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(third.isDone());
+    }
+
+    private ResultWriter getResultWriter(StreamOrdering ordering, int window) {
+        return new ResultWriter(new PrintStream(output, true, StandardCharsets.UTF_8), ordering, window);
+    }
+
+    private List<String> getIds() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n"))
+            if (!line.isBlank()) ids.add(new ObjectMapper().readTree(line).get("id").asText());
+        return ids;
+    }
+}
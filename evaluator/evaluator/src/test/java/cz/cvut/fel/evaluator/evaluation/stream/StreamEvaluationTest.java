@@ -0,0 +1,102 @@
+package cz.cvut.fel.evaluator.evaluation.stream;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.BatchManifest;
+import cz.cvut.fel.evaluator.evaluation.BatchProcessor;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarityDetector;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.evaluation.sql.StatementCache;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerPool;
+import cz.cvut.fel.evaluator.output.Output;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+public class StreamEvaluationTest {
+
+    @Mock
+    SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    @Mock
+    Output output;
+
+    @Mock
+    StatementCache statementCache;
+
+    @Mock
+    SimilarityDetector similarityDetector;
+
+    @Mock
+    BatchManifest batchManifest;
+
+    @Mock
+    EvaluationHistory evaluationHistory;
+
+    @Mock
+    SolutionReader solutionReader;
+
+    @Mock
+    WorkerPool workerPool;
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    StreamEvaluation streamEvaluation;
+
+    @BeforeEach
+    public void setUp() {
+        BatchProcessor batchProcessor = new BatchProcessor(sqlSolutionEvaluator, statementCache, similarityDetector, batchManifest,
+                evaluationHistory, solutionReader, workerPool);
+        streamEvaluation = new StreamEvaluation(batchProcessor, evaluationHistory);
+    }
+
+    @Test
+    void run_PathInlineAndInvalidRecords_ResultLinesInInputOrder(@TempDir Path directory) throws Exception {
+        Path script = Files.writeString(directory.resolve("student2.sql"), "");
+        String input = "{\"id\": \"student1\", \"text\": \"select * from table_name_1;\"}\n"
+                + script + "\n"
+                + "{\"id\": \"student3\"}\n";
+        when(solutionReader.read(script)).thenReturn("SELECT * FROM TABLE_NAME_2;");
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        ReflectionTestUtils.setField(streamEvaluation, "ordering", StreamOrdering.INPUT);
+
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        streamEvaluation.run(CRITERIA_JSON, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(results, true, StandardCharsets.UTF_8));
+
+        List<JsonNode> actualResult = new ArrayList<>();
+        for (String line : results.toString(StandardCharsets.UTF_8).split("\n")) actualResult.add(new ObjectMapper().readTree(line));
+        Assertions.assertEquals(3, actualResult.size());
+        Assertions.assertEquals("student1", actualResult.get(0).get("id").asText());
+        Assertions.assertEquals("student2", actualResult.get(1).get("id").asText());
+        Assertions.assertTrue(actualResult.get(1).get("error").isNull());
+        Assertions.assertTrue(actualResult.get(2).get("error").asText().startsWith("Invalid record"));
+        verify(sqlSolutionEvaluator, times(1)).evaluate(any(), eq(List.of("SELECT * FROM TABLE_NAME_1;")));
+        verify(sqlSolutionEvaluator, times(1)).evaluate(any(), eq(List.of("SELECT * FROM TABLE_NAME_2;")));
+        verify(evaluationHistory, times(1)).record(eq(CRITERIA_JSON), eq("student2"), Mockito.anyMap(), Mockito.anyLong());
+    }
+}
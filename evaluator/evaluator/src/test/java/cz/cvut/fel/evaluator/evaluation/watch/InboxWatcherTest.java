@@ -0,0 +1,84 @@
+package cz.cvut.fel.evaluator.evaluation.watch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest
+public class InboxWatcherTest {
+
+    InboxWatcher inboxWatcher = getInboxWatcher();
+
+    @AfterEach
+    public void tearDown() {
+        inboxWatcher.close();
+    }
+
+    @Test
+    void poll_FileBeingWritten_IsHandedOverWhenComplete(@TempDir Path inbox) throws Exception {
+        inboxWatcher.open(inbox);
+        Path file = Files.writeString(inbox.resolve("student1.pdf"), "PART 1");
+
+        List<Path> whileWritten = inboxWatcher.poll(100);
+        Files.writeString(file, " PART 2", StandardOpenOption.APPEND);
+        List<Path> actualResult = inboxWatcher.poll(5000);
+
+        Assertions.assertTrue(whileWritten.isEmpty());
+        Assertions.assertEquals(List.of(file), actualResult);
+    }
+
+    @Test
+    void poll_FilesInInboxBeforeWatching_AreHandedOver(@TempDir Path inbox) throws Exception {
+        Path file = Files.writeString(inbox.resolve("student1.pdf"), "SOLUTION");
+        Files.writeString(inbox.resolve("notes.docx"), "NOTES");
+        inboxWatcher.open(inbox);
+
+        List<Path> actualResult = inboxWatcher.poll(5000);
+
+        Assertions.assertEquals(List.of(file), actualResult);
+    }
+
+    @Test
+    void poll_ReplacedFile_IsHandedOverAgain(@TempDir Path inbox) throws Exception {
+        inboxWatcher.open(inbox);
+        Path file = Files.writeString(inbox.resolve("student1.pdf"), "SOLUTION");
+        inboxWatcher.poll(5000);
+
+        List<Path> unchanged = inboxWatcher.poll(500);
+        Files.writeString(file, "CORRECTED SOLUTION");
+        List<Path> actualResult = inboxWatcher.poll(5000);
+
+        Assertions.assertTrue(unchanged.isEmpty());
+        Assertions.assertEquals(List.of(file), actualResult);
+    }
+
+    @Test
+    void poll_BurstOfThousandFiles_NoFileIsMissed(@TempDir Path inbox) throws Exception {
+        inboxWatcher.open(inbox);
+        for (int i = 0; i < 1000; i++) Files.writeString(inbox.resolve("student" + i + ".pdf"), "SOLUTION " + i);
+
+        Set<Path> actualResult = new HashSet<>();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (actualResult.size() < 1000 && System.currentTimeMillis() < deadline)
+            actualResult.addAll(inboxWatcher.poll(1000));
+
+        Assertions.assertEquals(1000, actualResult.size());
+        Assertions.assertTrue(inboxWatcher.poll(500).isEmpty());
+    }
+
+    private InboxWatcher getInboxWatcher() {
+        InboxWatcher watcher = new InboxWatcher();
+        ReflectionTestUtils.setField(watcher, "debounce", 200L);
+        return watcher;
+    }
+}
@@ -0,0 +1,121 @@
+package cz.cvut.fel.evaluator.evaluation.watch;
+
+
+import cz.cvut.fel.evaluator.evaluation.BatchManifest;
+import cz.cvut.fel.evaluator.evaluation.BatchProcessor;
+import cz.cvut.fel.evaluator.evaluation.history.EvaluationHistory;
+import cz.cvut.fel.evaluator.evaluation.similarity.SimilarityDetector;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.evaluation.sql.StatementCache;
+import cz.cvut.fel.evaluator.evaluation.worker.WorkerPool;
+import cz.cvut.fel.evaluator.output.CohortStatistics;
+import cz.cvut.fel.evaluator.output.HTMLOutput;
+import cz.cvut.fel.evaluator.output.Output;
+import cz.cvut.fel.evaluator.utils.FileUtils;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+public class WatchEvaluationTest {
+
+    @Mock
+    SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    @Mock
+    Output output;
+
+    @Mock
+    HTMLOutput htmlOutput;
+
+    @Mock
+    CohortStatistics cohortStatistics;
+
+    @Mock
+    StatementCache statementCache;
+
+    @Mock
+    SimilarityDetector similarityDetector;
+
+    @Mock
+    BatchManifest batchManifest;
+
+    @Mock
+    EvaluationHistory evaluationHistory;
+
+    @Mock
+    SolutionReader solutionReader;
+
+    @Mock
+    WorkerPool workerPool;
+
+    @Mock
+    InboxWatcher inboxWatcher;
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    WatchEvaluation watchEvaluation;
+
+    MockedStatic<FileUtils> utilities;
+
+    @BeforeEach
+    public void setUpMock() {
+        utilities = Mockito.mockStatic(FileUtils.class);
+        BatchProcessor batchProcessor = new BatchProcessor(sqlSolutionEvaluator, statementCache, similarityDetector, batchManifest,
+                evaluationHistory, solutionReader, workerPool);
+        ReflectionTestUtils.setField(batchProcessor, "htmlOutput", htmlOutput);
+        ReflectionTestUtils.setField(batchProcessor, "cohortStatistics", cohortStatistics);
+        watchEvaluation = new WatchEvaluation(batchProcessor, inboxWatcher);
+    }
+
+    @AfterEach
+    public void close() {
+        utilities.close();
+    }
+
+    @Test
+    void run_TwoSolutionsLandInInbox_SolutionsAreEvaluatedAndReportsWritten(@TempDir Path inbox) throws Exception {
+        Path solution1 = Files.writeString(inbox.resolve("student1.pdf"), "");
+        Path solution2 = Files.writeString(inbox.resolve("student2.pdf"), "");
+        utilities.when(FileUtils::getProgramPath).thenReturn(inbox.toString());
+
+        when(inboxWatcher.poll(Mockito.anyLong())).thenReturn(List.of(solution1, solution2)).thenReturn(List.of());
+        when(solutionReader.read(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0).toString().endsWith("student1.pdf")
+                ? "SELECT * FROM TABLE_NAME_1;" : "SELECT * FROM TABLE_NAME_2;");
+        when(sqlSolutionEvaluator.evaluate(Mockito.any(), Mockito.anyList())).thenReturn(output);
+        doNothing().when(htmlOutput).generateEvaluationResult(Mockito.any(), Mockito.any());
+        doAnswer(invocation -> Files.writeString(invocation.getArgument(1), "")).when(similarityDetector).writeReport(any(), any());
+        doAnswer(invocation -> {
+            Files.writeString(invocation.getArgument(0), "");
+            return Files.writeString(invocation.getArgument(1), "");
+        }).when(cohortStatistics).writeSummary(any(), any());
+        ReflectionTestUtils.setField(watchEvaluation, "idleTimeout", 1);
+
+        watchEvaluation.run(CRITERIA_JSON, inbox.toString(), "outbox");
+
+        verify(inboxWatcher, times(1)).open(inbox);
+        verify(sqlSolutionEvaluator, times(2)).evaluate(any(), Mockito.anyList());
+        verify(htmlOutput, times(1)).generateEvaluationResult(any(), eq("outbox/student2.html"));
+        verify(batchManifest, times(1)).save(inbox.resolve("outbox"));
+        verify(cohortStatistics, times(2)).add(Mockito.anyMap());
+        verify(inboxWatcher, times(1)).close();
+        Assertions.assertTrue(Files.exists(inbox.resolve("outbox").resolve("cohort-summary.html")));
+    }
+}
@@ -0,0 +1,72 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.List;
+
+@SpringBootTest
+public class WorkerPoolTest {
+
+    WorkerPool workerPool = new WorkerPool();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(workerPool, "processes", 1);
+        ReflectionTestUtils.setField(workerPool, "command", List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), FakeWorker.class.getName()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        workerPool.shutdown();
+    }
+
+    @Test
+    void extract_WorkerCrashes_SolutionFailsAndWorkerIsRestarted() throws Exception {
+        String first = workerPool.extract(Path.of("student1.pdf"));
+        Assertions.assertThrows(IOException.class, () -> workerPool.extract(Path.of("CRASH.pdf")));
+        String second = workerPool.extract(Path.of("student2.pdf"));
+
+        Assertions.assertEquals("TEXT", first);
+        Assertions.assertEquals("TEXT", second);
+        Assertions.assertEquals("1 worker processes, 1 restarted after a crash", workerPool.getReport());
+    }
+
+    @Test
+    void extract_WorkerTimesOut_SolutionFailsAndNextSolutionSucceeds() throws Exception {
+        ReflectionTestUtils.setField(workerPool, "timeout", 1);
+
+        Assertions.assertThrows(IOException.class, () -> workerPool.extract(Path.of("HANG.pdf")));
+        String actualResult = workerPool.extract(Path.of("student1.pdf"));
+
+        Assertions.assertEquals("TEXT", actualResult);
+        Assertions.assertEquals("1 worker processes, 1 restarted after a crash", workerPool.getReport());
+    }
+
+    /**
+     * Worker answering every request with the same text, which crashes on a file named CRASH
+     * and answers a file named HANG only after a long time.
+     */
+    public static class FakeWorker {
+
+        public static void main(String[] args) throws IOException, InterruptedException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains("CRASH")) Runtime.getRuntime().halt(3);
+                if (line.contains("HANG")) Thread.sleep(60000);
+                System.out.println("Log of the worker");
+                System.out.println(WorkerServer.RESPONSE_PREFIX + "{\"text\":\"TEXT\"}");
+            }
+        }
+    }
+}
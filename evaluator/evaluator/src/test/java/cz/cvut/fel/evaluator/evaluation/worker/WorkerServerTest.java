@@ -0,0 +1,106 @@
+package cz.cvut.fel.evaluator.evaluation.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.evaluation.sql.SQLSolutionEvaluator;
+import cz.cvut.fel.evaluator.output.Output;
+import cz.cvut.fel.evaluator.utils.SolutionReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+public class WorkerServerTest {
+
+    @InjectMocks
+    WorkerServer workerServer;
+
+    @Mock
+    SolutionReader solutionReader;
+
+    @Mock
+    SQLSolutionEvaluator sqlSolutionEvaluator;
+
+    ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void serve_ExtractAndEvaluateRequests_ResponsesAreWritten() throws Exception {
+        Map<String, Criterion> criteria = Map.of("SELECT", new Criterion());
+        when(solutionReader.read(Path.of("/solutions/student1.pdf"))).thenReturn("SELECT 1;");
+        when(sqlSolutionEvaluator.evaluate(Mockito.anyMap(), eq(List.of("SELECT 1;"))))
+                .thenReturn(new Output(criteria, List.of(), List.of("1 query")));
+
+        String requests = mapper.writeValueAsString(new WorkerRequest(WorkerRequest.EXTRACT, "/solutions/student1.pdf", null, null)) + "\n"
+                + mapper.writeValueAsString(new WorkerRequest(WorkerRequest.EVALUATE, null, List.of("SELECT 1;"), criteria)) + "\n";
+        List<WorkerResponse> actualResult = serve(requests);
+
+        Assertions.assertEquals(2, actualResult.size());
+        Assertions.assertEquals("SELECT 1;", actualResult.get(0).getText());
+        Assertions.assertEquals(List.of("1 query"), actualResult.get(1).toOutput().getStatistics());
+        verify(sqlSolutionEvaluator, times(1)).clearDatabase();
+    }
+
+    @Test
+    void serve_UnreadableFile_ErrorIsWritten() throws Exception {
+        when(solutionReader.read(Mockito.any())).thenThrow(new IOException("Broken PDF"));
+
+        List<WorkerResponse> actualResult = serve(mapper.writeValueAsString(
+                new WorkerRequest(WorkerRequest.EXTRACT, "/solutions/student1.pdf", null, null)) + "\n");
+
+        Assertions.assertEquals("IOException: Broken PDF", actualResult.get(0).getError());
+    }
+
+    @Test
+    void serve_FileInArchive_EntryIsReadAndArchiveClosed(@TempDir Path directory) throws Exception {
+        Path archive = directory.resolve("solutions.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("group1/student1.pdf"));
+            zip.write("PDF".getBytes(StandardCharsets.UTF_8));
+        }
+        URI entry = URI.create("jar:" + archive.toUri() + "!/group1/student1.pdf");
+        when(solutionReader.read(Mockito.argThat(path -> path.toUri().equals(entry)))).thenReturn("SELECT 1;");
+
+        List<WorkerResponse> actualResult = serve(mapper.writeValueAsString(
+                new WorkerRequest(WorkerRequest.EXTRACT, entry.toString(), null, null)) + "\n");
+
+        Assertions.assertEquals("SELECT 1;", actualResult.get(0).getText());
+        Assertions.assertThrows(FileSystemNotFoundException.class, () -> FileSystems.getFileSystem(entry));
+    }
+
+    private List<WorkerResponse> serve(String requests) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        workerServer.serve(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        List<WorkerResponse> responses = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n"))
+            if (line.startsWith(WorkerServer.RESPONSE_PREFIX))
+                responses.add(mapper.readValue(line.substring(WorkerServer.RESPONSE_PREFIX.length()), WorkerResponse.class));
+        return responses;
+    }
+}
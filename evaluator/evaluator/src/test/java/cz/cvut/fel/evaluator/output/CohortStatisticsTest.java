@@ -0,0 +1,63 @@
+package cz.cvut.fel.evaluator.output;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.evaluator.evaluation.Criterion;
+import cz.cvut.fel.evaluator.evaluation.ScoreCalculator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+public class CohortStatisticsTest {
+
+    CohortStatistics cohortStatistics = new CohortStatistics();
+
+    @Value("${CRITERIA_JSON}")
+    private String CRITERIA_JSON;
+
+    @Test
+    void add_ThreeSolutions_MeanAndHistogramAreUpdated() throws Exception {
+        cohortStatistics.add(getCriteria(true));
+        cohortStatistics.add(getCriteria(true));
+        cohortStatistics.add(getCriteria(false));
+
+        CriterionStatistics insertInto = cohortStatistics.getStatistics().get("statements to fill tables by data");
+        CriterionStatistics total = cohortStatistics.getStatistics().get(CohortStatistics.TOTAL_SCORE);
+
+        Assertions.assertEquals(3, insertInto.getCount());
+        Assertions.assertEquals(4 / 3.0, insertInto.getMean(), 1e-9);
+        Assertions.assertEquals(1, insertInto.getHistogram()[0]);
+        Assertions.assertEquals(2, insertInto.getHistogram()[CriterionStatistics.BINS - 1]);
+        Assertions.assertEquals(18, total.getMaxScore());
+        Assertions.assertEquals(2, total.getSketch().getQuantile(1));
+        Assertions.assertFalse(cohortStatistics.getStatistics().containsKey("corresponding to the relational model"));
+    }
+
+    @Test
+    void writeSummary_TwoSolutions_SummaryIsWritten(@TempDir Path directory) throws Exception {
+        cohortStatistics.add(getCriteria(true));
+        cohortStatistics.add(getCriteria(false));
+
+        cohortStatistics.writeSummary(directory.resolve("summary.html"), directory.resolve("summary.json"));
+
+        Map<String, Map<String, Object>> summary = new ObjectMapper().readValue(directory.resolve("summary.json").toFile(), new TypeReference<>() {});
+        Assertions.assertEquals(2, summary.get(CohortStatistics.TOTAL_SCORE).get("count"));
+        Assertions.assertEquals(1.0, summary.get("statements to fill tables by data").get("mean"));
+        Assertions.assertEquals(List.of(1, 0, 0, 0, 0, 0, 0, 0, 0, 1), summary.get("statements to fill tables by data").get("histogram"));
+        Assertions.assertTrue(Files.readString(directory.resolve("summary.html")).contains("Evaluated solutions: 2"));
+    }
+
+    private Map<String, Criterion> getCriteria(boolean withInsertInto) throws Exception {
+        Map<String, Criterion> criteria = new ObjectMapper().readValue(Files.readString(Path.of(CRITERIA_JSON)), new TypeReference<>() {});
+        if (withInsertInto) new ScoreCalculator(criteria).calculateInsertInto();
+        return criteria;
+    }
+}
@@ -0,0 +1,52 @@
+package cz.cvut.fel.evaluator.output;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Random;
+
+@SpringBootTest
+public class QuantileSketchTest {
+
+    QuantileSketch quantileSketch = new QuantileSketch();
+
+    @ParameterizedTest(name = "getQuantile_QuantileIs{0}_EstimateIsClose")
+    @ValueSource(doubles = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99})
+    void getQuantile_UniformValues_EstimateIsClose(double quantile) {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) quantileSketch.add(random.nextDouble() * 100);
+
+        double expectedResult = quantile * 100;
+        double actualResult = quantileSketch.getQuantile(quantile);
+
+        Assertions.assertEquals(expectedResult, actualResult, 0.5);
+    }
+
+    @Test
+    void getCentroidCount_MillionValues_CountIsBounded() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000_000; i++) quantileSketch.add(random.nextGaussian());
+
+        Assertions.assertEquals(1_000_000, quantileSketch.getCount());
+        Assertions.assertTrue(quantileSketch.getCentroidCount() <= 100);
+    }
+
+    @Test
+    void getQuantile_NoValue_NaN() {
+        Assertions.assertTrue(Double.isNaN(quantileSketch.getQuantile(0.5)));
+    }
+
+    @Test
+    void getQuantile_FewValues_MinAndMaxAreExact() {
+        quantileSketch.add(2);
+        quantileSketch.add(0.5);
+        quantileSketch.add(1);
+
+        Assertions.assertEquals(0.5, quantileSketch.getQuantile(0));
+        Assertions.assertEquals(1, quantileSketch.getQuantile(0.5));
+        Assertions.assertEquals(2, quantileSketch.getQuantile(1));
+    }
+}
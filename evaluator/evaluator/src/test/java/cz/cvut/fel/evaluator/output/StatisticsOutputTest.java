@@ -125,4 +125,19 @@ public class StatisticsOutputTest {
 
         Assertions.assertEquals(expectedOutput, actualOutput);
     }
+
+    @Test
+    void reset_StatisticsAreIncremented_StatisticsAreZero() {
+        statisticsOutput.incrementSelectQueriesCount();
+        statisticsOutput.incrementExecutedSelectQueriesCount();
+        statisticsOutput.reset();
+
+        List<String> expectedOutput = List.of(
+                "CREATE TABLE: 0 read / 0 executed<br>",
+                "INSERT INTO: 0 read / 0 executed<br>",
+                "SELECT: 0 read / 0 executed<br>");
+        List<String> actualOutput = statisticsOutput.generateList();
+
+        Assertions.assertEquals(expectedOutput, actualOutput);
+    }
 }
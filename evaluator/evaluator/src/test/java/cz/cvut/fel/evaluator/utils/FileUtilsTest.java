@@ -2,9 +2,14 @@ package cz.cvut.fel.evaluator.utils;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @SpringBootTest
 public class FileUtilsTest {
@@ -43,6 +48,39 @@ public class FileUtilsTest {
         Assertions.assertEquals(expectedResult, actualResult);
     }
 
+    @Test
+    void readPDF_StreamOfFile_Success() throws IOException {
+        String expectedResult = "PDF FILE CONTENT \n";
+        String actualResult;
+        try (InputStream input = Files.newInputStream(Path.of("src/test/resources/assertions/actual-read-pdf.pdf"))) {
+            actualResult = FileUtils.readPDF(input).replaceAll("(\\r)?\\n|\\r", "\n");
+        }
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void readText_SQLScriptWithByteOrderMark_TextInUpperCase(@TempDir Path directory) throws IOException {
+        Path script = directory.resolve("student1.sql");
+        Files.write(script, ("\uFEFFcreate table person (name varchar(50) default 'Žluťoučký');")
+                .getBytes(StandardCharsets.UTF_8));
+
+        String expectedResult = "CREATE TABLE PERSON (NAME VARCHAR(50) DEFAULT 'ŽLUŤOUČKÝ');";
+        String actualResult = FileUtils.readText(script);
+
+        Assertions.assertEquals(expectedResult, actualResult);
+    }
+
+    @Test
+    void readText_LargeScript_WholeTextIsRead(@TempDir Path directory) throws IOException {
+        String statement = "INSERT INTO PERSON VALUES (1, 'NAME');\n";
+        Path script = Files.writeString(directory.resolve("student1.sql"), statement.repeat(10_000));
+
+        String actualResult = FileUtils.readText(script);
+
+        Assertions.assertEquals(statement.repeat(10_000), actualResult);
+    }
+
     @Test
     void readPDF_InvalidFilePath_IOExceptionIsThrown() {
         Assertions.assertThrows(IOException.class, () -> FileUtils.readPDF(""));